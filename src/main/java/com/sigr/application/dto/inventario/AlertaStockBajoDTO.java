@@ -0,0 +1,21 @@
+package com.sigr.application.dto.inventario;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada o salida de un producto del conjunto de stock bajo de una sede.
+ * Cuando el inventario se elimina, cantidad es null y stockBajo false.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertaStockBajoDTO {
+
+    private Long productoId;
+    private Long sedeId;
+    private Integer cantidad;
+    private Integer stockMinimo;
+    private Boolean stockBajo;
+}
\ No newline at end of file
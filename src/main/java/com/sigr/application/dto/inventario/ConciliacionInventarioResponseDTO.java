@@ -0,0 +1,21 @@
+package com.sigr.application.dto.inventario;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ConciliacionInventarioResponseDTO {
+
+    private Long sedeId;
+    private Integer productosContados;
+    private Integer productosAjustados;
+    private Integer productosSinDiferencia;
+    private Long unidadesFaltantes;
+    private Long unidadesSobrantes;
+    // Productos contados que no tienen inventario en la sede; no se aplican
+    private List<Long> productosSinInventario = new ArrayList<>();
+    // Sólo los productos cuya cantidad cambió
+    private List<DiferenciaInventarioDTO> diferencias = new ArrayList<>();
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.sigr.application.dto.inventario;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiferenciaInventarioDTO {
+
+    private Long productoId;
+    private Integer cantidadSistema;
+    private Integer cantidadContada;
+    private Integer diferencia;
+}
\ No newline at end of file
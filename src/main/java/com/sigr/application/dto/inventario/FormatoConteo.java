@@ -0,0 +1,6 @@
+package com.sigr.application.dto.inventario;
+
+public enum FormatoConteo {
+    CSV,
+    JSON
+}
\ No newline at end of file
@@ -16,4 +16,8 @@ public class InventarioRequestDTO {
     @NotNull(message = "La cantidad es obligatoria")
     @Min(value = 0, message = "La cantidad no puede ser negativa")
     private Integer cantidad;
+
+    // Umbral propio de la sede; si no se envía se usa el del producto
+    @Min(value = 0, message = "El stock mínimo no puede ser negativo")
+    private Integer stockMinimo;
 }
\ No newline at end of file
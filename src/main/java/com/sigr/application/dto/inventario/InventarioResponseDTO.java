@@ -1,10 +1,16 @@
 package com.sigr.application.dto.inventario;
 
+import com.sigr.application.dto.categoria.CategoriaResponseDTO;
 import com.sigr.application.dto.producto.ProductoResponseDTO;
 import com.sigr.application.dto.sede.SedeResponseDTO;
+import com.sigr.domain.entity.Producto;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
 public class InventarioResponseDTO {
 
     private Long id;
@@ -13,5 +19,41 @@ public class InventarioResponseDTO {
     private SedeResponseDTO sede;
     private Long sedeId;
     private Integer cantidad;
+    private Integer stockMinimo;
     private Boolean stockBajo;
+
+    // Proyección JPQL: arma el mismo DTO que InventarioMapper a partir de una sola fila con los joins resueltos
+    public InventarioResponseDTO(Long id, Integer cantidad, Integer stockMinimo,
+                                 Long productoId, String codigoBarra, String productoNombre, String descripcion,
+                                 BigDecimal precioCompra, BigDecimal precioVenta,
+                                 Long categoriaId, String categoriaNombre,
+                                 Long sedeId, String sedeNombre, String direccion, String telefono) {
+        this.id = id;
+        this.cantidad = cantidad;
+        this.stockMinimo = stockMinimo != null ? stockMinimo : Producto.STOCK_MINIMO_POR_DEFECTO;
+        this.stockBajo = cantidad <= this.stockMinimo;
+
+        this.producto = new ProductoResponseDTO();
+        this.producto.setId(productoId);
+        this.producto.setCodigoBarra(codigoBarra);
+        this.producto.setNombre(productoNombre);
+        this.producto.setDescripcion(descripcion);
+        this.producto.setPrecioCompra(precioCompra);
+        this.producto.setPrecioVenta(precioVenta);
+        this.productoId = productoId;
+        if (categoriaId != null) {
+            CategoriaResponseDTO categoria = new CategoriaResponseDTO();
+            categoria.setId(categoriaId);
+            categoria.setNombre(categoriaNombre);
+            this.producto.setCategoria(categoria);
+            this.producto.setCategoriaId(categoriaId);
+        }
+
+        this.sede = new SedeResponseDTO();
+        this.sede.setId(sedeId);
+        this.sede.setNombre(sedeNombre);
+        this.sede.setDireccion(direccion);
+        this.sede.setTelefono(telefono);
+        this.sedeId = sedeId;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.sigr.application.dto.inventario;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class MovimientoInventarioResponseDTO {
+
+    private Long id;
+    private Long productoId;
+    private Long sedeId;
+    private LocalDateTime fecha;
+    private String tipo;
+    private Integer cantidad;
+    private Long referenciaId;
+    private String motivo;
+}
\ No newline at end of file
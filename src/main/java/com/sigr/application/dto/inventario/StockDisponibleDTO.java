@@ -0,0 +1,25 @@
+package com.sigr.application.dto.inventario;
+
+import lombok.Data;
+
+@Data
+public class StockDisponibleDTO {
+
+    private Long productoId;
+    private Long sedeId;
+    private Integer cantidad;
+    private Boolean disponible;
+    private Integer stockMinimo;
+    private Boolean stockBajo;
+
+    public StockDisponibleDTO() {}
+
+    public StockDisponibleDTO(Long productoId, Long sedeId, Integer cantidad, Integer stockMinimo) {
+        this.productoId = productoId;
+        this.sedeId = sedeId;
+        this.cantidad = cantidad;
+        this.disponible = cantidad != null && cantidad > 0;
+        this.stockMinimo = stockMinimo;
+        this.stockBajo = cantidad != null && stockMinimo != null && cantidad <= stockMinimo;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.sigr.application.dto.inventario;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHistoricoDTO {
+
+    private Long productoId;
+    private Long sedeId;
+    private LocalDateTime fecha;
+    private Long cantidad;
+    private LocalDateTime fechaSnapshot;
+}
\ No newline at end of file
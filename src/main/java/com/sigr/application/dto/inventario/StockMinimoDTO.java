@@ -0,0 +1,12 @@
+package com.sigr.application.dto.inventario;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class StockMinimoDTO {
+
+    // null quita el umbral propio de la sede y vuelve a aplicar el del producto
+    @Min(value = 0, message = "El stock mínimo no puede ser negativo")
+    private Integer stockMinimo;
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.sigr.application.dto.inventario;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TransferenciaStockRequestDTO {
+
+    @NotNull(message = "La sede de origen es obligatoria")
+    private Long sedeOrigenId;
+
+    @NotNull(message = "La sede de destino es obligatoria")
+    private Long sedeDestinoId;
+
+    @NotEmpty(message = "Debe indicar al menos un producto")
+    @Size(max = 1000, message = "No se pueden transferir más de 1000 productos por solicitud")
+    @Valid
+    private List<ItemDTO> items;
+
+    private String motivo;
+
+    @Data
+    public static class ItemDTO {
+
+        @NotNull(message = "El ID del producto es obligatorio")
+        private Long productoId;
+
+        @NotNull(message = "La cantidad es obligatoria")
+        @Min(value = 1, message = "La cantidad debe ser mayor a 0")
+        private Integer cantidad;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.sigr.application.dto.inventario;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TransferenciaStockResponseDTO {
+
+    private Long sedeOrigenId;
+    private Long sedeDestinoId;
+    private Integer productosTransferidos;
+    private Long unidadesTransferidas;
+    // Productos que no tenían inventario en la sede de destino y se crearon con la transferencia
+    private List<Long> inventariosCreados = new ArrayList<>();
+}
\ No newline at end of file
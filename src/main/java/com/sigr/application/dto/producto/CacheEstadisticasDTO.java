@@ -0,0 +1,17 @@
+package com.sigr.application.dto.producto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEstadisticasDTO {
+
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private int tamano;
+    private int capacidad;
+}
\ No newline at end of file
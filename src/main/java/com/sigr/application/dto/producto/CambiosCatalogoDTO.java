@@ -0,0 +1,21 @@
+package com.sigr.application.dto.producto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambiosCatalogoDTO {
+
+    // Versión del catálogo que el terminal debe enviar como since en la próxima sincronización
+    private Long version;
+    // true si es el catálogo completo y el terminal debe reemplazar su copia en lugar de aplicar cambios
+    private Boolean completo;
+    // Productos creados o modificados
+    private List<ProductoResponseDTO> productos;
+    private List<Long> eliminados;
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.sigr.application.dto.producto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CodigoBarraBatchRequestDTO {
+
+    @NotEmpty(message = "Debe enviar al menos un código de barras")
+    @Size(max = 500, message = "No se pueden resolver más de 500 códigos de barras por solicitud")
+    private List<@NotBlank(message = "El código de barras no puede estar vacío") String> codigosBarra;
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.sigr.application.dto.producto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CodigoBarraBatchResponseDTO {
+
+    // Un producto por código distinto encontrado, en el orden en que se escanearon
+    private List<ProductoResponseDTO> productos;
+    private List<String> noEncontrados;
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.sigr.application.dto.producto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorImportacionDTO {
+
+    // Número de línea del archivo, contando la cabecera
+    private Integer fila;
+    private String codigoBarra;
+    private String mensaje;
+}
\ No newline at end of file
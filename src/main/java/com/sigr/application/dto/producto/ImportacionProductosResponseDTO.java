@@ -0,0 +1,17 @@
+package com.sigr.application.dto.producto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportacionProductosResponseDTO {
+
+    private Long sedeId;
+    private Integer filasLeidas;
+    private Integer productosCreados;
+    private Integer filasConError;
+    // Sólo las primeras; filasConError tiene el total
+    private List<ErrorImportacionDTO> errores = new ArrayList<>();
+}
\ No newline at end of file
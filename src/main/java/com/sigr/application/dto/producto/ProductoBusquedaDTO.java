@@ -0,0 +1,25 @@
+package com.sigr.application.dto.producto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoBusquedaDTO {
+
+    private Long id;
+    private String codigoBarra;
+    private String nombre;
+    private String descripcion;
+    private BigDecimal precioVenta;
+    // Sólo se informa cuando la búsqueda se filtra por sede
+    private Integer stock;
+
+    public ProductoBusquedaDTO(Long id, String codigoBarra, String nombre, String descripcion, BigDecimal precioVenta) {
+        this(id, codigoBarra, nombre, descripcion, precioVenta, null);
+    }
+}
\ No newline at end of file
@@ -33,5 +33,5 @@ public class ProductoConStockDTO {
     
     // Indicadores útiles
     private Boolean tieneStock;
-    private Boolean stockBajo; // Si stock <= 5
+    private Boolean stockBajo; // Si stock <= stock mínimo
 }
\ No newline at end of file
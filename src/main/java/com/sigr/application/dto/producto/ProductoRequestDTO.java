@@ -34,6 +34,9 @@ public class ProductoRequestDTO {
     private Long marcaId;
 
     private Long proveedorId;
+
+    @Min(value = 0, message = "El stock mínimo debe ser mayor o igual a 0")
+    private Integer stockMinimo;
     
     // Campos para inventario inicial
     @NotNull(message = "La sede es obligatoria")
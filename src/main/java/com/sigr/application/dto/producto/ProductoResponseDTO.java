@@ -23,5 +23,6 @@ public class ProductoResponseDTO {
     private Long marcaId;
     private ProveedorResponseDTO proveedor;
     private Long proveedorId;
+    private Integer stockMinimo;
     private List<ProductoSedeStockDTO> sedes;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.sigr.application.dto.producto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -35,4 +36,8 @@ public class ProductoUpdateDTO {
     private Long marcaId;
 
     private Long proveedorId;
+
+    // Si no se envía se conserva el stock mínimo actual
+    @Min(value = 0, message = "El stock mínimo debe ser mayor o igual a 0")
+    private Integer stockMinimo;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.sigr.application.dto.reporte;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoTopVentaDTO {
+
+    private Long productoId;
+    private String productoNombre;
+    private String codigoBarra;
+    private Long cantidadVendida;
+    // La cantidad real está entre cantidadVendida - errorMaximo y cantidadVendida
+    private Long errorMaximo;
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.sigr.application.dto.venta;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AnulacionMasivaRequestDTO {
+
+    @NotEmpty(message = "Debe indicar al menos una venta")
+    @Size(max = 1000, message = "No se pueden anular más de 1000 ventas por solicitud")
+    private List<@NotNull(message = "El ID de la venta es obligatorio") Long> ventaIds;
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.sigr.application.dto.venta;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class AnulacionMasivaResponseDTO {
+
+    private List<Long> ventasAnuladas = new ArrayList<>();
+    // Ventas inexistentes o que ya estaban anuladas
+    private List<Long> ventasOmitidas = new ArrayList<>();
+    private int totalUnidadesRestauradas;
+    private List<StockRestauradoDTO> stockRestaurado = new ArrayList<>();
+
+    @Data
+    public static class StockRestauradoDTO {
+        private Long sedeId;
+        private Long productoId;
+        private Integer cantidad;
+
+        public StockRestauradoDTO() {}
+
+        public StockRestauradoDTO(Long sedeId, Long productoId, Integer cantidad) {
+            this.sedeId = sedeId;
+            this.productoId = productoId;
+            this.cantidad = cantidad;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.sigr.application.dto.venta;
+
+public enum FormatoExportacion {
+    CSV,
+    NDJSON
+}
\ No newline at end of file
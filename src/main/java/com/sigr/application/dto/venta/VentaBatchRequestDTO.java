@@ -0,0 +1,17 @@
+package com.sigr.application.dto.venta;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class VentaBatchRequestDTO {
+
+    @NotEmpty(message = "Debe incluir al menos una venta")
+    @Size(max = 5000, message = "No se pueden enviar más de 5000 ventas por lote")
+    @Valid
+    private List<VentaRequestDTO> ventas;
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.sigr.application.dto.venta;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class VentaBatchResponseDTO {
+
+    private int totalVentas;
+    private int ventasCreadas;
+    private int ventasRechazadas;
+    private List<ResultadoVentaDTO> resultados = new ArrayList<>();
+
+    @Data
+    public static class ResultadoVentaDTO {
+        // Posición de la venta dentro del lote recibido
+        private int indice;
+        private boolean exitosa;
+        private Long ventaId;
+        private String error;
+
+        public ResultadoVentaDTO() {}
+
+        public ResultadoVentaDTO(int indice, boolean exitosa, Long ventaId, String error) {
+            this.indice = indice;
+            this.exitosa = exitosa;
+            this.ventaId = ventaId;
+            this.error = error;
+        }
+    }
+}
\ No newline at end of file
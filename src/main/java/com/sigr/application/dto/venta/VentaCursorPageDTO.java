@@ -0,0 +1,19 @@
+package com.sigr.application.dto.venta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentaCursorPageDTO {
+
+    private List<VentaResponseDTO> content;
+    private int size;
+    // Cursor opaco para pedir la siguiente página; null cuando no hay más resultados
+    private String nextCursor;
+    private boolean hasNext;
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.sigr.application.dto.venta;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Una fila del cursor de exportación: datos de la venta repetidos en cada línea de detalle.
+ * Las ventas sin detalles traen los campos de detalle en null.
+ */
+@Data
+public class VentaExportFilaDTO {
+
+    private Long ventaId;
+    private LocalDateTime fecha;
+    private Long sedeId;
+    private Long usuarioId;
+    private Long vehiculoId;
+    private LocalDateTime fechaEntrega;
+    private BigDecimal total;
+    private Boolean estado;
+    private String descripcion;
+    private Long detalleId;
+    private Long productoId;
+    private String codigoBarra;
+    private String productoNombre;
+    private Integer cantidad;
+    private BigDecimal precioUnitario;
+}
\ No newline at end of file
@@ -4,9 +4,11 @@ import com.sigr.application.dto.categoria.CategoriaResponseDTO;
 import com.sigr.application.dto.inventario.InventarioRequestDTO;
 import com.sigr.application.dto.inventario.InventarioResponseDTO;
 import com.sigr.application.dto.inventario.InventarioUpdateDTO;
+import com.sigr.application.dto.inventario.MovimientoInventarioResponseDTO;
 import com.sigr.application.dto.producto.ProductoResponseDTO;
 import com.sigr.application.dto.sede.SedeResponseDTO;
 import com.sigr.domain.entity.Inventario;
+import com.sigr.domain.entity.MovimientoInventario;
 import com.sigr.domain.entity.Producto;
 import com.sigr.domain.entity.Sede;
 import org.springframework.stereotype.Component;
@@ -20,6 +22,7 @@ public class InventarioMapper {
     public Inventario toEntity(InventarioRequestDTO dto) {
         Inventario inventario = new Inventario();
         inventario.setCantidad(dto.getCantidad());
+        inventario.setStockMinimo(dto.getStockMinimo());
         
         if (dto.getProductoId() != null) {
             Producto producto = new Producto();
@@ -40,7 +43,8 @@ public class InventarioMapper {
         InventarioResponseDTO dto = new InventarioResponseDTO();
         dto.setId(inventario.getId());
         dto.setCantidad(inventario.getCantidad());
-        dto.setStockBajo(inventario.getCantidad() <= 5); // Umbral por defecto
+        dto.setStockMinimo(inventario.getStockMinimoEfectivo());
+        dto.setStockBajo(inventario.getCantidad() <= dto.getStockMinimo());
         
         if (inventario.getProducto() != null) {
             ProductoResponseDTO productoDto = new ProductoResponseDTO();
@@ -81,6 +85,19 @@ public class InventarioMapper {
                 .collect(Collectors.toList());
     }
 
+    public MovimientoInventarioResponseDTO toMovimientoResponseDTO(MovimientoInventario movimiento) {
+        MovimientoInventarioResponseDTO dto = new MovimientoInventarioResponseDTO();
+        dto.setId(movimiento.getId());
+        dto.setProductoId(movimiento.getProductoId());
+        dto.setSedeId(movimiento.getSedeId());
+        dto.setFecha(movimiento.getFecha());
+        dto.setTipo(movimiento.getTipo().name());
+        dto.setCantidad(movimiento.getCantidad());
+        dto.setReferenciaId(movimiento.getReferenciaId());
+        dto.setMotivo(movimiento.getMotivo());
+        return dto;
+    }
+
     public void updateEntityFromUpdateDTO(InventarioUpdateDTO dto, Inventario inventario) {
         inventario.setCantidad(dto.getCantidad());
     }
@@ -27,6 +27,9 @@ public class ProductoMapper {
         producto.setDescripcion(dto.getDescripcion());
         producto.setPrecioCompra(dto.getPrecioCompra());
         producto.setPrecioVenta(dto.getPrecioVenta());
+        if (dto.getStockMinimo() != null) {
+            producto.setStockMinimo(dto.getStockMinimo());
+        }
         
         if (dto.getCategoriaId() != null) {
             Categoria categoria = new Categoria();
@@ -61,6 +64,7 @@ public class ProductoMapper {
         dto.setDescripcion(producto.getDescripcion());
         dto.setPrecioCompra(producto.getPrecioCompra());
         dto.setPrecioVenta(producto.getPrecioVenta());
+        dto.setStockMinimo(producto.getStockMinimo());
         
         if (producto.getCategoria() != null) {
             CategoriaResponseDTO categoriaDto = new CategoriaResponseDTO();
@@ -118,6 +122,9 @@ public class ProductoMapper {
         producto.setDescripcion(dto.getDescripcion());
         producto.setPrecioCompra(dto.getPrecioCompra());
         producto.setPrecioVenta(dto.getPrecioVenta());
+        if (dto.getStockMinimo() != null) {
+            producto.setStockMinimo(dto.getStockMinimo());
+        }
         
         if (dto.getCategoriaId() != null) {
             Categoria categoria = new Categoria();
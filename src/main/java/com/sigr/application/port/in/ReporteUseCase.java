@@ -2,6 +2,7 @@ package com.sigr.application.port.in;
 
 import com.sigr.application.dto.reporte.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -14,6 +15,16 @@ public interface ReporteUseCase {
     ReporteMovimientosDTO generarReporteMovimientos(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long sedeId);
     
     List<ProductoMasVendidoDTO> obtenerProductosMasVendidos(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long sedeId, Integer limite);
+
+    /**
+     * Ranking aproximado en memoria del día en curso, para widgets en vivo; no consulta la BD.
+     */
+    List<ProductoTopVentaDTO> obtenerTopVentasDelDia(Long sedeId, Integer limite);
+
+    /**
+     * Como {@link #obtenerTopVentasDelDia(Long, Integer)}, para el mes en curso.
+     */
+    List<ProductoTopVentaDTO> obtenerTopVentasDelMes(Long sedeId, Integer limite);
     
     List<ProductoStockBajoDTO> obtenerProductosConStockBajo(Long sedeId);
     
@@ -26,4 +37,6 @@ public interface ReporteUseCase {
     List<ReporteUsuariosDTO> generarReporteRendimientoUsuarios(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long sedeId);
     
     ReporteInventarioDTO generarReporteInventarioCompleto();
+
+    int reconstruirResumenesDiarios(LocalDate fechaInicio, LocalDate fechaFin);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.sigr.application.port.in;
+
+import com.sigr.application.dto.venta.FormatoExportacion;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface VentaExportUseCase {
+
+    /**
+     * Valida los parámetros antes de empezar a escribir la respuesta, cuando aún se puede devolver un error.
+     */
+    void validarExportacion(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
+
+    /**
+     * Escribe las ventas de la sede en el rango con sus detalles en el formato indicado, fila a fila
+     * desde un cursor de base de datos, sin acumular el resultado en memoria.
+     */
+    void exportarVentas(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                        FormatoExportacion formato, OutputStream salida);
+}
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.sigr.application.port.in;
 import com.sigr.application.dto.venta.VentaRequestDTO;
 import com.sigr.application.dto.venta.VentaResponseDTO;
 import com.sigr.application.dto.venta.VentaDescripcionDTO;
+import com.sigr.application.dto.venta.VentaCursorPageDTO;
+import com.sigr.application.dto.venta.VentaBatchResponseDTO;
+import com.sigr.application.dto.venta.AnulacionMasivaResponseDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -12,6 +15,11 @@ import java.util.List;
 public interface VentaUseCase {
     
     VentaResponseDTO crearVenta(VentaRequestDTO ventaRequestDTO);
+
+    VentaResponseDTO crearVenta(VentaRequestDTO ventaRequestDTO, String idempotencyKey);
+    
+    // Ingesta masiva (sincronización de POS sin conexión): cada venta se acepta o rechaza de forma independiente
+    VentaBatchResponseDTO crearVentasEnLote(List<VentaRequestDTO> ventas);
     
     VentaResponseDTO obtenerVentaPorId(Long id);
     
@@ -28,6 +36,8 @@ public interface VentaUseCase {
     // Método eliminado - no existe concepto de cliente
     
     void anularVenta(Long id);
+
+    AnulacionMasivaResponseDTO anularVentas(List<Long> ventaIds);
     
     List<VentaResponseDTO> obtenerVentasDelDia(Long sedeId);
     
@@ -35,6 +45,16 @@ public interface VentaUseCase {
     
     Page<VentaResponseDTO> obtenerVentasPendientesPorEntregarPorSede(Long sedeId, Pageable pageable);
     
+    // Paginación por cursor (fecha, id): 'cursor' es el nextCursor de la página anterior o null para la primera
+    
+    VentaCursorPageDTO obtenerVentasPorSedeCursor(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin, String cursor, int size);
+    
+    VentaCursorPageDTO obtenerVentasPorFechaCursor(LocalDateTime fechaInicio, LocalDateTime fechaFin, String cursor, int size);
+    
+    VentaCursorPageDTO obtenerVentasPorUsuarioCursor(Long usuarioId, String cursor, int size);
+    
+    VentaCursorPageDTO obtenerVentasPendientesPorEntregarCursor(Long sedeId, String cursor, int size);
+    
     VentaResponseDTO actualizarFechaEntrega(Long id, LocalDateTime nuevaFechaEntrega);
     
     VentaResponseDTO actualizarDescripcion(Long id, VentaDescripcionDTO descripcionDTO);
@@ -26,5 +26,7 @@ public interface IngresoProductoUseCase {
 
     IngresoProductoResponseDTO create(IngresoProductoRequestDTO request);
 
+    IngresoProductoResponseDTO create(IngresoProductoRequestDTO request, String idempotencyKey);
+
     void deleteById(Long id);
 }
\ No newline at end of file
@@ -1,12 +1,23 @@
 package com.sigr.application.port.input;
 
+import com.sigr.application.dto.inventario.AlertaStockBajoDTO;
+import com.sigr.application.dto.inventario.ConciliacionInventarioResponseDTO;
+import com.sigr.application.dto.inventario.FormatoConteo;
 import com.sigr.application.dto.inventario.InventarioRequestDTO;
 import com.sigr.application.dto.inventario.InventarioResponseDTO;
 import com.sigr.application.dto.inventario.InventarioUpdateDTO;
+import com.sigr.application.dto.inventario.MovimientoInventarioResponseDTO;
 import com.sigr.application.dto.inventario.StockAdjustmentDTO;
+import com.sigr.application.dto.inventario.StockDisponibleDTO;
+import com.sigr.application.dto.inventario.StockHistoricoDTO;
+import com.sigr.application.dto.inventario.StockMinimoDTO;
+import com.sigr.application.dto.inventario.TransferenciaStockRequestDTO;
+import com.sigr.application.dto.inventario.TransferenciaStockResponseDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface InventarioUseCase {
@@ -21,21 +32,50 @@ public interface InventarioUseCase {
 
     List<InventarioResponseDTO> findBySedeId(Long sedeId);
 
+    Page<InventarioResponseDTO> findBySedeIdPaginated(Long sedeId, Pageable pageable);
+
     List<InventarioResponseDTO> findByProductoId(Long productoId);
 
+    /**
+     * @param cantidad límite explícito; si es null se usa el stock mínimo de cada inventario
+     */
     List<InventarioResponseDTO> findLowStock(Integer cantidad);
 
     List<InventarioResponseDTO> findLowStockBySede(Long sedeId, Integer cantidad);
 
+    List<AlertaStockBajoDTO> findAlertasStockBajo(Long sedeId);
+
     InventarioResponseDTO create(InventarioRequestDTO request);
 
     InventarioResponseDTO update(Long id, InventarioUpdateDTO request);
 
+    InventarioResponseDTO updateStockMinimo(Long id, StockMinimoDTO request);
+
     InventarioResponseDTO adjustStock(Long id, Integer cantidadAjuste, String motivo);
 
+    /**
+     * Mueve todos los productos de la solicitud de una sede a otra en una sola transacción; si alguno
+     * no tiene stock suficiente en origen no se mueve ninguno.
+     */
+    TransferenciaStockResponseDTO transferirStock(TransferenciaStockRequestDTO request);
+
+    /**
+     * Aplica un conteo físico de la sede leído en streaming (CSV con columnas productoId,cantidadContada
+     * o un arreglo JSON de objetos con esos campos). Las líneas repetidas de un producto se suman.
+     */
+    ConciliacionInventarioResponseDTO conciliarConteo(Long sedeId, InputStream contenido, FormatoConteo formato,
+                                                      String motivo);
+
     void deleteById(Long id);
 
     boolean existsByProductoAndSede(Long productoId, Long sedeId);
+
+    StockDisponibleDTO findStock(Long productoId, Long sedeId);
+
+    Page<MovimientoInventarioResponseDTO> findMovimientos(Long productoId, Long sedeId, LocalDateTime fechaInicio,
+                                                          LocalDateTime fechaFin, Pageable pageable);
+
+    StockHistoricoDTO findStockEnFecha(Long productoId, Long sedeId, LocalDateTime fecha);
     
     InventarioResponseDTO adjustStock(Long id, StockAdjustmentDTO request);
 }
\ No newline at end of file
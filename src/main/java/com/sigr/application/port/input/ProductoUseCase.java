@@ -1,5 +1,10 @@
 package com.sigr.application.port.input;
 
+import com.sigr.application.dto.producto.CacheEstadisticasDTO;
+import com.sigr.application.dto.producto.CambiosCatalogoDTO;
+import com.sigr.application.dto.producto.CodigoBarraBatchResponseDTO;
+import com.sigr.application.dto.producto.ImportacionProductosResponseDTO;
+import com.sigr.application.dto.producto.ProductoBusquedaDTO;
 import com.sigr.application.dto.producto.ProductoRequestDTO;
 import com.sigr.application.dto.producto.ProductoResponseDTO;
 import com.sigr.application.dto.producto.ProductoUpdateDTO;
@@ -7,6 +12,7 @@ import com.sigr.application.dto.producto.ProductoConStockDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface ProductoUseCase {
@@ -17,16 +23,57 @@ public interface ProductoUseCase {
 
     Page<ProductoResponseDTO> findAllPaginated(Pageable pageable);
 
+    /**
+     * @param sedeId si no es null, sólo productos con stock en la sede
+     */
+    Page<ProductoResponseDTO> findAllPaginated(Long sedeId, Pageable pageable);
+
     ProductoResponseDTO findById(Long id);
 
     ProductoResponseDTO findByCodigoBarra(String codigoBarra);
 
+    /**
+     * Resuelve los códigos escaneados de una canasta en una sola llamada; los repetidos se devuelven una vez.
+     */
+    CodigoBarraBatchResponseDTO findByCodigosBarra(List<String> codigosBarra);
+
+    CacheEstadisticasDTO findEstadisticasCacheCodigoBarra();
+
     List<ProductoResponseDTO> findByNombreContaining(String nombre);
 
+    /**
+     * Autocompletado desde el índice en memoria, sin consultar la BD.
+     *
+     * @param sedeId si no es null, sólo productos con stock en la sede
+     * @param limite resultados a devolver; por defecto 10 y como máximo 50
+     */
+    List<ProductoBusquedaDTO> buscar(String texto, Long sedeId, Integer limite);
+
     List<ProductoResponseDTO> findByCategoriaId(Long categoriaId);
 
+    /**
+     * Versión vigente del catálogo; cambia con cada alta, modificación o baja de productos y con los cambios
+     * de categoría, marca o proveedor que los productos incluyen.
+     */
+    long findVersionCatalogo();
+
+    /**
+     * Cambios del catálogo para la sincronización de los terminales de venta.
+     *
+     * @param desde última versión que tiene el terminal; null, 0 o una versión desconocida devuelven el catálogo completo
+     * @param hasta versión obtenida de {@link #findVersionCatalogo()}
+     */
+    CambiosCatalogoDTO findCambiosCatalogo(Long desde, long hasta);
+
     ProductoResponseDTO create(ProductoRequestDTO request);
 
+    /**
+     * Crea productos y su inventario inicial en la sede desde un CSV leído en streaming. La cabecera nombra
+     * las columnas (nombre, precioCompra y precioVenta obligatorias); sin codigoBarra se genera un EAN-13.
+     * Las filas inválidas se informan y se omiten sin detener la importación.
+     */
+    ImportacionProductosResponseDTO importarCsv(Long sedeId, InputStream contenido);
+
     ProductoResponseDTO update(Long id, ProductoUpdateDTO request);
 
     void deleteById(Long id);
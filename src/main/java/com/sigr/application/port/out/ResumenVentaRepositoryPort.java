@@ -0,0 +1,55 @@
+package com.sigr.application.port.out;
+
+import com.sigr.application.dto.dashboard.DashboardResponseDTO;
+import com.sigr.application.dto.reporte.ProductoMasVendidoDTO;
+import com.sigr.application.dto.reporte.ReporteVentasDTO;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ResumenVentaRepositoryPort {
+
+    /**
+     * Suma (signo 1) o resta (signo -1) las ventas indicadas en los resúmenes diarios, dentro de la transacción
+     * que crea o anula esas ventas. Espera si se está reconstruyendo alguno de sus días.
+     */
+    void acumular(Collection<Long> ventaIds, int signo);
+
+    /**
+     * Recalcula desde venta/detalle_venta los resúmenes de un día. Debe ejecutarse en su propia transacción:
+     * las ventas de ese día esperan a que se confirme.
+     * @return cantidad de filas sede×día generadas
+     */
+    int reconstruir(LocalDate dia);
+
+    List<DashboardResponseDTO.ProductosVendidosPorSedeDTO> contarProductosVendidosPorSede(LocalDate desde, LocalDate hasta);
+
+    Long contarProductosVendidos(Long sedeId, LocalDate desde, LocalDate hasta);
+
+    DashboardResponseDTO.KpisDTO.VentaMesDTO obtenerKpiVentas(Long sedeId, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Total vendido por mes desde el mes de {@code desde}, incluyendo los meses sin ventas.
+     */
+    List<DashboardResponseDTO.VentaMensualDTO> obtenerVentasMensuales(Long sedeId, LocalDate desde);
+
+    List<DashboardResponseDTO.ProductoMasVendidoDTO> obtenerProductosMasVendidos(Long sedeId, int limite);
+
+    /**
+     * @param limite filas a devolver; null o no positivo devuelve el ranking completo
+     */
+    List<ProductoMasVendidoDTO> findProductosMasVendidos(Long sedeId, LocalDate desde, LocalDate hasta, Integer limite);
+
+    /**
+     * Cantidad y total vendido de cada sede en el rango, en una sola consulta; incluye las sedes sin ventas.
+     * Sólo llena sedeId, sedeNombre, cantidadVentas y totalVentas.
+     */
+    List<ReporteVentasDTO> sumarVentasPorSede(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Producto con más unidades vendidas de cada sede en el rango, por sedeId; las sedes sin ventas no aparecen.
+     */
+    Map<Long, ProductoMasVendidoDTO> findProductoMasVendidoPorSede(LocalDate desde, LocalDate hasta);
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.sigr.application.port.out;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface VentaAnulacionRepositoryPort {
+
+    /**
+     * Marca como anuladas las ventas activas de la lista en una sola sentencia.
+     * @return ids de las ventas que estaban activas y fueron anuladas
+     */
+    List<Long> anularVentasActivas(Collection<Long> ventaIds);
+
+    /**
+     * Suma las cantidades vendidas de las ventas indicadas.
+     * @return sedeId -> (productoId -> cantidad), ambos en orden ascendente
+     */
+    Map<Long, Map<Long, Integer>> sumarCantidadesPorSedeYProducto(Collection<Long> ventaIds);
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.sigr.application.port.out;
+
+import com.sigr.domain.entity.Venta;
+
+import java.util.List;
+
+public interface VentaBatchRepositoryPort {
+
+    /**
+     * Inserta las ventas y sus detalles con lotes JDBC, sin pasar por el contexto de persistencia.
+     * Asigna a cada venta el id generado.
+     */
+    void insertarEnLote(List<Venta> ventas);
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.sigr.application.port.out;
+
+import com.sigr.application.dto.reporte.ProductoMasVendidoDTO;
+import com.sigr.application.dto.reporte.ReporteVentasDTO;
+import com.sigr.domain.entity.DetalleVenta;
+import com.sigr.domain.entity.Venta;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas de lectura de ventas pensadas para listados: se pagina solo sobre ids y luego
+ * se cargan cabeceras (con usuario, sede y vehículo) y detalles (con producto) en un lote cada uno.
+ */
+public interface VentaConsultaRepositoryPort {
+
+    Page<Long> findIds(Pageable pageable);
+
+    Page<Long> findIdsBySedeId(Long sedeId, Pageable pageable);
+
+    Page<Long> findIdsBySedeIdAndFechaBetween(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin, Pageable pageable);
+
+    List<Long> findIdsBySedeIdAndFechaBetween(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin);
+
+    Page<Long> findIdsByFechaBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin, Pageable pageable);
+
+    Page<Long> findIdsByUsuarioId(Long usuarioId, Pageable pageable);
+
+    List<Venta> findAllByIdWithAsociaciones(Collection<Long> ids);
+
+    List<DetalleVenta> findDetallesByVentaIds(Collection<Long> ventaIds);
+
+    /**
+     * Como {@link com.sigr.application.port.out.ResumenVentaRepositoryPort#sumarVentasPorSede}, sobre las ventas
+     * activas, para rangos que no cubren días completos.
+     */
+    List<ReporteVentasDTO> sumarVentasPorSede(LocalDateTime fechaInicio, LocalDateTime fechaFin);
+
+    /**
+     * Ranking de productos por unidades vendidas en la sede, sobre las ventas activas del rango.
+     *
+     * @param limite filas a devolver; null o no positivo devuelve el ranking completo
+     */
+    List<ProductoMasVendidoDTO> findProductosMasVendidos(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                         Integer limite);
+
+    Map<Long, ProductoMasVendidoDTO> findProductoMasVendidoPorSede(LocalDateTime fechaInicio, LocalDateTime fechaFin);
+
+    // Keyset sobre (fecha, id) descendente: devuelve como máximo 'limite' ids estrictamente anteriores al cursor
+
+    List<Long> findIdsBySedeIdAfterCursor(Long sedeId, LocalDateTime fecha, Long id, int limite);
+
+    List<Long> findIdsBySedeIdAndFechaBetweenAfterCursor(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                        LocalDateTime fecha, Long id, int limite);
+
+    List<Long> findIdsByFechaBetweenAfterCursor(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                               LocalDateTime fecha, Long id, int limite);
+
+    List<Long> findIdsByUsuarioIdAfterCursor(Long usuarioId, LocalDateTime fecha, Long id, int limite);
+
+    List<Long> findIdsPendientesPorEntregarAfterCursor(LocalDateTime fechaActual, LocalDateTime fecha, Long id, int limite);
+
+    List<Long> findIdsPendientesPorEntregarBySedeIdAfterCursor(Long sedeId, LocalDateTime fechaActual,
+                                                              LocalDateTime fecha, Long id, int limite);
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.sigr.application.port.out;
+
+import com.sigr.application.dto.venta.VentaExportFilaDTO;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+public interface VentaExportRepositoryPort {
+
+    /**
+     * Recorre con un cursor de sólo avance las ventas de la sede en el rango, ordenadas por fecha e id,
+     * entregando una fila por línea de detalle. Debe ejecutarse dentro de una transacción para que el
+     * driver lea por bloques en lugar de cargar todo el resultado.
+     */
+    void recorrerVentasConDetalles(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                   Consumer<VentaExportFilaDTO> consumidor);
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.sigr.application.port.output;
+
+import com.sigr.application.dto.producto.ProductoBusquedaDTO;
+import com.sigr.domain.entity.Producto;
+
+import java.util.List;
+
+public interface BusquedaProductoPort {
+
+    /**
+     * Busca por nombre, descripción o código de barras sin consultar la BD. La última palabra del texto
+     * se trata como prefijo para que sirva mientras se escribe.
+     *
+     * @param sedeId si no es null, sólo productos con stock en la sede
+     * @return hasta {@code limite} productos ordenados por relevancia
+     */
+    List<ProductoBusquedaDTO> buscar(String texto, Long sedeId, int limite);
+
+    /**
+     * Agrega o reemplaza el producto en el índice al confirmar la transacción.
+     */
+    void indexar(Producto producto);
+
+    void eliminar(Long productoId);
+}
\ No newline at end of file
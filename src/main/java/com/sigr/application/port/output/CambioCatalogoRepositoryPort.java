@@ -0,0 +1,31 @@
+package com.sigr.application.port.output;
+
+import com.sigr.domain.entity.CambioCatalogo;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CambioCatalogoRepositoryPort {
+
+    /**
+     * Incrementa la versión del catálogo y la asigna a los productos dados. Debe llamarse dentro de la
+     * transacción del cambio y como último paso: la fila de versión queda bloqueada hasta confirmar, así que
+     * una importación registra todos sus productos con una sola llamada al terminar.
+     *
+     * @return la nueva versión
+     */
+    long registrarCambios(Collection<Long> productoIds, boolean eliminados);
+
+    long registrarCambiosPorCategoria(Long categoriaId);
+
+    long registrarCambiosPorMarca(Long marcaId);
+
+    long registrarCambiosPorProveedor(Long proveedorId);
+
+    /**
+     * @return la versión confirmada vigente; 0 si el catálogo nunca cambió
+     */
+    long obtenerVersion();
+
+    List<CambioCatalogo> findCambiosEntre(long desdeExclusive, long hastaInclusive);
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.sigr.application.port.output;
+
+import com.sigr.domain.entity.ClaveIdempotencia;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ClaveIdempotenciaRepositoryPort {
+
+    /**
+     * Registra la clave dentro de la transacción actual. Devuelve false si ya existía
+     * (confirmada por otra transacción), en cuyo caso no debe repetirse la operación.
+     */
+    boolean reservar(String clave, String operacion, String huella);
+
+    Optional<ClaveIdempotencia> findById(String clave);
+
+    void guardarRespuesta(String clave, String respuesta);
+
+    int deleteByFechaBefore(LocalDateTime limite);
+}
\ No newline at end of file
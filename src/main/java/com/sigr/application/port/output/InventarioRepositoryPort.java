@@ -1,13 +1,19 @@
 package com.sigr.application.port.output;
 
 import com.sigr.application.dto.dashboard.DashboardResponseDTO;
+import com.sigr.application.dto.inventario.AlertaStockBajoDTO;
+import com.sigr.application.dto.inventario.DiferenciaInventarioDTO;
+import com.sigr.application.dto.inventario.InventarioResponseDTO;
+import com.sigr.application.dto.inventario.StockDisponibleDTO;
 import com.sigr.application.dto.reporte.ProductoStockBajoDTO;
 import com.sigr.domain.entity.Inventario;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface InventarioRepositoryPort {
@@ -22,16 +28,124 @@ public interface InventarioRepositoryPort {
 
     List<Inventario> findBySedeId(Long sedeId);
 
+    /**
+     * Bloquea los inventarios en orden (sede_id, producto_id). Quien bloquee varias sedes debe recorrerlas en orden ascendente.
+     */
+    List<Inventario> findByProductoIdsAndSedeIdForUpdate(Collection<Long> productoIds, Long sedeId);
+
     List<Inventario> findByProductoId(Long productoId);
 
     List<Inventario> findByProductoIdWithStock(Long productoId);
 
-    List<Inventario> findByLowStock(Integer cantidad);
+    /**
+     * Como {@link #findByProductoIdWithStock(Long)} para varios productos a la vez, con la sede ya cargada.
+     * @return inventarios con stock agrupados por id de producto; los productos sin stock no aparecen
+     */
+    Map<Long, List<Inventario>> findByProductoIdsWithStock(Collection<Long> productoIds);
+
+    /**
+     * Los listados devuelven el DTO de respuesta proyectado en una sola consulta con producto, categoría y sede,
+     * sin cargar las entidades.
+     */
+    List<InventarioResponseDTO> listarTodos();
+
+    Page<InventarioResponseDTO> listarTodos(Pageable pageable);
+
+    List<InventarioResponseDTO> listarPorSede(Long sedeId);
+
+    Page<InventarioResponseDTO> listarPorSede(Long sedeId, Pageable pageable);
+
+    List<InventarioResponseDTO> listarPorProducto(Long productoId);
 
-    List<Inventario> findBySedeIdAndLowStock(Long sedeId, Integer cantidad);
+    List<InventarioResponseDTO> listarConCantidadHasta(Integer cantidad);
+
+    List<InventarioResponseDTO> listarPorSedeConCantidadHasta(Long sedeId, Integer cantidad);
+
+    /**
+     * Inventarios con cantidad menor o igual a su stock mínimo (el de la sede o, si no tiene, el del producto).
+     * Los ids salen del conjunto en memoria cuando está cargado, sin recorrer la tabla.
+     */
+    List<InventarioResponseDTO> listarConStockBajo();
+
+    List<InventarioResponseDTO> listarPorSedeConStockBajo(Long sedeId);
+
+    /**
+     * Estado actual del conjunto de stock bajo en memoria; sedeId null devuelve todas las sedes.
+     */
+    List<AlertaStockBajoDTO> findAlertasStockBajo(Long sedeId);
+
+    /**
+     * Recalcula en memoria el stock mínimo efectivo de los inventarios del producto al confirmar la transacción.
+     */
+    void refrescarStockMinimos(Long productoId);
 
     Inventario save(Inventario inventario);
 
+    /**
+     * Como {@link #save}, pero escribe la fila de inmediato. Usar antes de {@code KardexService.registrar}: el
+     * movimiento debe fecharse después de la escritura del stock, como en los UPDATE condicionales.
+     */
+    Inventario saveAndFlush(Inventario inventario);
+
+    List<Inventario> saveAll(List<Inventario> inventarios);
+
+    /**
+     * Crea por lotes JDBC el inventario de cada producto en la sede, sin stock mínimo propio.
+     * El stock mínimo de cada elemento debe ser el del producto, para la copia en memoria.
+     */
+    void crearInventarios(Long sedeId, List<StockDisponibleDTO> stocks);
+
+    /**
+     * Descuenta stock solo si hay existencias suficientes.
+     *
+     * @return true si se descontó, false si no existe el inventario o el stock es insuficiente
+     */
+    boolean descontarStock(Long productoId, Long sedeId, Integer cantidad);
+
+    /**
+     * Descuenta el stock de varios productos de una sede en un solo lote, en orden ascendente
+     * de producto. El llamador debe abortar la transacción si alguno fue rechazado.
+     *
+     * @return ids de los productos que no se pudieron descontar
+     */
+    List<Long> descontarStock(Long sedeId, Map<Long, Integer> cantidadesPorProducto);
+
+    /**
+     * @return true si se incrementó, false si no existe el inventario
+     */
+    boolean incrementarStock(Long productoId, Long sedeId, Integer cantidad);
+
+    /**
+     * Cantidad del inventario leída de la copia en memoria del nodo cuando está disponible
+     * (puede ir unos instantes por detrás de la BD). No usar para validar descuentos de stock.
+     * @return vacío si no existe inventario del producto en la sede
+     */
+    Optional<Integer> findCantidad(Long productoId, Long sedeId);
+
+    /**
+     * Como {@link #findCantidad(Long, Long)} pero con el stock mínimo efectivo del inventario.
+     */
+    Optional<StockDisponibleDTO> findStock(Long productoId, Long sedeId);
+
+    /**
+     * @return ids de los productos sin inventario en la sede
+     */
+    List<Long> incrementarStock(Long sedeId, Map<Long, Integer> cantidadesPorProducto);
+
+    /**
+     * Igual que {@link #incrementarStock(Long, Map)} pero con una sola sentencia UPDATE ... FROM (VALUES ...),
+     * pensado para devoluciones con muchos productos.
+     * @return ids de los productos sin inventario en la sede
+     */
+    List<Long> incrementarStockAgrupado(Long sedeId, Map<Long, Integer> cantidadesPorProducto);
+
+    /**
+     * Fija la cantidad de cada producto de la sede a la contada, bloqueando las filas en orden (sede_id, producto_id)
+     * y actualizando sólo las que difieren con un UPDATE ... FROM (VALUES ...) por tramo.
+     * @return cantidad del sistema y contada de cada producto con inventario en la sede; los demás se omiten
+     */
+    List<DiferenciaInventarioDTO> aplicarConteo(Long sedeId, Map<Long, Integer> cantidadesContadas);
+
     void deleteById(Long id);
 
     boolean existsById(Long id);
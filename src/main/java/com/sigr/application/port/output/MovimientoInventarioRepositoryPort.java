@@ -0,0 +1,40 @@
+package com.sigr.application.port.output;
+
+import com.sigr.domain.entity.MovimientoInventario;
+import com.sigr.domain.entity.SnapshotInventario;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface MovimientoInventarioRepositoryPort {
+
+    /**
+     * Inserta los movimientos con lotes JDBC, asignando ids de la secuencia del kardex.
+     */
+    void insertarEnLote(List<MovimientoInventario> movimientos);
+
+    Page<MovimientoInventario> findByProductoIdAndSedeIdAndFechaBetween(Long productoId, Long sedeId,
+                                                                         LocalDateTime fechaInicio,
+                                                                         LocalDateTime fechaFin,
+                                                                         Pageable pageable);
+
+    /**
+     * Suma de movimientos con fecha en (desde, hasta].
+     */
+    long sumCantidadEntre(Long productoId, Long sedeId, LocalDateTime desde, LocalDateTime hasta);
+
+    long sumCantidadDespuesDe(Long productoId, Long sedeId, LocalDateTime desde);
+
+    /**
+     * Copia las cantidades actuales de la sede a snapshot_inventario. Bloquea las escrituras sobre inventario
+     * hasta el fin de la transacción para que la foto y los movimientos queden a uno u otro lado de su fecha;
+     * la fecha se toma una vez concedido el bloqueo.
+     * @return filas copiadas
+     */
+    int tomarSnapshot(Long sedeId);
+
+    Optional<SnapshotInventario> findUltimoSnapshot(Long productoId, Long sedeId, LocalDateTime hasta);
+}
\ No newline at end of file
@@ -5,8 +5,10 @@ import com.sigr.application.dto.producto.ProductoConStockDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface ProductoRepositoryPort {
 
@@ -16,16 +18,38 @@ public interface ProductoRepositoryPort {
 
     Optional<Producto> findById(Long id);
 
+    List<Producto> findAllById(Collection<Long> ids);
+
+    /**
+     * Como {@link #findAllById(Collection)}, cargando categoría, marca y proveedor en la misma consulta.
+     */
+    List<Producto> findConRelacionesByIds(Collection<Long> ids);
+
     Optional<Producto> findByCodigoBarra(String codigoBarra);
 
+    List<Producto> findByCodigosBarra(Collection<String> codigosBarra);
+
     List<Producto> findByNombreContaining(String nombre);
 
     List<Producto> findByCategoriaId(Long categoriaId);
 
+    /**
+     * Productos con stock en la sede.
+     */
     List<Producto> findBySedeId(Long sedeId);
 
+    Page<Producto> findBySedeIdPaginated(Long sedeId, Pageable pageable);
+
     Producto save(Producto producto);
 
+    /**
+     * Inserta los productos con sentencias INSERT multi-fila y asigna a cada uno el id generado.
+     * No valida: el llamador garantiza códigos de barras únicos y referencias existentes.
+     */
+    void insertarLote(List<Producto> productos);
+
+    Set<String> findAllCodigosBarra();
+
     void deleteById(Long id);
 
     boolean existsById(Long id);
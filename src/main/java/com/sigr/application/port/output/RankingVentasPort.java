@@ -0,0 +1,22 @@
+package com.sigr.application.port.output;
+
+import com.sigr.application.dto.reporte.ProductoTopVentaDTO;
+import com.sigr.domain.entity.Venta;
+
+import java.util.List;
+
+/**
+ * Ranking aproximado en memoria de los productos más vendidos por sede en el día y el mes en curso,
+ * para los widgets en vivo. Los reportes exactos siguen saliendo de los resúmenes diarios.
+ */
+public interface RankingVentasPort {
+
+    /**
+     * Suma las unidades de la venta al ranking de su sede al confirmar la transacción en curso.
+     */
+    void registrarVenta(Venta venta);
+
+    List<ProductoTopVentaDTO> findTopDelDia(Long sedeId, int limite);
+
+    List<ProductoTopVentaDTO> findTopDelMes(Long sedeId, int limite);
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.sigr.application.port.output;
+
+public interface SecuenciaCodigoBarraRepositoryPort {
+
+    /**
+     * Reserva los siguientes {@code tamano} números de la serie en su propia transacción, de modo que
+     * un rollback del llamador nunca devuelva a la serie números ya repartidos. Una serie nueva arranca después
+     * del mayor número que ya usan los códigos de producto de la serie, para no repetir códigos cargados a mano
+     * o generados antes de que existiera la serie.
+     *
+     * @param prefijo prefijo común de los códigos de la serie
+     * @param patron  expresión regular (POSIX) de un código completo de la serie; su primer grupo es el número
+     * @return el último número del bloque reservado; el bloque es (valor - tamano + 1 .. valor)
+     */
+    long reservarBloque(String clave, int tamano, String prefijo, String patron);
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.sigr.application.port.output;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface TransferenciaStockRepositoryPort {
+
+    /**
+     * Bloquea los inventarios de los productos en ambas sedes en orden (sede_id, producto_id), el orden global
+     * que siguen también las ventas, los lotes de ventas, las anulaciones y los conteos.
+     * @return productoId -> cantidad en la sede de origen; los productos sin inventario en origen no aparecen
+     */
+    Map<Long, Integer> bloquearInventarios(Long sedeOrigenId, Long sedeDestinoId, Collection<Long> productoIds);
+
+    /**
+     * Descuenta las cantidades en origen y las suma en destino con sentencias por conjunto, creando los
+     * inventarios de destino que falten. Requiere haber bloqueado y validado el stock de origen.
+     * @return ids de los productos cuyo inventario de destino se creó
+     */
+    List<Long> transferir(Long sedeOrigenId, Long sedeDestinoId, Map<Long, Integer> cantidadesPorProducto);
+}
\ No newline at end of file
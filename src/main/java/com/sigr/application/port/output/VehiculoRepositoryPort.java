@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,8 @@ public interface VehiculoRepositoryPort {
     
     Optional<Vehiculo> findById(Long id);
     
+    List<Vehiculo> findAllById(Collection<Long> ids);
+    
     Vehiculo save(Vehiculo vehiculo);
     
     void deleteById(Long id);
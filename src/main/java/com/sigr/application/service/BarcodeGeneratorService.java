@@ -1,57 +1,138 @@
 package com.sigr.application.service;
 
+import com.sigr.application.port.output.SecuenciaCodigoBarraRepositoryPort;
+import com.sigr.domain.exception.BusinessException;
+import com.sigr.domain.exception.ValidationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Genera códigos de barras secuenciales sin colisiones. Cada serie (EAN-13 por categoría, códigos internos
+ * por día) reserva en la BD bloques de números (hi/lo) que se reparten en memoria sin bloqueos; sólo al
+ * agotarse un bloque se vuelve a la BD. Los números de un bloque no repartidos se pierden al reiniciar.
+ * Una serie nueva empieza después del mayor número que ya usan los productos con códigos de esa serie.
+ */
 @Slf4j
 @Service
 public class BarcodeGeneratorService {
 
     private static final String COMPANY_PREFIX = "775"; // Prefijo de tu empresa (puedes personalizarlo)
-    private static final Random random = new Random();
+    private static final long MAX_CATEGORIA_EAN13 = 9_999;
+    private static final long MAX_SECUENCIAL_EAN13 = 99_999;
+    private static final long MAX_SECUENCIAL_INTERNO = 999_999;
+    private static final String PREFIJO_SERIE_INTERNA = "PROD-";
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final SecuenciaCodigoBarraRepositoryPort secuenciaCodigoBarraRepositoryPort;
+    private final int tamanoBloque;
+    private final Map<String, AtomicReference<Bloque>> bloques = new ConcurrentHashMap<>();
+
+    public BarcodeGeneratorService(SecuenciaCodigoBarraRepositoryPort secuenciaCodigoBarraRepositoryPort,
+                                   @Value("${app.barcode.block-size:100}") int tamanoBloque) {
+        this.secuenciaCodigoBarraRepositoryPort = secuenciaCodigoBarraRepositoryPort;
+        this.tamanoBloque = tamanoBloque;
+    }
 
     /**
      * Genera un código de barras EAN-13 válido
      * Formato: {3 dígitos empresa}{4 dígitos categoría}{5 dígitos secuencial}{1 dígito verificación}
      */
     public String generateEAN13(Long categoriaId) {
-        // Prefijo de empresa (3 dígitos)
-        String companyPrefix = COMPANY_PREFIX;
-        
+        return generateEAN13(categoriaId, 1).get(0);
+    }
+
+    /**
+     * Genera {@code cantidad} códigos EAN-13 consecutivos de la categoría con a lo sumo una reserva en la BD.
+     */
+    public List<String> generateEAN13(Long categoriaId, int cantidad) {
+        long categoria = categoriaId != null ? categoriaId : 0;
+        if (categoria < 0 || categoria > MAX_CATEGORIA_EAN13) {
+            throw new ValidationException("El ID de categoría debe tener como máximo 4 dígitos para generar un EAN-13");
+        }
+
         // Código de categoría (4 dígitos, rellenado con ceros)
-        String categoryCode = String.format("%04d", categoriaId != null ? categoriaId : 0);
-        
-        // Número secuencial (5 dígitos aleatorios por simplicidad)
-        String sequential = String.format("%05d", random.nextInt(100000));
-        
-        // Construir los primeros 12 dígitos
-        String partialCode = companyPrefix + categoryCode + sequential;
-        
-        // Calcular dígito verificador
-        String checkDigit = calculateEAN13CheckDigit(partialCode);
-        
-        String fullCode = partialCode + checkDigit;
-        log.debug("Generated EAN-13 barcode: {}", fullCode);
-        
-        return fullCode;
+        String categoryCode = String.format("%04d", categoria);
+        String prefijo = COMPANY_PREFIX + categoryCode;
+        List<Long> secuenciales = reservar("EAN13-" + categoryCode, cantidad, MAX_SECUENCIAL_EAN13,
+                prefijo, "^" + prefijo + "([0-9]{5})[0-9]$");
+
+        List<String> codigos = new ArrayList<>(secuenciales.size());
+        for (Long secuencial : secuenciales) {
+            String partialCode = prefijo + String.format("%05d", secuencial);
+            codigos.add(partialCode + calculateEAN13CheckDigit(partialCode));
+        }
+        log.debug("Generated {} EAN-13 barcodes for category {}", codigos.size(), categoryCode);
+        return codigos;
     }
 
     /**
      * Genera un código interno más simple (para uso interno)
-     * Formato: PROD-{YYYYMMDD}-{6 dígitos aleatorios}
+     * Formato: PROD-{YYYYMMDD}-{6 dígitos secuenciales del día}
      */
     public String generateInternalCode() {
-        String datePrefix = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String randomSuffix = String.format("%06d", random.nextInt(1000000));
-        
-        String code = "PROD-" + datePrefix + "-" + randomSuffix;
-        log.debug("Generated internal barcode: {}", code);
-        
-        return code;
+        return generateInternalCodes(1).get(0);
+    }
+
+    public List<String> generateInternalCodes(int cantidad) {
+        String serie = PREFIJO_SERIE_INTERNA + LocalDate.now().format(FORMATO_DIA);
+        // Las series de días anteriores ya no se usan
+        bloques.keySet().removeIf(clave -> clave.startsWith(PREFIJO_SERIE_INTERNA) && !clave.equals(serie));
+
+        List<Long> secuenciales = reservar(serie, cantidad, MAX_SECUENCIAL_INTERNO,
+                serie + "-", "^" + serie + "-([0-9]{6})$");
+        List<String> codigos = new ArrayList<>(secuenciales.size());
+        for (Long secuencial : secuenciales) {
+            codigos.add(serie + "-" + String.format("%06d", secuencial));
+        }
+        log.debug("Generated {} internal barcodes for {}", codigos.size(), serie);
+        return codigos;
+    }
+
+    private List<Long> reservar(String serie, int cantidad, long maximo, String prefijo, String patron) {
+        if (cantidad < 1) {
+            throw new ValidationException("La cantidad de códigos a generar debe ser mayor a 0");
+        }
+        AtomicReference<Bloque> referencia = bloques.computeIfAbsent(serie, clave -> new AtomicReference<>(Bloque.AGOTADO));
+        List<Long> numeros = new ArrayList<>(cantidad);
+
+        // Camino rápido sin bloqueo: números del bloque vigente
+        Bloque bloque = referencia.get();
+        bloque.tomar(numeros, cantidad);
+        if (numeros.size() < cantidad) {
+            synchronized (referencia) {
+                // Otro hilo pudo haber reservado un bloque nuevo mientras se esperaba
+                Bloque vigente = referencia.get();
+                if (vigente != bloque) {
+                    vigente.tomar(numeros, cantidad);
+                }
+                int faltan = cantidad - numeros.size();
+                if (faltan > 0) {
+                    // Una sola reserva cubre lo que falta y deja un bloque completo para las siguientes llamadas
+                    int tamano = faltan + tamanoBloque;
+                    long ultimo = secuenciaCodigoBarraRepositoryPort.reservarBloque(serie, tamano, prefijo, patron);
+                    long primero = ultimo - tamano + 1;
+                    for (long numero = primero; numero < primero + faltan; numero++) {
+                        numeros.add(numero);
+                    }
+                    referencia.set(new Bloque(primero + faltan, ultimo));
+                }
+            }
+        }
+
+        if (numeros.get(numeros.size() - 1) > maximo) {
+            throw new BusinessException("Se agotaron los códigos de barras disponibles para la serie " + serie);
+        }
+        return numeros;
     }
 
     /**
@@ -129,4 +210,27 @@ public class BarcodeGeneratorService {
         
         return false;
     }
+
+    private static final class Bloque {
+
+        static final Bloque AGOTADO = new Bloque(1, 0);
+
+        private final AtomicLong siguiente;
+        private final long ultimo;
+
+        Bloque(long primero, long ultimo) {
+            this.siguiente = new AtomicLong(primero);
+            this.ultimo = ultimo;
+        }
+
+        void tomar(List<Long> numeros, int cantidad) {
+            while (numeros.size() < cantidad) {
+                long numero = siguiente.getAndIncrement();
+                if (numero > ultimo) {
+                    return;
+                }
+                numeros.add(numero);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.sigr.application.service;
+
+import com.sigr.application.dto.producto.CacheEstadisticasDTO;
+import com.sigr.application.dto.producto.ProductoResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Productos recientes por código de barras para el escaneo en caja (LRU acotado). Guarda el DTO de respuesta,
+ * no la entidad, y se invalida al confirmar los cambios del producto o de la categoría, marca o proveedor
+ * que el DTO incluye. Cada nodo tiene su propia copia.
+ */
+@Service
+public class CacheCodigoBarraService {
+
+    private final int capacidad;
+    private final Map<String, ProductoResponseDTO> productos;
+    // Cada invalidación la incrementa; una lectura de la BD iniciada antes no vuelve a poblar la caché con datos viejos
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    public CacheCodigoBarraService(@Value("${app.codigo-barra-cache.size:5000}") int capacidad) {
+        this.capacidad = capacidad;
+        this.productos = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProductoResponseDTO> eldest) {
+                if (size() > capacidad) {
+                    desalojos.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public Optional<ProductoResponseDTO> obtener(String codigoBarra) {
+        ProductoResponseDTO producto = productos.get(codigoBarra);
+        if (producto != null) {
+            aciertos.increment();
+        } else {
+            fallos.increment();
+        }
+        return Optional.ofNullable(producto);
+    }
+
+    /**
+     * Versión a capturar antes de leer de la BD y pasar luego a {@link #guardar(ProductoResponseDTO, long)}.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    public void guardar(ProductoResponseDTO producto, long versionLeida) {
+        synchronized (productos) {
+            if (version.get() == versionLeida) {
+                productos.put(producto.getCodigoBarra(), producto);
+            }
+        }
+    }
+
+    /**
+     * Quita los códigos al confirmar la transacción en curso (o en el acto si no hay ninguna).
+     */
+    public void invalidar(Collection<String> codigosBarra) {
+        List<String> codigos = codigosBarra.stream().filter(Objects::nonNull).toList();
+        Transacciones.alConfirmar(Transacciones.ORDEN_CACHES, () -> {
+            synchronized (productos) {
+                version.incrementAndGet();
+                codigos.forEach(productos::remove);
+            }
+        });
+    }
+
+    public void invalidarTodo() {
+        Transacciones.alConfirmar(Transacciones.ORDEN_CACHES, () -> {
+            synchronized (productos) {
+                version.incrementAndGet();
+                productos.clear();
+            }
+        });
+    }
+
+    public CacheEstadisticasDTO estadisticas() {
+        return new CacheEstadisticasDTO(aciertos.sum(), fallos.sum(), desalojos.sum(), productos.size(), capacidad);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.sigr.application.service;
+
+import com.sigr.application.dto.dashboard.DashboardResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Datos del dashboard por sede durante unos segundos. Las peticiones simultáneas de una sede sin datos
+ * vigentes esperan el mismo cálculo en lugar de lanzar cada una sus consultas. Las ventas y anulaciones
+ * confirmadas descartan la sede antes de que venza. Cada nodo tiene su propia copia.
+ */
+@Service
+public class CacheDashboardService {
+
+    // Clave del dashboard con todas las sedes
+    public static final Long TODAS_LAS_SEDES = 0L;
+
+    private final long ttlNanos;
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+
+    public CacheDashboardService(@Value("${app.dashboard.cache-ttl-ms:5000}") long ttlMs) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    public DashboardResponseDTO obtener(Long sedeId, Supplier<DashboardResponseDTO> calcular) {
+        if (ttlNanos <= 0) {
+            return calcular.get();
+        }
+        long ahora = System.nanoTime();
+        Entrada actual = entradas.get(sedeId);
+        if (actual != null && actual.vigente(ahora)) {
+            return esperar(actual.datos());
+        }
+
+        Entrada propia = new Entrada(new CompletableFuture<>(), ahora + ttlNanos);
+        Entrada vigente = entradas.compute(sedeId, (clave, entrada) ->
+                entrada != null && entrada.vigente(ahora) ? entrada : propia);
+        if (vigente != propia) {
+            return esperar(vigente.datos());
+        }
+        try {
+            DashboardResponseDTO datos = calcular.get();
+            propia.datos().complete(datos);
+            return datos;
+        } catch (RuntimeException e) {
+            // Un error no se guarda: la próxima petición vuelve a consultar
+            entradas.remove(sedeId, propia);
+            propia.datos().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Descarta las sedes dadas y el dashboard general al confirmar la transacción en curso (o en el acto si no
+     * hay ninguna). Se ejecuta con {@link Transacciones#ORDEN_CACHES}, después de las copias en memoria que alimentan
+     * el dashboard, de modo que el siguiente cálculo ya las lee actualizadas.
+     */
+    public void invalidar(Collection<Long> sedeIds) {
+        List<Long> sedes = List.copyOf(sedeIds);
+        Transacciones.alConfirmar(Transacciones.ORDEN_CACHES, () -> {
+            sedes.forEach(entradas::remove);
+            entradas.remove(TODAS_LAS_SEDES);
+        });
+    }
+
+    private static DashboardResponseDTO esperar(CompletableFuture<DashboardResponseDTO> datos) {
+        try {
+            return datos.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private record Entrada(CompletableFuture<DashboardResponseDTO> datos, long venceEn) {
+
+        boolean vigente(long ahora) {
+            return ahora - venceEn < 0;
+        }
+    }
+}
\ No newline at end of file
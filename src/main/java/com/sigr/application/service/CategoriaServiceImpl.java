@@ -5,6 +5,7 @@ import com.sigr.application.dto.categoria.CategoriaResponseDTO;
 import com.sigr.application.dto.categoria.CategoriaUpdateDTO;
 import com.sigr.application.mapper.CategoriaMapper;
 import com.sigr.application.port.input.CategoriaUseCase;
+import com.sigr.application.port.output.CambioCatalogoRepositoryPort;
 import com.sigr.application.port.output.CategoriaRepositoryPort;
 import com.sigr.application.port.output.ProductoRepositoryPort;
 import com.sigr.domain.entity.Categoria;
@@ -28,6 +29,8 @@ public class CategoriaServiceImpl implements CategoriaUseCase {
     private final CategoriaRepositoryPort categoriaRepositoryPort;
     private final ProductoRepositoryPort productoRepositoryPort;
     private final CategoriaMapper categoriaMapper;
+    private final CacheCodigoBarraService cacheCodigoBarraService;
+    private final CambioCatalogoRepositoryPort cambioCatalogoRepositoryPort;
 
     @Override
     public List<CategoriaResponseDTO> findAll() {
@@ -89,6 +92,9 @@ public class CategoriaServiceImpl implements CategoriaUseCase {
 
         categoriaMapper.updateEntityFromUpdateDTO(request, existingCategoria);
         Categoria updatedCategoria = categoriaRepositoryPort.save(existingCategoria);
+        // Los productos en caché por código de barras incluyen su categoría
+        cacheCodigoBarraService.invalidarTodo();
+        cambioCatalogoRepositoryPort.registrarCambiosPorCategoria(id);
         log.info("Categoria updated successfully with id: {}", updatedCategoria.getId());
         return categoriaMapper.toResponseDTO(updatedCategoria);
     }
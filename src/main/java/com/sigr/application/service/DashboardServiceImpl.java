@@ -2,30 +2,85 @@ package com.sigr.application.service;
 
 import com.sigr.application.dto.dashboard.DashboardResponseDTO;
 import com.sigr.application.port.in.DashboardUseCase;
-import com.sigr.application.port.out.DetalleVentaRepositoryPort;
-import com.sigr.application.port.out.VentaRepositoryPort;
+import com.sigr.application.port.out.ResumenVentaRepositoryPort;
 import com.sigr.application.port.output.VehiculoRepositoryPort;
 import com.sigr.application.port.output.SedeRepositoryPort;
 import com.sigr.application.port.output.InventarioRepositoryPort;
+import com.sigr.domain.entity.Sede;
 import com.sigr.domain.exception.ResourceNotFoundException;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+/**
+ * Las consultas de cada dashboard son independientes entre sí: se lanzan a la vez en un pool acotado y
+ * la respuesta tarda lo que la más lenta. El resultado se reutiliza unos segundos por sede.
+ */
 @Service
-@RequiredArgsConstructor
 public class DashboardServiceImpl implements DashboardUseCase {
 
-    private final DetalleVentaRepositoryPort detalleVentaRepositoryPort;
-    private final VentaRepositoryPort ventaRepositoryPort;
+    // Las cifras de ventas salen de los resúmenes diarios, no de venta/detalle_venta
+    private final ResumenVentaRepositoryPort resumenVentaRepositoryPort;
     private final VehiculoRepositoryPort vehiculoRepositoryPort;
     private final SedeRepositoryPort sedeRepositoryPort;
     private final InventarioRepositoryPort inventarioRepositoryPort;
+    private final CacheDashboardService cacheDashboardService;
+    // Cada hilo ocupa una conexión mientras consulta: el tamaño acota lo que el dashboard le quita al pool de la BD
+    private final ExecutorService consultas;
+
+    public DashboardServiceImpl(ResumenVentaRepositoryPort resumenVentaRepositoryPort,
+                                VehiculoRepositoryPort vehiculoRepositoryPort,
+                                SedeRepositoryPort sedeRepositoryPort,
+                                InventarioRepositoryPort inventarioRepositoryPort,
+                                CacheDashboardService cacheDashboardService,
+                                @Value("${app.dashboard.hilos:4}") int hilos,
+                                @Value("${app.dashboard.cola-consultas:200}") int capacidadCola) {
+        this.resumenVentaRepositoryPort = resumenVentaRepositoryPort;
+        this.vehiculoRepositoryPort = vehiculoRepositoryPort;
+        this.sedeRepositoryPort = sedeRepositoryPort;
+        this.inventarioRepositoryPort = inventarioRepositoryPort;
+        this.cacheDashboardService = cacheDashboardService;
+        AtomicInteger numeroHilo = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(hilos, hilos, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(capacidadCola),
+                runnable -> {
+                    Thread hilo = new Thread(runnable, "dashboard-" + numeroHilo.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                // Con la cola llena la petición ejecuta ella misma la consulta: se degrada a secuencial, no falla
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        this.consultas = executor;
+    }
+
+    @PreDestroy
+    public void alDetener() {
+        consultas.shutdownNow();
+    }
 
     @Override
     public DashboardResponseDTO obtenerDatosDashboard() {
+        return cacheDashboardService.obtener(CacheDashboardService.TODAS_LAS_SEDES, this::calcularDatosDashboard);
+    }
+
+    @Override
+    public DashboardResponseDTO obtenerDatosDashboardPorSede(Long sedeId) {
+        return cacheDashboardService.obtener(sedeId, () -> calcularDatosDashboardPorSede(sedeId));
+    }
+
+    private DashboardResponseDTO calcularDatosDashboard() {
         DashboardResponseDTO response = new DashboardResponseDTO();
         
         // Calcular fechas
@@ -36,36 +91,33 @@ public class DashboardServiceImpl implements DashboardUseCase {
         LocalDateTime inicioDelDia = finDelDia.withHour(0).withMinute(0).withSecond(0).withNano(0);
         
         // Productos vendidos del mes por sede
-        response.setProductosVendidosMesActual(
-            detalleVentaRepositoryPort.contarProductosVendidosPorSedeEnPeriodo(inicioDelMes, finDelMes)
+        var productosVendidosMes = enParalelo(() ->
+            resumenVentaRepositoryPort.contarProductosVendidosPorSede(inicioDelMes.toLocalDate(), finDelMes.toLocalDate())
         );
         
         // Productos vendidos del día por sede
-        response.setProductosVendidosDiaActual(
-            detalleVentaRepositoryPort.contarProductosVendidosPorSedeEnPeriodo(inicioDelDia, finDelDia)
+        var productosVendidosDia = enParalelo(() ->
+            resumenVentaRepositoryPort.contarProductosVendidosPorSede(inicioDelDia.toLocalDate(), finDelDia.toLocalDate())
         );
         
         // Vehículos nuevos del día
-        response.setVehiculosNuevosDiaActual(
+        var vehiculosNuevosDia = enParalelo(() ->
             vehiculoRepositoryPort.countVehiculosNuevosEnPeriodo(inicioDelDia, finDelDia)
         );
         
         // Cantidad de productos por sede
-        response.setProductosPorSede(
-            sedeRepositoryPort.obtenerProductosPorSede()
-        );
+        var productosPorSede = enParalelo(sedeRepositoryPort::obtenerProductosPorSede);
+        
+        esperarTodas(productosVendidosMes, productosVendidosDia, vehiculosNuevosDia, productosPorSede);
+        response.setProductosVendidosMesActual(productosVendidosMes.join());
+        response.setProductosVendidosDiaActual(productosVendidosDia.join());
+        response.setVehiculosNuevosDiaActual(vehiculosNuevosDia.join());
+        response.setProductosPorSede(productosPorSede.join());
         
         return response;
     }
 
-    @Override
-    public DashboardResponseDTO obtenerDatosDashboardPorSede(Long sedeId) {
-        DashboardResponseDTO response = new DashboardResponseDTO();
-        
-        // Obtener información de la sede
-        var sede = sedeRepositoryPort.findById(sedeId)
-            .orElseThrow(() -> new ResourceNotFoundException("Sede no encontrada"));
-        
+    private DashboardResponseDTO calcularDatosDashboardPorSede(Long sedeId) {
         // Calcular fechas
         LocalDateTime ahora = LocalDateTime.now();
         LocalDateTime finDelMes = ahora;
@@ -77,61 +129,62 @@ public class DashboardServiceImpl implements DashboardUseCase {
         LocalDateTime inicioMesAnterior = inicioDelMes.minusMonths(1);
         LocalDateTime finMesAnterior = inicioDelMes.minusNanos(1);
         
-        // Datos básicos por sede específica
-        Long productosVendidosMes = detalleVentaRepositoryPort.contarProductosVendidosEnPeriodo(sedeId, inicioDelMes, finDelMes);
-        Long productosVendidosDia = detalleVentaRepositoryPort.contarProductosVendidosEnPeriodo(sedeId, inicioDelDia, finDelDia);
+        // Todas las consultas salen a la vez; la sede se valida al reunir los resultados
+        CompletableFuture<Sede> sede = enParalelo(() -> sedeRepositoryPort.findById(sedeId)
+            .orElseThrow(() -> new ResourceNotFoundException("Sede no encontrada")));
+        var productosVendidosMes = enParalelo(() ->
+            resumenVentaRepositoryPort.contarProductosVendidos(sedeId, inicioDelMes.toLocalDate(), finDelMes.toLocalDate()));
+        var productosVendidosDia = enParalelo(() ->
+            resumenVentaRepositoryPort.contarProductosVendidos(sedeId, inicioDelDia.toLocalDate(), finDelDia.toLocalDate()));
+        var vehiculosNuevosDia = enParalelo(() ->
+            vehiculoRepositoryPort.countVehiculosNuevosEnPeriodo(inicioDelDia, finDelDia));
+        var cantidadInventario = enParalelo(() -> sedeRepositoryPort.countInventarioBySedeId(sedeId));
+        // Ventas mensuales (últimos 6 meses)
+        var ventasMensuales = enParalelo(() ->
+            resumenVentaRepositoryPort.obtenerVentasMensuales(sedeId, inicioDelMes.toLocalDate().minusMonths(5)));
+        // Productos más vendidos (top 10)
+        var productosMasVendidos = enParalelo(() -> resumenVentaRepositoryPort.obtenerProductosMasVendidos(sedeId, 10));
+        var kpiVentasMesActual = enParalelo(() ->
+            resumenVentaRepositoryPort.obtenerKpiVentas(sedeId, inicioDelMes.toLocalDate(), finDelMes.toLocalDate()));
+        var kpiVentasMesAnterior = enParalelo(() ->
+            resumenVentaRepositoryPort.obtenerKpiVentas(sedeId, inicioMesAnterior.toLocalDate(), finMesAnterior.toLocalDate()));
+        var kpiInventario = enParalelo(() -> inventarioRepositoryPort.obtenerKpiInventario(sedeId));
+
+        esperarTodas(sede, productosVendidosMes, productosVendidosDia, vehiculosNuevosDia, cantidadInventario,
+            ventasMensuales, productosMasVendidos, kpiVentasMesActual, kpiVentasMesAnterior, kpiInventario);
+
+        DashboardResponseDTO response = new DashboardResponseDTO();
+        String nombreSede = sede.join().getNombre();
         
         // Productos vendidos mes actual
         DashboardResponseDTO.ProductosVendidosPorSedeDTO ventasMes = new DashboardResponseDTO.ProductosVendidosPorSedeDTO(
-            sedeId, sede.getNombre(), productosVendidosMes
+            sedeId, nombreSede, productosVendidosMes.join()
         );
         response.setProductosVendidosMesActual(List.of(ventasMes));
         
         // Productos vendidos día actual
         DashboardResponseDTO.ProductosVendidosPorSedeDTO ventasDia = new DashboardResponseDTO.ProductosVendidosPorSedeDTO(
-            sedeId, sede.getNombre(), productosVendidosDia
+            sedeId, nombreSede, productosVendidosDia.join()
         );
         response.setProductosVendidosDiaActual(List.of(ventasDia));
         
         // Vehículos nuevos del día
-        response.setVehiculosNuevosDiaActual(
-            vehiculoRepositoryPort.countVehiculosNuevosEnPeriodo(inicioDelDia, finDelDia)
-        );
+        response.setVehiculosNuevosDiaActual(vehiculosNuevosDia.join());
         
         // Productos por sede
         DashboardResponseDTO.ProductosPorSedeDTO productos = new DashboardResponseDTO.ProductosPorSedeDTO(
-            sedeId, sede.getNombre(), sedeRepositoryPort.countInventarioBySedeId(sedeId)
+            sedeId, nombreSede, cantidadInventario.join()
         );
         response.setProductosPorSede(List.of(productos));
         
-        // Ventas mensuales (últimos 6 meses)
-        response.setVentasMensuales(
-            ventaRepositoryPort.obtenerVentasMensualesPorSede(sedeId, 6)
-        );
-        
-        // Productos más vendidos (top 10)
-        response.setProductosMasVendidos(
-            detalleVentaRepositoryPort.obtenerProductosMasVendidosPorSede(sedeId, 10)
-        );
+        response.setVentasMensuales(ventasMensuales.join());
+        response.setProductosMasVendidos(productosMasVendidos.join());
         
         // KPIs
         DashboardResponseDTO.KpisDTO kpis = new DashboardResponseDTO.KpisDTO();
-        
-        // Ventas mes actual
-        kpis.setVentasMesActual(
-            ventaRepositoryPort.obtenerKpiVentasMes(sedeId, inicioDelMes, finDelMes)
-        );
-        
-        // Ventas mes anterior
-        kpis.setVentasMesAnterior(
-            ventaRepositoryPort.obtenerKpiVentasMes(sedeId, inicioMesAnterior, finMesAnterior)
-        );
-        
-        // Inventario
-        kpis.setInventario(
-            inventarioRepositoryPort.obtenerKpiInventario(sedeId)
-        );
-        
+        kpis.setVentasMesActual(kpiVentasMesActual.join());
+        kpis.setVentasMesAnterior(kpiVentasMesAnterior.join());
+        kpis.setInventario(kpiInventario.join());
         response.setKpis(kpis);
         
         // Fecha actual
@@ -139,4 +192,20 @@ public class DashboardServiceImpl implements DashboardUseCase {
         
         return response;
     }
+
+    private <T> CompletableFuture<T> enParalelo(Supplier<T> consulta) {
+        return CompletableFuture.supplyAsync(consulta, consultas);
+    }
+
+    // Espera a que terminen todas y relanza el error original de la que falló
+    private static void esperarTodas(CompletableFuture<?>... pendientes) {
+        try {
+            CompletableFuture.allOf(pendientes).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.sigr.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigr.application.port.output.ClaveIdempotenciaRepositoryPort;
+import com.sigr.domain.entity.ClaveIdempotencia;
+import com.sigr.domain.exception.BusinessException;
+import com.sigr.domain.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta operaciones de escritura como máximo una vez por clave de idempotencia (cabecera Idempotency-Key).
+ * La clave se registra en la misma transacción que la operación, así un reintento nunca ve una
+ * operación a medias: o encuentra la respuesta guardada o vuelve a ejecutarla desde cero.
+ */
+@Slf4j
+@Service
+public class IdempotenciaService {
+
+    private static final int MAX_LONGITUD_CLAVE = 100;
+
+    private final ClaveIdempotenciaRepositoryPort claveIdempotenciaRepositoryPort;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int ttlHoras;
+
+    // Respuestas recientes en memoria (LRU acotado); la tabla clave_idempotencia es la fuente de verdad
+    private final Map<String, RespuestaAlmacenada> respuestasRecientes;
+    // Solicitudes en curso en este nodo: los duplicados esperan al primero en lugar de bloquearse en la BD
+    private final Map<String, CompletableFuture<RespuestaAlmacenada>> enCurso = new ConcurrentHashMap<>();
+
+    public IdempotenciaService(ClaveIdempotenciaRepositoryPort claveIdempotenciaRepositoryPort,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.idempotency.cache-size:10000}") int tamanoCache,
+                               @Value("${app.idempotency.ttl-horas:24}") int ttlHoras) {
+        this.claveIdempotenciaRepositoryPort = claveIdempotenciaRepositoryPort;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlHoras = ttlHoras;
+        this.respuestasRecientes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RespuestaAlmacenada> eldest) {
+                return size() > tamanoCache;
+            }
+        });
+    }
+
+    /**
+     * Ejecuta la acción una sola vez para la clave dada y devuelve la respuesta guardada en los reintentos.
+     * Sin clave la acción se ejecuta igualmente en una transacción propia: los llamadores la invocan sobre
+     * {@code this}, sin pasar por el proxy transaccional. No debe llamarse dentro de una transacción abierta.
+     */
+    public <T> T ejecutar(String operacion, String clave, Object solicitud, Class<T> tipoRespuesta, Supplier<T> accion) {
+        if (clave == null || clave.isBlank()) {
+            return transactionTemplate.execute(status -> accion.get());
+        }
+        if (clave.length() > MAX_LONGITUD_CLAVE) {
+            throw new ValidationException("La clave de idempotencia no puede superar " + MAX_LONGITUD_CLAVE + " caracteres");
+        }
+
+        String claveCompleta = operacion + ":" + clave.trim();
+        String huella = calcularHuella(solicitud);
+
+        while (true) {
+            RespuestaAlmacenada almacenada = respuestasRecientes.get(claveCompleta);
+            if (almacenada != null) {
+                log.debug("Replaying stored response for idempotency key: {}", claveCompleta);
+                return leerRespuesta(almacenada, huella, tipoRespuesta);
+            }
+
+            CompletableFuture<RespuestaAlmacenada> propia = new CompletableFuture<>();
+            CompletableFuture<RespuestaAlmacenada> existente = enCurso.putIfAbsent(claveCompleta, propia);
+            if (existente != null) {
+                log.debug("Waiting for in-flight request with idempotency key: {}", claveCompleta);
+                try {
+                    return leerRespuesta(existente.join(), huella, tipoRespuesta);
+                } catch (CompletionException e) {
+                    // La primera solicitud falló y no dejó rastro: se reintenta desde el principio
+                    continue;
+                }
+            }
+
+            try {
+                RespuestaAlmacenada resultado = transactionTemplate.execute(status ->
+                        ejecutarEnTransaccion(operacion, claveCompleta, huella, accion));
+                respuestasRecientes.put(claveCompleta, resultado);
+                propia.complete(resultado);
+                return leerRespuesta(resultado, huella, tipoRespuesta);
+            } catch (RuntimeException e) {
+                propia.completeExceptionally(e);
+                throw e;
+            } finally {
+                enCurso.remove(claveCompleta, propia);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.idempotency.purge-cron:0 0 3 * * *}")
+    public void purgarClavesVencidas() {
+        int eliminadas = transactionTemplate.execute(status ->
+                claveIdempotenciaRepositoryPort.deleteByFechaBefore(LocalDateTime.now().minusHours(ttlHoras)));
+        log.info("Purged {} expired idempotency keys", eliminadas);
+    }
+
+    private RespuestaAlmacenada ejecutarEnTransaccion(String operacion, String claveCompleta, String huella,
+                                                      Supplier<?> accion) {
+        if (claveIdempotenciaRepositoryPort.reservar(claveCompleta, operacion, huella)) {
+            String respuesta = escribir(accion.get());
+            claveIdempotenciaRepositoryPort.guardarRespuesta(claveCompleta, respuesta);
+            return new RespuestaAlmacenada(huella, respuesta);
+        }
+
+        // Otra transacción (posiblemente en otro nodo) ya completó la operación con esta clave
+        ClaveIdempotencia existente = claveIdempotenciaRepositoryPort.findById(claveCompleta)
+                .orElseThrow(() -> new BusinessException("No se pudo recuperar la respuesta de la clave de idempotencia"));
+        return new RespuestaAlmacenada(existente.getHuella(), existente.getRespuesta());
+    }
+
+    private <T> T leerRespuesta(RespuestaAlmacenada almacenada, String huella, Class<T> tipoRespuesta) {
+        if (!almacenada.huella().equals(huella)) {
+            throw new BusinessException("La clave de idempotencia ya fue usada con una solicitud diferente");
+        }
+        try {
+            return objectMapper.readValue(almacenada.respuesta(), tipoRespuesta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta almacenada ilegible para la clave de idempotencia", e);
+        }
+    }
+
+    private String escribir(Object respuesta) {
+        try {
+            return objectMapper.writeValueAsString(respuesta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    private String calcularHuella(Object solicitud) {
+        try {
+            byte[] contenido = objectMapper.writeValueAsString(solicitud).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenido));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud", e);
+        }
+    }
+
+    private record RespuestaAlmacenada(String huella, String respuesta) {
+    }
+}
\ No newline at end of file
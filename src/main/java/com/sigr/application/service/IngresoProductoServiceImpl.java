@@ -15,6 +15,7 @@ import com.sigr.domain.entity.IngresoProducto;
 import com.sigr.domain.entity.Inventario;
 import com.sigr.domain.entity.Producto;
 import com.sigr.domain.entity.Sede;
+import com.sigr.domain.entity.TipoMovimientoInventario;
 import com.sigr.domain.entity.Usuario;
 import com.sigr.domain.exception.BusinessException;
 import com.sigr.domain.exception.ResourceNotFoundException;
@@ -25,11 +26,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Slf4j
 @Service
@@ -43,6 +44,8 @@ public class IngresoProductoServiceImpl implements IngresoProductoUseCase {
     private final SedeRepositoryPort sedeRepositoryPort;
     private final UsuarioRepositoryPort usuarioRepositoryPort;
     private final IngresoProductoMapper ingresoProductoMapper;
+    private final IdempotenciaService idempotenciaService;
+    private final KardexService kardexService;
 
     @Override
     public List<IngresoProductoResponseDTO> findAll() {
@@ -95,6 +98,14 @@ public class IngresoProductoServiceImpl implements IngresoProductoUseCase {
         return ingresoProductoMapper.toResponseDTOList(ingresos);
     }
 
+    @Override
+    // Anula el readOnly de la clase: IdempotenciaService abre la transacción de escritura, con o sin clave
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public IngresoProductoResponseDTO create(IngresoProductoRequestDTO request, String idempotencyKey) {
+        return idempotenciaService.ejecutar("INGRESO", idempotencyKey, request, IngresoProductoResponseDTO.class,
+                () -> create(request));
+    }
+
     @Override
     @Transactional
     public IngresoProductoResponseDTO create(IngresoProductoRequestDTO request) {
@@ -134,6 +145,10 @@ public class IngresoProductoServiceImpl implements IngresoProductoUseCase {
 
         IngresoProducto savedIngreso = ingresoProductoRepositoryPort.save(ingreso);
         log.info("Ingreso producto created successfully with id: {}", savedIngreso.getId());
+        for (DetalleIngreso detalle : savedIngreso.getDetalles()) {
+            kardexService.registrar(TipoMovimientoInventario.INGRESO, detalle.getProducto().getId(), sede.getId(),
+                    detalle.getCantidad(), savedIngreso.getId(), null);
+        }
         return ingresoProductoMapper.toResponseDTO(savedIngreso);
     }
 
@@ -165,23 +180,16 @@ public class IngresoProductoServiceImpl implements IngresoProductoUseCase {
     }
 
     private void updateInventarioFromIngreso(Producto producto, Sede sede, Integer cantidadIngresada) {
-        Optional<Inventario> inventarioOpt = inventarioRepositoryPort.findByProductoIdAndSedeId(
-                producto.getId(), sede.getId());
-
-        if (inventarioOpt.isPresent()) {
-            // Actualizar inventario existente
-            Inventario inventario = inventarioOpt.get();
-            inventario.setCantidad(inventario.getCantidad() + cantidadIngresada);
-            inventarioRepositoryPort.save(inventario);
-            log.debug("Updated existing inventario for producto: {} in sede: {}, new quantity: {}", 
-                     producto.getId(), sede.getId(), inventario.getCantidad());
+        if (inventarioRepositoryPort.incrementarStock(producto.getId(), sede.getId(), cantidadIngresada)) {
+            log.debug("Updated existing inventario for producto: {} in sede: {}, added quantity: {}", 
+                     producto.getId(), sede.getId(), cantidadIngresada);
         } else {
             // Crear nuevo inventario
             Inventario nuevoInventario = new Inventario();
             nuevoInventario.setProducto(producto);
             nuevoInventario.setSede(sede);
             nuevoInventario.setCantidad(cantidadIngresada);
-            inventarioRepositoryPort.save(nuevoInventario);
+            inventarioRepositoryPort.saveAndFlush(nuevoInventario);
             log.debug("Created new inventario for producto: {} in sede: {}, quantity: {}", 
                      producto.getId(), sede.getId(), cantidadIngresada);
         }
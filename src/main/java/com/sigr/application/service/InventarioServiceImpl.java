@@ -1,27 +1,61 @@
 package com.sigr.application.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigr.application.dto.inventario.AlertaStockBajoDTO;
+import com.sigr.application.dto.inventario.ConciliacionInventarioResponseDTO;
+import com.sigr.application.dto.inventario.DiferenciaInventarioDTO;
+import com.sigr.application.dto.inventario.FormatoConteo;
 import com.sigr.application.dto.inventario.InventarioRequestDTO;
 import com.sigr.application.dto.inventario.InventarioResponseDTO;
 import com.sigr.application.dto.inventario.InventarioUpdateDTO;
+import com.sigr.application.dto.inventario.MovimientoInventarioResponseDTO;
 import com.sigr.application.dto.inventario.StockAdjustmentDTO;
+import com.sigr.application.dto.inventario.StockDisponibleDTO;
+import com.sigr.application.dto.inventario.StockHistoricoDTO;
+import com.sigr.application.dto.inventario.StockMinimoDTO;
+import com.sigr.application.dto.inventario.TransferenciaStockRequestDTO;
+import com.sigr.application.dto.inventario.TransferenciaStockResponseDTO;
 import com.sigr.application.mapper.InventarioMapper;
 import com.sigr.application.port.input.InventarioUseCase;
 import com.sigr.application.port.output.InventarioRepositoryPort;
+import com.sigr.application.port.output.MovimientoInventarioRepositoryPort;
 import com.sigr.application.port.output.ProductoRepositoryPort;
 import com.sigr.application.port.output.SedeRepositoryPort;
+import com.sigr.application.port.output.TransferenciaStockRepositoryPort;
 import com.sigr.domain.entity.Inventario;
 import com.sigr.domain.entity.Producto;
 import com.sigr.domain.entity.Sede;
+import com.sigr.domain.entity.SnapshotInventario;
+import com.sigr.domain.entity.TipoMovimientoInventario;
 import com.sigr.domain.exception.BusinessException;
 import com.sigr.domain.exception.ResourceNotFoundException;
+import com.sigr.domain.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Slf4j
 @Service
@@ -32,21 +66,24 @@ public class InventarioServiceImpl implements InventarioUseCase {
     private final InventarioRepositoryPort inventarioRepositoryPort;
     private final ProductoRepositoryPort productoRepositoryPort;
     private final SedeRepositoryPort sedeRepositoryPort;
+    private final MovimientoInventarioRepositoryPort movimientoInventarioRepositoryPort;
+    private final TransferenciaStockRepositoryPort transferenciaStockRepositoryPort;
     private final InventarioMapper inventarioMapper;
+    private final KardexService kardexService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public List<InventarioResponseDTO> findAll() {
         log.debug("Finding all inventarios");
-        List<Inventario> inventarios = inventarioRepositoryPort.findAll();
-        return inventarioMapper.toResponseDTOList(inventarios);
+        return inventarioRepositoryPort.listarTodos();
     }
 
     @Override
     public Page<InventarioResponseDTO> findAllPaginated(Pageable pageable) {
         log.debug("Finding all inventarios paginated with page: {}, size: {}", 
                  pageable.getPageNumber(), pageable.getPageSize());
-        Page<Inventario> inventariosPage = inventarioRepositoryPort.findAllPaginated(pageable);
-        return inventariosPage.map(inventarioMapper::toResponseDTO);
+        return inventarioRepositoryPort.listarTodos(pageable);
     }
 
     @Override
@@ -60,6 +97,11 @@ public class InventarioServiceImpl implements InventarioUseCase {
     @Override
     public InventarioResponseDTO findByProductoAndSede(Long productoId, Long sedeId) {
         log.debug("Finding inventario by productoId: {} and sedeId: {}", productoId, sedeId);
+        // La ausencia se resuelve con la copia en memoria; sólo los inventarios existentes se leen de la BD
+        if (inventarioRepositoryPort.findCantidad(productoId, sedeId).isEmpty()) {
+            throw new ResourceNotFoundException(
+                "Inventario no encontrado para producto ID: " + productoId + " en sede ID: " + sedeId);
+        }
         Inventario inventario = inventarioRepositoryPort.findByProductoIdAndSedeId(productoId, sedeId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                     "Inventario no encontrado para producto ID: " + productoId + " en sede ID: " + sedeId));
@@ -69,29 +111,43 @@ public class InventarioServiceImpl implements InventarioUseCase {
     @Override
     public List<InventarioResponseDTO> findBySedeId(Long sedeId) {
         log.debug("Finding inventarios by sedeId: {}", sedeId);
-        List<Inventario> inventarios = inventarioRepositoryPort.findBySedeId(sedeId);
-        return inventarioMapper.toResponseDTOList(inventarios);
+        return inventarioRepositoryPort.listarPorSede(sedeId);
+    }
+
+    @Override
+    public Page<InventarioResponseDTO> findBySedeIdPaginated(Long sedeId, Pageable pageable) {
+        log.debug("Finding inventarios by sedeId: {} paginated with page: {}, size: {}",
+                 sedeId, pageable.getPageNumber(), pageable.getPageSize());
+        return inventarioRepositoryPort.listarPorSede(sedeId, pageable);
     }
 
     @Override
     public List<InventarioResponseDTO> findByProductoId(Long productoId) {
         log.debug("Finding inventarios by productoId: {}", productoId);
-        List<Inventario> inventarios = inventarioRepositoryPort.findByProductoId(productoId);
-        return inventarioMapper.toResponseDTOList(inventarios);
+        return inventarioRepositoryPort.listarPorProducto(productoId);
     }
 
     @Override
     public List<InventarioResponseDTO> findLowStock(Integer cantidad) {
         log.debug("Finding inventarios with low stock: {}", cantidad);
-        List<Inventario> inventarios = inventarioRepositoryPort.findByLowStock(cantidad);
-        return inventarioMapper.toResponseDTOList(inventarios);
+        return cantidad != null
+                ? inventarioRepositoryPort.listarConCantidadHasta(cantidad)
+                : inventarioRepositoryPort.listarConStockBajo();
     }
 
     @Override
     public List<InventarioResponseDTO> findLowStockBySede(Long sedeId, Integer cantidad) {
         log.debug("Finding inventarios with low stock: {} in sede: {}", cantidad, sedeId);
-        List<Inventario> inventarios = inventarioRepositoryPort.findBySedeIdAndLowStock(sedeId, cantidad);
-        return inventarioMapper.toResponseDTOList(inventarios);
+        return cantidad != null
+                ? inventarioRepositoryPort.listarPorSedeConCantidadHasta(sedeId, cantidad)
+                : inventarioRepositoryPort.listarPorSedeConStockBajo(sedeId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<AlertaStockBajoDTO> findAlertasStockBajo(Long sedeId) {
+        log.debug("Finding low stock alerts for sede: {}", sedeId);
+        return inventarioRepositoryPort.findAlertasStockBajo(sedeId);
     }
 
     @Override
@@ -117,8 +173,10 @@ public class InventarioServiceImpl implements InventarioUseCase {
         inventario.setProducto(producto);
         inventario.setSede(sede);
 
-        Inventario savedInventario = inventarioRepositoryPort.save(inventario);
+        Inventario savedInventario = inventarioRepositoryPort.saveAndFlush(inventario);
         log.info("Inventario created successfully with id: {}", savedInventario.getId());
+        kardexService.registrar(TipoMovimientoInventario.ALTA_INVENTARIO, producto.getId(), sede.getId(),
+                savedInventario.getCantidad(), savedInventario.getId(), null);
         return inventarioMapper.toResponseDTO(savedInventario);
     }
 
@@ -130,10 +188,29 @@ public class InventarioServiceImpl implements InventarioUseCase {
         Inventario existingInventario = inventarioRepositoryPort.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventario no encontrado con ID: " + id));
 
+        int cantidadAnterior = existingInventario.getCantidad();
         inventarioMapper.updateEntityFromUpdateDTO(request, existingInventario);
 
-        Inventario updatedInventario = inventarioRepositoryPort.save(existingInventario);
+        Inventario updatedInventario = inventarioRepositoryPort.saveAndFlush(existingInventario);
         log.info("Inventario updated successfully with id: {}", updatedInventario.getId());
+        kardexService.registrar(TipoMovimientoInventario.AJUSTE, updatedInventario.getProducto().getId(),
+                updatedInventario.getSede().getId(), updatedInventario.getCantidad() - cantidadAnterior,
+                updatedInventario.getId(), "Actualización de cantidad");
+        return inventarioMapper.toResponseDTO(updatedInventario);
+    }
+
+    @Override
+    @Transactional
+    public InventarioResponseDTO updateStockMinimo(Long id, StockMinimoDTO request) {
+        log.debug("Updating minimum stock for inventario id: {} to {}", id, request.getStockMinimo());
+
+        Inventario inventario = inventarioRepositoryPort.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventario no encontrado con ID: " + id));
+        inventario.setStockMinimo(request.getStockMinimo());
+
+        Inventario updatedInventario = inventarioRepositoryPort.save(inventario);
+        log.info("Minimum stock updated for inventario id: {}, effective threshold: {}",
+                id, updatedInventario.getStockMinimoEfectivo());
         return inventarioMapper.toResponseDTO(updatedInventario);
     }
 
@@ -145,36 +222,199 @@ public class InventarioServiceImpl implements InventarioUseCase {
         Inventario inventario = inventarioRepositoryPort.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventario no encontrado con ID: " + id));
 
-        int nuevaCantidad = inventario.getCantidad() + cantidadAjuste;
-        if (nuevaCantidad < 0) {
+        Long productoId = inventario.getProducto().getId();
+        Long sedeId = inventario.getSede().getId();
+        boolean ajustado = cantidadAjuste >= 0
+                ? inventarioRepositoryPort.incrementarStock(productoId, sedeId, cantidadAjuste)
+                : inventarioRepositoryPort.descontarStock(productoId, sedeId, -cantidadAjuste);
+        if (!ajustado) {
             throw new BusinessException("El ajuste resultaría en cantidad negativa");
         }
 
-        inventario.setCantidad(nuevaCantidad);
-        Inventario updatedInventario = inventarioRepositoryPort.save(inventario);
+        Inventario updatedInventario = inventarioRepositoryPort.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventario no encontrado con ID: " + id));
+        int nuevaCantidad = updatedInventario.getCantidad();
         
         log.info("Stock adjusted for inventario id: {}, new quantity: {}, reason: {}", 
                 id, nuevaCantidad, motivo);
+        kardexService.registrar(TipoMovimientoInventario.AJUSTE, productoId, sedeId, cantidadAjuste, id, motivo);
         return inventarioMapper.toResponseDTO(updatedInventario);
     }
 
+    @Override
+    @Transactional
+    public TransferenciaStockResponseDTO transferirStock(TransferenciaStockRequestDTO request) {
+        Long origenId = request.getSedeOrigenId();
+        Long destinoId = request.getSedeDestinoId();
+        if (origenId.equals(destinoId)) {
+            throw new BusinessException("La sede de origen y la de destino deben ser distintas");
+        }
+        if (!sedeRepositoryPort.existsById(origenId)) {
+            throw new ResourceNotFoundException("Sede no encontrada con ID: " + origenId);
+        }
+        if (!sedeRepositoryPort.existsById(destinoId)) {
+            throw new ResourceNotFoundException("Sede no encontrada con ID: " + destinoId);
+        }
+
+        Map<Long, Integer> cantidadesPorProducto = new TreeMap<>();
+        for (TransferenciaStockRequestDTO.ItemDTO item : request.getItems()) {
+            cantidadesPorProducto.merge(item.getProductoId(), item.getCantidad(), Integer::sum);
+        }
+        log.debug("Transferring {} products from sede: {} to sede: {}", cantidadesPorProducto.size(), origenId, destinoId);
+
+        Map<Long, Integer> stockOrigen = transferenciaStockRepositoryPort.bloquearInventarios(
+                origenId, destinoId, cantidadesPorProducto.keySet());
+        List<Long> sinInventario = new ArrayList<>();
+        List<String> insuficientes = new ArrayList<>();
+        cantidadesPorProducto.forEach((productoId, cantidad) -> {
+            Integer disponible = stockOrigen.get(productoId);
+            if (disponible == null) {
+                sinInventario.add(productoId);
+            } else if (disponible < cantidad) {
+                insuficientes.add(String.format("producto %d (disponible %d, solicitado %d)", productoId, disponible, cantidad));
+            }
+        });
+        if (!sinInventario.isEmpty()) {
+            throw new ResourceNotFoundException("Productos sin inventario en la sede de origen: " + sinInventario);
+        }
+        if (!insuficientes.isEmpty()) {
+            throw new BusinessException("Stock insuficiente en la sede de origen para: " + String.join(", ", insuficientes));
+        }
+
+        List<Long> creados = transferenciaStockRepositoryPort.transferir(origenId, destinoId, cantidadesPorProducto);
+
+        kardexService.registrar(TipoMovimientoInventario.TRANSFERENCIA_SALIDA, origenId, cantidadesPorProducto, -1, null,
+                request.getMotivo() != null ? request.getMotivo() : "Transferencia a sede " + destinoId);
+        kardexService.registrar(TipoMovimientoInventario.TRANSFERENCIA_ENTRADA, destinoId, cantidadesPorProducto, 1, null,
+                request.getMotivo() != null ? request.getMotivo() : "Transferencia desde sede " + origenId);
+
+        TransferenciaStockResponseDTO respuesta = new TransferenciaStockResponseDTO();
+        respuesta.setSedeOrigenId(origenId);
+        respuesta.setSedeDestinoId(destinoId);
+        respuesta.setProductosTransferidos(cantidadesPorProducto.size());
+        respuesta.setUnidadesTransferidas(cantidadesPorProducto.values().stream().mapToLong(Integer::longValue).sum());
+        respuesta.setInventariosCreados(creados);
+        log.info("Transferred {} units of {} products from sede: {} to sede: {}, {} inventories created",
+                respuesta.getUnidadesTransferidas(), respuesta.getProductosTransferidos(), origenId, destinoId, creados.size());
+        return respuesta;
+    }
+
+    @Override
+    // El archivo se lee y valida entero antes de abrir la transacción que bloquea los inventarios
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ConciliacionInventarioResponseDTO conciliarConteo(Long sedeId, InputStream contenido, FormatoConteo formato,
+                                                             String motivo) {
+        if (!sedeRepositoryPort.existsById(sedeId)) {
+            throw new ResourceNotFoundException("Sede no encontrada con ID: " + sedeId);
+        }
+        Map<Long, Integer> cantidadesContadas = formato == FormatoConteo.JSON ? leerConteoJson(contenido) : leerConteoCsv(contenido);
+        if (cantidadesContadas.isEmpty()) {
+            throw new ValidationException("El conteo no contiene productos");
+        }
+        log.info("Reconciling physical count of {} products for sede: {}", cantidadesContadas.size(), sedeId);
+        return transactionTemplate.execute(status -> aplicarConteo(sedeId, cantidadesContadas, motivo));
+    }
+
+    private ConciliacionInventarioResponseDTO aplicarConteo(Long sedeId, Map<Long, Integer> cantidadesContadas,
+                                                            String motivo) {
+        List<DiferenciaInventarioDTO> conteo = inventarioRepositoryPort.aplicarConteo(sedeId, cantidadesContadas);
+
+        ConciliacionInventarioResponseDTO respuesta = new ConciliacionInventarioResponseDTO();
+        respuesta.setSedeId(sedeId);
+        respuesta.setProductosContados(cantidadesContadas.size());
+        Set<Long> conInventario = new HashSet<>();
+        Map<Long, Integer> ajustes = new TreeMap<>();
+        long faltantes = 0;
+        long sobrantes = 0;
+        for (DiferenciaInventarioDTO diferencia : conteo) {
+            conInventario.add(diferencia.getProductoId());
+            if (diferencia.getDiferencia() == 0) {
+                continue;
+            }
+            respuesta.getDiferencias().add(diferencia);
+            ajustes.put(diferencia.getProductoId(), diferencia.getDiferencia());
+            if (diferencia.getDiferencia() < 0) {
+                faltantes -= diferencia.getDiferencia();
+            } else {
+                sobrantes += diferencia.getDiferencia();
+            }
+        }
+        for (Long productoId : cantidadesContadas.keySet()) {
+            if (!conInventario.contains(productoId)) {
+                respuesta.getProductosSinInventario().add(productoId);
+            }
+        }
+        respuesta.setProductosAjustados(ajustes.size());
+        respuesta.setProductosSinDiferencia(conteo.size() - ajustes.size());
+        respuesta.setUnidadesFaltantes(faltantes);
+        respuesta.setUnidadesSobrantes(sobrantes);
+
+        // Las diferencias ya llevan signo
+        kardexService.registrar(TipoMovimientoInventario.AJUSTE, sedeId, ajustes, 1, null,
+                motivo != null ? motivo : "Conteo físico");
+        log.info("Physical count applied for sede: {}: {} adjusted, {} missing units, {} surplus units, {} without inventory",
+                sedeId, ajustes.size(), faltantes, sobrantes, respuesta.getProductosSinInventario().size());
+        return respuesta;
+    }
+
     @Override
     @Transactional
     public void deleteById(Long id) {
         log.debug("Deleting inventario with id: {}", id);
 
-        if (!inventarioRepositoryPort.existsById(id)) {
-            throw new ResourceNotFoundException("Inventario no encontrado con ID: " + id);
-        }
+        Inventario inventario = inventarioRepositoryPort.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventario no encontrado con ID: " + id));
 
         inventarioRepositoryPort.deleteById(id);
         log.info("Inventario deleted successfully with id: {}", id);
+        kardexService.registrar(TipoMovimientoInventario.BAJA_INVENTARIO, inventario.getProducto().getId(),
+                inventario.getSede().getId(), -inventario.getCantidad(), id, null);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean existsByProductoAndSede(Long productoId, Long sedeId) {
         log.debug("Checking if inventario exists for producto: {} in sede: {}", productoId, sedeId);
-        return inventarioRepositoryPort.existsByProductoIdAndSedeId(productoId, sedeId);
+        return inventarioRepositoryPort.findCantidad(productoId, sedeId).isPresent();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StockDisponibleDTO findStock(Long productoId, Long sedeId) {
+        log.debug("Finding stock for producto: {} in sede: {}", productoId, sedeId);
+        return inventarioRepositoryPort.findStock(productoId, sedeId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                    "Inventario no encontrado para producto ID: " + productoId + " en sede ID: " + sedeId));
+    }
+
+    @Override
+    public Page<MovimientoInventarioResponseDTO> findMovimientos(Long productoId, Long sedeId, LocalDateTime fechaInicio,
+                                                                 LocalDateTime fechaFin, Pageable pageable) {
+        log.debug("Finding inventory movements for producto: {} in sede: {} between {} and {}",
+                productoId, sedeId, fechaInicio, fechaFin);
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new BusinessException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        return movimientoInventarioRepositoryPort
+                .findByProductoIdAndSedeIdAndFechaBetween(productoId, sedeId, fechaInicio, fechaFin, pageable)
+                .map(inventarioMapper::toMovimientoResponseDTO);
+    }
+
+    @Override
+    public StockHistoricoDTO findStockEnFecha(Long productoId, Long sedeId, LocalDateTime fecha) {
+        log.debug("Finding stock for producto: {} in sede: {} at {}", productoId, sedeId, fecha);
+        // Partir de la última foto anterior a la fecha y aplicar sólo los movimientos posteriores a ella
+        Optional<SnapshotInventario> snapshot = movimientoInventarioRepositoryPort.findUltimoSnapshot(productoId, sedeId, fecha);
+        if (snapshot.isPresent()) {
+            long cantidad = snapshot.get().getCantidad()
+                    + movimientoInventarioRepositoryPort.sumCantidadEntre(productoId, sedeId, snapshot.get().getFecha(), fecha);
+            return new StockHistoricoDTO(productoId, sedeId, fecha, cantidad, snapshot.get().getFecha());
+        }
+
+        // Sin foto previa: deshacer desde el stock actual los movimientos posteriores a la fecha
+        int cantidadActual = inventarioRepositoryPort.findCantidad(productoId, sedeId).orElse(0);
+        long cantidad = cantidadActual - movimientoInventarioRepositoryPort.sumCantidadDespuesDe(productoId, sedeId, fecha);
+        return new StockHistoricoDTO(productoId, sedeId, fecha, cantidad, null);
     }
 
     @Override
@@ -199,27 +439,132 @@ public class InventarioServiceImpl implements InventarioUseCase {
             throw new ResourceNotFoundException("Sede no encontrada con ID: " + request.getSedeId());
         }
 
-        // Validar que hay suficiente stock
-        if (inventario.getCantidad() < request.getCantidad()) {
+        // Descontar el stock solo si hay suficiente (UPDATE condicional, sin leer-modificar-escribir)
+        if (!inventarioRepositoryPort.descontarStock(
+                inventario.getProducto().getId(), request.getSedeId(), request.getCantidad())) {
+            Integer stockActual = inventarioRepositoryPort.findById(id)
+                    .map(Inventario::getCantidad)
+                    .orElse(0);
             throw new BusinessException(
                 String.format("Stock insuficiente en sede %d. Stock actual: %d, cantidad solicitada: %d", 
-                    request.getSedeId(), inventario.getCantidad(), request.getCantidad())
+                    request.getSedeId(), stockActual, request.getCantidad())
             );
         }
 
-        // Descontar el stock
-        int stockAnterior = inventario.getCantidad();
-        int nuevoStock = stockAnterior - request.getCantidad();
-        inventario.setCantidad(nuevoStock);
+        Inventario updatedInventario = inventarioRepositoryPort.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventario no encontrado con ID: " + id));
+        int nuevoStock = updatedInventario.getCantidad();
+        int stockAnterior = nuevoStock + request.getCantidad();
         
-        Inventario updatedInventario = inventarioRepositoryPort.save(inventario);
         log.info("Stock adjusted successfully for inventory id: {} in sede: {}. Previous stock: {}, deducted: {}, new stock: {}. Reason: {}", 
             id, request.getSedeId(), stockAnterior, request.getCantidad(), nuevoStock, 
             request.getMotivo() != null ? request.getMotivo() : "No especificado");
+        kardexService.registrar(TipoMovimientoInventario.AJUSTE, inventario.getProducto().getId(), request.getSedeId(),
+                -request.getCantidad(), id, request.getMotivo());
         
         return inventarioMapper.toResponseDTO(updatedInventario);
     }
 
+    private Map<Long, Integer> leerConteoCsv(InputStream contenido) {
+        Map<Long, Integer> cantidades = new TreeMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8))) {
+            String linea;
+            int numeroLinea = 0;
+            // Sin cabecera las columnas son productoId y cantidadContada, en ese orden
+            int columnaProducto = 0;
+            int columnaCantidad = 1;
+            boolean primeraFila = true;
+            while ((linea = reader.readLine()) != null) {
+                numeroLinea++;
+                if (numeroLinea == 1 && linea.startsWith("\uFEFF")) {
+                    linea = linea.substring(1);
+                }
+                linea = linea.strip();
+                if (linea.isEmpty()) {
+                    continue;
+                }
+                String[] campos = linea.split("[,;]");
+                if (campos.length != 2) {
+                    throw new ValidationException("Línea " + numeroLinea + ": se esperaban productoId y cantidadContada");
+                }
+                if (primeraFila) {
+                    primeraFila = false;
+                    // La cabecera es opcional y se reconoce por el nombre de sus columnas
+                    List<String> nombres = List.of(campos[0].strip(), campos[1].strip());
+                    if (nombres.contains("productoId") || nombres.contains("cantidadContada")) {
+                        columnaProducto = nombres.indexOf("productoId");
+                        columnaCantidad = nombres.indexOf("cantidadContada");
+                        if (columnaProducto < 0 || columnaCantidad < 0) {
+                            throw new ValidationException("Línea " + numeroLinea +
+                                    ": la cabecera debe tener las columnas productoId y cantidadContada");
+                        }
+                        continue;
+                    }
+                }
+                try {
+                    acumularConteo(cantidades, Long.parseLong(campos[columnaProducto].strip()),
+                            Integer.parseInt(campos[columnaCantidad].strip()), "Línea " + numeroLinea);
+                } catch (NumberFormatException e) {
+                    throw new ValidationException("Línea " + numeroLinea + ": valor numérico inválido");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return cantidades;
+    }
+
+    private Map<Long, Integer> leerConteoJson(InputStream contenido) {
+        Map<Long, Integer> cantidades = new TreeMap<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(contenido)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Se esperaba un arreglo JSON de conteos");
+            }
+            int posicion = 0;
+            // Cada elemento se lee y descarta; el arreglo completo nunca se materializa
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Long productoId = null;
+                Integer cantidadContada = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String campo = parser.getCurrentName();
+                    JsonToken valor = parser.nextToken();
+                    if ("productoId".equals(campo) && valor == JsonToken.VALUE_NUMBER_INT) {
+                        productoId = parser.getLongValue();
+                    } else if ("cantidadContada".equals(campo) && valor == JsonToken.VALUE_NUMBER_INT) {
+                        cantidadContada = parser.getIntValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (productoId == null || cantidadContada == null) {
+                    throw new ValidationException("Elemento " + posicion + ": se esperaban productoId y cantidadContada");
+                }
+                acumularConteo(cantidades, productoId, cantidadContada, "Elemento " + posicion);
+                posicion++;
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new ValidationException("Elemento " + posicion + ": se esperaba un objeto");
+            }
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("JSON de conteo inválido: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return cantidades;
+    }
+
+    private void acumularConteo(Map<Long, Integer> cantidades, long productoId, int cantidadContada, String posicion) {
+        if (cantidadContada < 0) {
+            throw new ValidationException(posicion + ": la cantidad contada no puede ser negativa");
+        }
+        try {
+            cantidades.merge(productoId, cantidadContada, Math::addExact);
+        } catch (ArithmeticException e) {
+            throw new ValidationException(posicion + ": la suma de las cantidades contadas del producto " + productoId +
+                    " excede el máximo permitido");
+        }
+    }
+
     private void validateInventarioRequest(InventarioRequestDTO request) {
         if (!productoRepositoryPort.existsById(request.getProductoId())) {
             throw new ResourceNotFoundException("Producto no encontrado con ID: " + request.getProductoId());
@@ -0,0 +1,88 @@
+package com.sigr.application.service;
+
+import com.sigr.application.port.output.MovimientoInventarioRepositoryPort;
+import com.sigr.application.port.output.SedeRepositoryPort;
+import com.sigr.domain.entity.MovimientoInventario;
+import com.sigr.domain.entity.Sede;
+import com.sigr.domain.entity.TipoMovimientoInventario;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registra los movimientos de inventario (kardex) en la misma transacción que cambia el stock, con un
+ * INSERT por lotes JDBC: el movimiento se confirma o se deshace junto con el cambio que describe.
+ * También toma las fotos periódicas por sede que acotan el cálculo de stock en una fecha.
+ */
+@Slf4j
+@Service
+public class KardexService {
+
+    private final MovimientoInventarioRepositoryPort movimientoInventarioRepositoryPort;
+    private final SedeRepositoryPort sedeRepositoryPort;
+    private final TransactionTemplate nuevaTransaccion;
+
+    public KardexService(MovimientoInventarioRepositoryPort movimientoInventarioRepositoryPort,
+                         SedeRepositoryPort sedeRepositoryPort,
+                         PlatformTransactionManager transactionManager) {
+        this.movimientoInventarioRepositoryPort = movimientoInventarioRepositoryPort;
+        this.sedeRepositoryPort = sedeRepositoryPort;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void registrar(TipoMovimientoInventario tipo, Long productoId, Long sedeId, int cantidad,
+                          Long referenciaId, String motivo) {
+        if (cantidad == 0) {
+            return;
+        }
+        movimientoInventarioRepositoryPort.insertarEnLote(
+                List.of(crear(tipo, productoId, sedeId, cantidad, referenciaId, motivo, LocalDateTime.now())));
+    }
+
+    /**
+     * @param signo 1 para entradas, -1 para salidas; las cantidades del mapa van sin signo
+     */
+    public void registrar(TipoMovimientoInventario tipo, Long sedeId, Map<Long, Integer> cantidadesPorProducto,
+                          int signo, Long referenciaId, String motivo) {
+        LocalDateTime fecha = LocalDateTime.now();
+        List<MovimientoInventario> movimientos = new ArrayList<>(cantidadesPorProducto.size());
+        cantidadesPorProducto.forEach((productoId, cantidad) ->
+                movimientos.add(crear(tipo, productoId, sedeId, signo * cantidad, referenciaId, motivo, fecha)));
+        movimientoInventarioRepositoryPort.insertarEnLote(movimientos);
+    }
+
+    @Scheduled(cron = "${app.kardex.snapshot-cron:0 0 1 * * *}")
+    public void tomarSnapshots() {
+        for (Sede sede : sedeRepositoryPort.findAll()) {
+            try {
+                int filas = nuevaTransaccion.execute(status ->
+                        movimientoInventarioRepositoryPort.tomarSnapshot(sede.getId()));
+                log.info("Inventory snapshot for sede {}: {} rows", sede.getId(), filas);
+            } catch (RuntimeException e) {
+                log.error("Failed to take inventory snapshot for sede {}", sede.getId(), e);
+            }
+        }
+    }
+
+    private MovimientoInventario crear(TipoMovimientoInventario tipo, Long productoId, Long sedeId, int cantidad,
+                                       Long referenciaId, String motivo, LocalDateTime fecha) {
+        MovimientoInventario movimiento = new MovimientoInventario();
+        movimiento.setTipo(tipo);
+        movimiento.setProductoId(productoId);
+        movimiento.setSedeId(sedeId);
+        movimiento.setCantidad(cantidad);
+        movimiento.setReferenciaId(referenciaId);
+        movimiento.setMotivo(motivo);
+        movimiento.setFecha(fecha);
+        return movimiento;
+    }
+}
\ No newline at end of file
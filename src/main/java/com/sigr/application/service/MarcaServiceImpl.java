@@ -4,6 +4,7 @@ import com.sigr.application.dto.marca.MarcaRequestDTO;
 import com.sigr.application.dto.marca.MarcaResponseDTO;
 import com.sigr.application.dto.marca.MarcaUpdateDTO;
 import com.sigr.application.port.input.MarcaUseCase;
+import com.sigr.application.port.output.CambioCatalogoRepositoryPort;
 import com.sigr.application.port.output.MarcaRepositoryPort;
 import com.sigr.domain.entity.Marca;
 import com.sigr.domain.exception.ResourceNotFoundException;
@@ -23,6 +24,8 @@ import java.util.stream.Collectors;
 public class MarcaServiceImpl implements MarcaUseCase {
 
     private final MarcaRepositoryPort marcaRepositoryPort;
+    private final CacheCodigoBarraService cacheCodigoBarraService;
+    private final CambioCatalogoRepositoryPort cambioCatalogoRepositoryPort;
 
     @Override
     public List<MarcaResponseDTO> findAll() {
@@ -87,6 +90,9 @@ public class MarcaServiceImpl implements MarcaUseCase {
         }
 
         Marca marcaActualizada = marcaRepositoryPort.save(marca);
+        // Los productos en caché por código de barras incluyen su marca
+        cacheCodigoBarraService.invalidarTodo();
+        cambioCatalogoRepositoryPort.registrarCambiosPorMarca(id);
         return mapToResponseDTO(marcaActualizada);
     }
 
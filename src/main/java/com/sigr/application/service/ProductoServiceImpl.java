@@ -1,33 +1,63 @@
 package com.sigr.application.service;
 
+import com.sigr.application.dto.producto.CacheEstadisticasDTO;
+import com.sigr.application.dto.producto.CambiosCatalogoDTO;
+import com.sigr.application.dto.producto.CodigoBarraBatchResponseDTO;
+import com.sigr.application.dto.producto.ErrorImportacionDTO;
+import com.sigr.application.dto.producto.ImportacionProductosResponseDTO;
+import com.sigr.application.dto.producto.ProductoBusquedaDTO;
 import com.sigr.application.dto.producto.ProductoRequestDTO;
 import com.sigr.application.dto.producto.ProductoResponseDTO;
 import com.sigr.application.dto.producto.ProductoUpdateDTO;
 import com.sigr.application.dto.producto.ProductoConStockDTO;
+import com.sigr.application.dto.inventario.StockDisponibleDTO;
 import com.sigr.application.mapper.ProductoMapper;
 import com.sigr.application.port.input.ProductoUseCase;
+import com.sigr.application.port.output.BusquedaProductoPort;
+import com.sigr.application.port.output.CambioCatalogoRepositoryPort;
 import com.sigr.application.port.output.CategoriaRepositoryPort;
 import com.sigr.application.port.output.MarcaRepositoryPort;
 import com.sigr.application.port.output.ProductoRepositoryPort;
 import com.sigr.application.port.output.ProveedorRepositoryPort;
 import com.sigr.application.port.output.InventarioRepositoryPort;
 import com.sigr.application.port.output.SedeRepositoryPort;
+import com.sigr.domain.entity.CambioCatalogo;
 import com.sigr.domain.entity.Categoria;
 import com.sigr.domain.entity.Marca;
 import com.sigr.domain.entity.Producto;
 import com.sigr.domain.entity.Proveedor;
 import com.sigr.domain.entity.Inventario;
 import com.sigr.domain.entity.Sede;
+import com.sigr.domain.entity.TipoMovimientoInventario;
 import com.sigr.domain.exception.BusinessException;
 import com.sigr.domain.exception.ResourceNotFoundException;
+import com.sigr.domain.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,6 +66,14 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ProductoServiceImpl implements ProductoUseCase {
 
+    private static final int LIMITE_BUSQUEDA_POR_DEFECTO = 10;
+    private static final int LIMITE_BUSQUEDA_MAXIMO = 50;
+    // Productos acumulados antes de insertarlos; acota la memoria de la importación
+    private static final int LOTE_IMPORTACION = 500;
+    private static final int MAX_ERRORES_IMPORTACION = 1000;
+    private static final List<String> COLUMNAS_IMPORTACION = List.of("codigoBarra", "nombre", "descripcion",
+        "precioCompra", "precioVenta", "categoriaId", "marcaId", "proveedorId", "stockMinimo", "cantidadInicial");
+
     private final ProductoRepositoryPort productoRepositoryPort;
     private final CategoriaRepositoryPort categoriaRepositoryPort;
     private final MarcaRepositoryPort marcaRepositoryPort;
@@ -43,17 +81,17 @@ public class ProductoServiceImpl implements ProductoUseCase {
     private final InventarioRepositoryPort inventarioRepositoryPort;
     private final SedeRepositoryPort sedeRepositoryPort;
     private final ProductoMapper productoMapper;
+    private final KardexService kardexService;
+    private final BusquedaProductoPort busquedaProductoPort;
+    private final CacheCodigoBarraService cacheCodigoBarraService;
+    private final BarcodeGeneratorService barcodeGeneratorService;
+    private final CambioCatalogoRepositoryPort cambioCatalogoRepositoryPort;
 
     @Override
     public List<ProductoResponseDTO> findAll() {
         log.debug("Finding all productos");
         List<Producto> productos = productoRepositoryPort.findAll();
-        return productos.stream()
-            .map(producto -> {
-                List<Inventario> inventarios = inventarioRepositoryPort.findByProductoIdWithStock(producto.getId());
-                return productoMapper.toResponseDTO(producto, inventarios);
-            })
-            .collect(Collectors.toList());
+        return toResponseDTOListConStock(productos);
     }
 
     @Override
@@ -64,12 +102,7 @@ public class ProductoServiceImpl implements ProductoUseCase {
         
         log.debug("Finding productos by sede: {}", sedeId);
         List<Producto> productos = productoRepositoryPort.findBySedeId(sedeId);
-        return productos.stream()
-            .map(producto -> {
-                List<Inventario> inventarios = inventarioRepositoryPort.findByProductoIdWithStock(producto.getId());
-                return productoMapper.toResponseDTO(producto, inventarios);
-            })
-            .collect(Collectors.toList());
+        return toResponseDTOListConStock(productos);
     }
 
     @Override
@@ -77,10 +110,19 @@ public class ProductoServiceImpl implements ProductoUseCase {
         log.debug("Finding all productos paginated with page: {}, size: {}", 
                  pageable.getPageNumber(), pageable.getPageSize());
         Page<Producto> productosPage = productoRepositoryPort.findAllPaginated(pageable);
-        return productosPage.map(producto -> {
-            List<Inventario> inventarios = inventarioRepositoryPort.findByProductoIdWithStock(producto.getId());
-            return productoMapper.toResponseDTO(producto, inventarios);
-        });
+        return toResponseDTOPageConStock(productosPage);
+    }
+
+    @Override
+    public Page<ProductoResponseDTO> findAllPaginated(Long sedeId, Pageable pageable) {
+        if (sedeId == null) {
+            return findAllPaginated(pageable);
+        }
+
+        log.debug("Finding productos by sede: {} paginated with page: {}, size: {}",
+                 sedeId, pageable.getPageNumber(), pageable.getPageSize());
+        Page<Producto> productosPage = productoRepositoryPort.findBySedeIdPaginated(sedeId, pageable);
+        return toResponseDTOPageConStock(productosPage);
     }
 
     @Override
@@ -93,11 +135,65 @@ public class ProductoServiceImpl implements ProductoUseCase {
     }
 
     @Override
+    // Los aciertos de caché no abren transacción; la consulta carga ya categoría, marca y proveedor
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductoResponseDTO findByCodigoBarra(String codigoBarra) {
         log.debug("Finding producto by codigo barra: {}", codigoBarra);
+        Optional<ProductoResponseDTO> enCache = cacheCodigoBarraService.obtener(codigoBarra);
+        if (enCache.isPresent()) {
+            return enCache.get();
+        }
+        long version = cacheCodigoBarraService.version();
         Producto producto = productoRepositoryPort.findByCodigoBarra(codigoBarra)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con código de barras: " + codigoBarra));
-        return productoMapper.toResponseDTO(producto);
+        ProductoResponseDTO dto = productoMapper.toResponseDTO(producto);
+        cacheCodigoBarraService.guardar(dto, version);
+        return dto;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CodigoBarraBatchResponseDTO findByCodigosBarra(List<String> codigosBarra) {
+        log.debug("Resolving {} codigos de barra", codigosBarra.size());
+        Map<String, ProductoResponseDTO> encontrados = new LinkedHashMap<>();
+        Set<String> pendientes = new LinkedHashSet<>();
+        for (String codigoBarra : codigosBarra) {
+            if (!encontrados.containsKey(codigoBarra) && !pendientes.contains(codigoBarra)) {
+                Optional<ProductoResponseDTO> enCache = cacheCodigoBarraService.obtener(codigoBarra);
+                if (enCache.isPresent()) {
+                    encontrados.put(codigoBarra, enCache.get());
+                } else {
+                    // Reserva la posición para respetar el orden de escaneo
+                    encontrados.put(codigoBarra, null);
+                    pendientes.add(codigoBarra);
+                }
+            }
+        }
+
+        if (!pendientes.isEmpty()) {
+            long version = cacheCodigoBarraService.version();
+            for (Producto producto : productoRepositoryPort.findByCodigosBarra(pendientes)) {
+                ProductoResponseDTO dto = productoMapper.toResponseDTO(producto);
+                encontrados.put(producto.getCodigoBarra(), dto);
+                cacheCodigoBarraService.guardar(dto, version);
+            }
+        }
+
+        List<ProductoResponseDTO> productos = new ArrayList<>();
+        List<String> noEncontrados = new ArrayList<>();
+        encontrados.forEach((codigoBarra, producto) -> {
+            if (producto != null) {
+                productos.add(producto);
+            } else {
+                noEncontrados.add(codigoBarra);
+            }
+        });
+        return new CodigoBarraBatchResponseDTO(productos, noEncontrados);
+    }
+
+    @Override
+    public CacheEstadisticasDTO findEstadisticasCacheCodigoBarra() {
+        return cacheCodigoBarraService.estadisticas();
     }
 
     @Override
@@ -107,6 +203,16 @@ public class ProductoServiceImpl implements ProductoUseCase {
         return productoMapper.toResponseDTOList(productos);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductoBusquedaDTO> buscar(String texto, Long sedeId, Integer limite) {
+        log.debug("Searching productos by text: {} in sede: {}", texto, sedeId);
+        int limiteEfectivo = limite != null
+                ? Math.max(1, Math.min(limite, LIMITE_BUSQUEDA_MAXIMO))
+                : LIMITE_BUSQUEDA_POR_DEFECTO;
+        return busquedaProductoPort.buscar(texto, sedeId, limiteEfectivo);
+    }
+
     @Override
     public List<ProductoResponseDTO> findByCategoriaId(Long categoriaId) {
         log.debug("Finding productos by categoria id: {}", categoriaId);
@@ -114,6 +220,33 @@ public class ProductoServiceImpl implements ProductoUseCase {
         return productoMapper.toResponseDTOList(productos);
     }
 
+    @Override
+    public long findVersionCatalogo() {
+        return cambioCatalogoRepositoryPort.obtenerVersion();
+    }
+
+    @Override
+    // Una sola instantánea para el registro de cambios y los productos que se devuelven
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CambiosCatalogoDTO findCambiosCatalogo(Long desde, long hasta) {
+        if (desde == null || desde <= 0 || desde > hasta) {
+            log.debug("Sending full catalog at version: {} (client version: {})", hasta, desde);
+            List<ProductoResponseDTO> productos = productoMapper.toResponseDTOList(productoRepositoryPort.findAll());
+            return new CambiosCatalogoDTO(hasta, true, productos, List.of());
+        }
+
+        List<Long> modificados = new ArrayList<>();
+        List<Long> eliminados = new ArrayList<>();
+        for (CambioCatalogo cambio : cambioCatalogoRepositoryPort.findCambiosEntre(desde, hasta)) {
+            (Boolean.TRUE.equals(cambio.getEliminado()) ? eliminados : modificados).add(cambio.getProductoId());
+        }
+        List<ProductoResponseDTO> productos = modificados.isEmpty() ? List.of()
+                : productoMapper.toResponseDTOList(productoRepositoryPort.findConRelacionesByIds(modificados));
+        log.debug("Catalog changes from version {} to {}: {} modified, {} deleted",
+                desde, hasta, productos.size(), eliminados.size());
+        return new CambiosCatalogoDTO(hasta, false, productos, eliminados);
+    }
+
     @Override
     @Transactional
     public ProductoResponseDTO create(ProductoRequestDTO request) {
@@ -152,6 +285,7 @@ public class ProductoServiceImpl implements ProductoUseCase {
         }
 
         Producto savedProducto = productoRepositoryPort.save(producto);
+        busquedaProductoPort.indexar(savedProducto);
         
         // Crear inventario inicial automáticamente
         createInitialInventory(savedProducto, request.getSedeId(), request.getCantidadInicial());
@@ -159,9 +293,88 @@ public class ProductoServiceImpl implements ProductoUseCase {
         log.info("Producto created successfully with id: {} and initial inventory in sede: {} with quantity: {}", 
             savedProducto.getId(), request.getSedeId(), request.getCantidadInicial());
         
+        // Al final: la fila de versión del catálogo queda bloqueada desde aquí hasta el commit
+        cambioCatalogoRepositoryPort.registrarCambios(List.of(savedProducto.getId()), false);
         return productoMapper.toResponseDTO(savedProducto);
     }
 
+    @Override
+    @Transactional
+    public ImportacionProductosResponseDTO importarCsv(Long sedeId, InputStream contenido) {
+        if (!sedeRepositoryPort.existsById(sedeId)) {
+            throw new ResourceNotFoundException("Sede", "id", sedeId);
+        }
+        // Referencias cargadas una sola vez para validar todas las filas en memoria
+        Set<Long> categoriaIds = categoriaRepositoryPort.findAll().stream().map(Categoria::getId).collect(Collectors.toSet());
+        Set<Long> marcaIds = marcaRepositoryPort.findAll().stream().map(Marca::getId).collect(Collectors.toSet());
+        Set<Long> proveedorIds = proveedorRepositoryPort.findAll().stream().map(Proveedor::getId).collect(Collectors.toSet());
+        Set<String> codigosBarra = productoRepositoryPort.findAllCodigosBarra();
+
+        ImportacionProductosResponseDTO respuesta = new ImportacionProductosResponseDTO();
+        respuesta.setSedeId(sedeId);
+        int filasLeidas = 0;
+        int creados = 0;
+        int conError = 0;
+        List<Producto> lote = new ArrayList<>(LOTE_IMPORTACION);
+        List<Integer> cantidadesLote = new ArrayList<>(LOTE_IMPORTACION);
+        List<Long> creadosIds = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8))) {
+            String cabecera = reader.readLine();
+            if (cabecera == null) {
+                throw new ValidationException("El archivo está vacío");
+            }
+            Map<String, Integer> columnas = leerCabeceraImportacion(cabecera);
+
+            String linea;
+            int numeroLinea = 1;
+            while ((linea = reader.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                filasLeidas++;
+                List<String> campos = separarCamposCsv(linea);
+                String codigoBarra = campoCsv(campos, columnas, "codigoBarra");
+                try {
+                    Producto producto = leerProductoImportado(campos, columnas, categoriaIds, marcaIds, proveedorIds);
+                    // Sin código, se genera al insertar el lote (ver asignarCodigosGenerados)
+                    if (codigoBarra != null && codigoBarra.length() > 50) {
+                        throw new ValidationException("El código de barras no puede exceder 50 caracteres");
+                    } else if (codigoBarra != null && codigosBarra.contains(codigoBarra)) {
+                        throw new BusinessException("Ya existe un producto con el código de barras: " + codigoBarra);
+                    }
+                    Integer cantidadInicial = enteroCsv(campos, columnas, "cantidadInicial", "La cantidad inicial");
+                    producto.setCodigoBarra(codigoBarra);
+                    if (codigoBarra != null) {
+                        codigosBarra.add(codigoBarra);
+                    }
+                    lote.add(producto);
+                    cantidadesLote.add(cantidadInicial != null ? cantidadInicial : 0);
+                } catch (BusinessException e) {
+                    conError++;
+                    if (respuesta.getErrores().size() < MAX_ERRORES_IMPORTACION) {
+                        respuesta.getErrores().add(new ErrorImportacionDTO(numeroLinea, codigoBarra, e.getMessage()));
+                    }
+                }
+                if (lote.size() == LOTE_IMPORTACION) {
+                    creados += insertarLoteImportado(sedeId, lote, cantidadesLote, codigosBarra, creadosIds);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        creados += insertarLoteImportado(sedeId, lote, cantidadesLote, codigosBarra, creadosIds);
+        // Una sola versión para toda la importación, tomada al final: la fila de versión queda bloqueada sólo hasta el commit
+        cambioCatalogoRepositoryPort.registrarCambios(creadosIds, false);
+
+        respuesta.setFilasLeidas(filasLeidas);
+        respuesta.setProductosCreados(creados);
+        respuesta.setFilasConError(conError);
+        log.info("Imported {} productos into sede: {} ({} rows read, {} with errors)", creados, sedeId, filasLeidas, conError);
+        return respuesta;
+    }
+
     @Override
     @Transactional
     public ProductoResponseDTO update(Long id, ProductoUpdateDTO request) {
@@ -169,6 +382,7 @@ public class ProductoServiceImpl implements ProductoUseCase {
 
         Producto existingProducto = productoRepositoryPort.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con ID: " + id));
+        String codigoBarraAnterior = existingProducto.getCodigoBarra();
 
         if (!existingProducto.getCodigoBarra().equals(request.getCodigoBarra()) && 
             productoRepositoryPort.existsByCodigoBarra(request.getCodigoBarra())) {
@@ -198,7 +412,14 @@ public class ProductoServiceImpl implements ProductoUseCase {
         }
 
         Producto updatedProducto = productoRepositoryPort.save(existingProducto);
+        busquedaProductoPort.indexar(updatedProducto);
+        cacheCodigoBarraService.invalidar(List.of(codigoBarraAnterior, updatedProducto.getCodigoBarra()));
         log.info("Producto updated successfully with id: {}", updatedProducto.getId());
+        if (request.getStockMinimo() != null) {
+            inventarioRepositoryPort.refrescarStockMinimos(updatedProducto.getId());
+        }
+        // Al final: la fila de versión del catálogo queda bloqueada desde aquí hasta el commit
+        cambioCatalogoRepositoryPort.registrarCambios(List.of(updatedProducto.getId()), false);
         return productoMapper.toResponseDTO(updatedProducto);
     }
 
@@ -207,9 +428,8 @@ public class ProductoServiceImpl implements ProductoUseCase {
     public void deleteById(Long id) {
         log.debug("Deleting producto with id: {}", id);
 
-        if (!productoRepositoryPort.existsById(id)) {
-            throw new ResourceNotFoundException("Producto no encontrado con ID: " + id);
-        }
+        Producto producto = productoRepositoryPort.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado con ID: " + id));
 
         // Verificar si el producto tiene inventario asociado
         List<Inventario> inventarios = inventarioRepositoryPort.findByProductoId(id);
@@ -222,6 +442,9 @@ public class ProductoServiceImpl implements ProductoUseCase {
         }
 
         productoRepositoryPort.deleteById(id);
+        busquedaProductoPort.eliminar(id);
+        cambioCatalogoRepositoryPort.registrarCambios(List.of(id), true);
+        cacheCodigoBarraService.invalidar(List.of(producto.getCodigoBarra()));
         log.info("Producto deleted successfully with id: {}", id);
     }
 
@@ -270,12 +493,231 @@ public class ProductoServiceImpl implements ProductoUseCase {
         inventario.setSede(sede);
         inventario.setCantidad(cantidadInicial);
         
-        inventarioRepositoryPort.save(inventario);
+        Inventario savedInventario = inventarioRepositoryPort.saveAndFlush(inventario);
+        kardexService.registrar(TipoMovimientoInventario.ALTA_INVENTARIO, producto.getId(), sedeId,
+            cantidadInicial, savedInventario.getId(), null);
         
         log.info("Initial inventory created successfully for producto: {} in sede: {} with quantity: {}", 
             producto.getId(), sedeId, cantidadInicial);
     }
 
+    private int insertarLoteImportado(Long sedeId, List<Producto> lote, List<Integer> cantidades, Set<String> codigosBarra,
+                                      List<Long> creadosIds) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        asignarCodigosGenerados(lote, codigosBarra);
+        productoRepositoryPort.insertarLote(lote);
+
+        List<StockDisponibleDTO> stocks = new ArrayList<>(lote.size());
+        Map<Long, Integer> altas = new TreeMap<>();
+        for (int i = 0; i < lote.size(); i++) {
+            Producto producto = lote.get(i);
+            stocks.add(new StockDisponibleDTO(producto.getId(), sedeId, cantidades.get(i), producto.getStockMinimo()));
+            if (cantidades.get(i) > 0) {
+                altas.put(producto.getId(), cantidades.get(i));
+            }
+            busquedaProductoPort.indexar(producto);
+        }
+        inventarioRepositoryPort.crearInventarios(sedeId, stocks);
+        kardexService.registrar(TipoMovimientoInventario.ALTA_INVENTARIO, sedeId, altas, 1, null, "Importación de catálogo");
+        lote.forEach(producto -> creadosIds.add(producto.getId()));
+
+        int insertados = lote.size();
+        lote.clear();
+        cantidades.clear();
+        return insertados;
+    }
+
+    // Una sola reserva de códigos por categoría y lote. Los que coinciden con un código ya cargado a mano dentro
+    // del rango de la serie se descartan y se piden otros
+    private void asignarCodigosGenerados(List<Producto> lote, Set<String> codigosBarra) {
+        Map<Long, List<Producto>> sinCodigoPorCategoria = new TreeMap<>();
+        for (Producto producto : lote) {
+            if (producto.getCodigoBarra() == null) {
+                Long categoriaId = producto.getCategoria() != null ? producto.getCategoria().getId() : 0L;
+                sinCodigoPorCategoria.computeIfAbsent(categoriaId, k -> new ArrayList<>()).add(producto);
+            }
+        }
+        sinCodigoPorCategoria.forEach((categoriaId, productos) -> {
+            int asignados = 0;
+            while (asignados < productos.size()) {
+                for (String codigo : barcodeGeneratorService.generateEAN13(categoriaId, productos.size() - asignados)) {
+                    if (codigosBarra.add(codigo)) {
+                        productos.get(asignados++).setCodigoBarra(codigo);
+                    }
+                }
+            }
+        });
+    }
+
+    private static Map<String, Integer> leerCabeceraImportacion(String cabecera) {
+        Map<String, Integer> columnas = new HashMap<>();
+        List<String> nombres = separarCamposCsv(cabecera.replace("\uFEFF", ""));
+        for (int i = 0; i < nombres.size(); i++) {
+            String nombre = nombres.get(i).strip();
+            if (!COLUMNAS_IMPORTACION.contains(nombre)) {
+                throw new ValidationException("Columna desconocida en la cabecera: " + nombre +
+                    ". Columnas admitidas: " + String.join(",", COLUMNAS_IMPORTACION));
+            }
+            columnas.put(nombre, i);
+        }
+        for (String obligatoria : List.of("nombre", "precioCompra", "precioVenta")) {
+            if (!columnas.containsKey(obligatoria)) {
+                throw new ValidationException("Falta la columna obligatoria: " + obligatoria);
+            }
+        }
+        return columnas;
+    }
+
+    private Producto leerProductoImportado(List<String> campos, Map<String, Integer> columnas,
+                                           Set<Long> categoriaIds, Set<Long> marcaIds, Set<Long> proveedorIds) {
+        Producto producto = new Producto();
+        String nombre = campoCsv(campos, columnas, "nombre");
+        if (nombre == null) {
+            throw new ValidationException("El nombre es obligatorio");
+        }
+        if (nombre.length() > 150) {
+            throw new ValidationException("El nombre no puede exceder 150 caracteres");
+        }
+        producto.setNombre(nombre);
+
+        String descripcion = campoCsv(campos, columnas, "descripcion");
+        if (descripcion != null && descripcion.length() > 500) {
+            throw new ValidationException("La descripción no puede exceder 500 caracteres");
+        }
+        producto.setDescripcion(descripcion);
+        producto.setPrecioCompra(precioCsv(campos, columnas, "precioCompra", "El precio de compra"));
+        producto.setPrecioVenta(precioCsv(campos, columnas, "precioVenta", "El precio de venta"));
+
+        Long categoriaId = idCsv(campos, columnas, "categoriaId", categoriaIds, "la categoría");
+        if (categoriaId != null) {
+            Categoria categoria = new Categoria();
+            categoria.setId(categoriaId);
+            producto.setCategoria(categoria);
+        }
+        Long marcaId = idCsv(campos, columnas, "marcaId", marcaIds, "la marca");
+        if (marcaId != null) {
+            Marca marca = new Marca();
+            marca.setId(marcaId);
+            producto.setMarca(marca);
+        }
+        Long proveedorId = idCsv(campos, columnas, "proveedorId", proveedorIds, "el proveedor");
+        if (proveedorId != null) {
+            Proveedor proveedor = new Proveedor();
+            proveedor.setId(proveedorId);
+            producto.setProveedor(proveedor);
+        }
+
+        Integer stockMinimo = enteroCsv(campos, columnas, "stockMinimo", "El stock mínimo");
+        if (stockMinimo != null) {
+            producto.setStockMinimo(stockMinimo);
+        }
+        return producto;
+    }
+
+    private static String campoCsv(List<String> campos, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice).strip();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static BigDecimal precioCsv(List<String> campos, Map<String, Integer> columnas, String columna, String etiqueta) {
+        String valor = campoCsv(campos, columnas, columna);
+        if (valor == null) {
+            throw new ValidationException(etiqueta + " es obligatorio");
+        }
+        try {
+            BigDecimal precio = new BigDecimal(valor);
+            if (precio.compareTo(new BigDecimal("0.01")) < 0) {
+                throw new ValidationException(etiqueta + " debe ser mayor a 0");
+            }
+            return precio;
+        } catch (NumberFormatException e) {
+            throw new ValidationException(etiqueta + " no es un número válido: " + valor);
+        }
+    }
+
+    private static Integer enteroCsv(List<String> campos, Map<String, Integer> columnas, String columna, String etiqueta) {
+        String valor = campoCsv(campos, columnas, columna);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            int entero = Integer.parseInt(valor);
+            if (entero < 0) {
+                throw new ValidationException(etiqueta + " debe ser mayor o igual a 0");
+            }
+            return entero;
+        } catch (NumberFormatException e) {
+            throw new ValidationException(etiqueta + " no es un entero válido: " + valor);
+        }
+    }
+
+    private static Long idCsv(List<String> campos, Map<String, Integer> columnas, String columna, Set<Long> existentes,
+                              String entidad) {
+        String valor = campoCsv(campos, columnas, columna);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            Long id = Long.parseLong(valor);
+            if (!existentes.contains(id)) {
+                throw new ValidationException("No existe " + entidad + " con ID: " + id);
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            throw new ValidationException("ID inválido para " + entidad + ": " + valor);
+        }
+    }
+
+    // Campos separados por coma; entre comillas dobles pueden contener comas y "" representa una comilla
+    private static List<String> separarCamposCsv(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    // Una sola consulta de inventarios para todo el listado en lugar de una por producto
+    private List<ProductoResponseDTO> toResponseDTOListConStock(List<Producto> productos) {
+        Map<Long, List<Inventario>> inventariosPorProducto = inventarioRepositoryPort.findByProductoIdsWithStock(
+            productos.stream().map(Producto::getId).collect(Collectors.toList()));
+        return productos.stream()
+            .map(producto -> productoMapper.toResponseDTO(producto,
+                inventariosPorProducto.getOrDefault(producto.getId(), List.of())))
+            .collect(Collectors.toList());
+    }
+
+    private Page<ProductoResponseDTO> toResponseDTOPageConStock(Page<Producto> productosPage) {
+        return new PageImpl<>(toResponseDTOListConStock(productosPage.getContent()),
+            productosPage.getPageable(), productosPage.getTotalElements());
+    }
+
     @Override
     public List<ProductoConStockDTO> findBySedeWithStock(Long sedeId) {
         log.debug("Finding productos by sede with stock: {}", sedeId);
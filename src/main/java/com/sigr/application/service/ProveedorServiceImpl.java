@@ -4,6 +4,7 @@ import com.sigr.application.dto.proveedor.ProveedorRequestDTO;
 import com.sigr.application.dto.proveedor.ProveedorResponseDTO;
 import com.sigr.application.dto.proveedor.ProveedorUpdateDTO;
 import com.sigr.application.port.input.ProveedorUseCase;
+import com.sigr.application.port.output.CambioCatalogoRepositoryPort;
 import com.sigr.application.port.output.ProveedorRepositoryPort;
 import com.sigr.domain.entity.Proveedor;
 import com.sigr.domain.exception.ResourceNotFoundException;
@@ -23,6 +24,8 @@ import java.util.stream.Collectors;
 public class ProveedorServiceImpl implements ProveedorUseCase {
 
     private final ProveedorRepositoryPort proveedorRepositoryPort;
+    private final CacheCodigoBarraService cacheCodigoBarraService;
+    private final CambioCatalogoRepositoryPort cambioCatalogoRepositoryPort;
 
     @Override
     public List<ProveedorResponseDTO> findAll() {
@@ -88,6 +91,9 @@ public class ProveedorServiceImpl implements ProveedorUseCase {
         }
 
         Proveedor proveedorActualizado = proveedorRepositoryPort.save(proveedor);
+        // Los productos en caché por código de barras incluyen su proveedor
+        cacheCodigoBarraService.invalidarTodo();
+        cambioCatalogoRepositoryPort.registrarCambiosPorProveedor(id);
         return mapToResponseDTO(proveedorActualizado);
     }
 
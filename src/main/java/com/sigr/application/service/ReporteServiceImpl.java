@@ -3,8 +3,10 @@ package com.sigr.application.service;
 import com.sigr.application.dto.reporte.*;
 import com.sigr.application.port.in.ReporteUseCase;
 import com.sigr.application.port.out.VentaRepositoryPort;
-import com.sigr.application.port.out.DetalleVentaRepositoryPort;
+import com.sigr.application.port.out.ResumenVentaRepositoryPort;
+import com.sigr.application.port.out.VentaConsultaRepositoryPort;
 import com.sigr.application.port.output.InventarioRepositoryPort;
+import com.sigr.application.port.output.RankingVentasPort;
 import com.sigr.application.port.output.SedeRepositoryPort;
 import com.sigr.application.port.output.UsuarioRepositoryPort;
 import com.sigr.domain.entity.Sede;
@@ -14,16 +16,24 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class ReporteServiceImpl implements ReporteUseCase {
 
+    private static final int LIMITE_TOP_POR_DEFECTO = 10;
+
     private final VentaRepositoryPort ventaRepositoryPort;
     private final InventarioRepositoryPort inventarioRepositoryPort;
-    private final DetalleVentaRepositoryPort detalleVentaRepositoryPort;
+    private final ResumenVentaRepositoryPort resumenVentaRepositoryPort;
+    private final ResumenVentaService resumenVentaService;
+    private final VentaConsultaRepositoryPort ventaConsultaRepositoryPort;
+    private final RankingVentasPort rankingVentasPort;
     private final SedeRepositoryPort sedeRepositoryPort;
     // Eliminado clienteRepositoryPort
     private final UsuarioRepositoryPort usuarioRepositoryPort;
@@ -33,8 +43,16 @@ public class ReporteServiceImpl implements ReporteUseCase {
         Sede sede = sedeRepositoryPort.findById(sedeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Sede no encontrada"));
 
-        Long cantidadVentas = ventaRepositoryPort.countVentasBySedeAndFecha(sedeId, fechaInicio, fechaFin);
-        BigDecimal totalVentas = ventaRepositoryPort.sumTotalVentasBySedeAndFecha(sedeId, fechaInicio, fechaFin);
+        Long cantidadVentas;
+        BigDecimal totalVentas;
+        if (cubreDiasCompletos(fechaInicio, fechaFin)) {
+            var kpi = resumenVentaRepositoryPort.obtenerKpiVentas(sedeId, fechaInicio.toLocalDate(), fechaFin.toLocalDate());
+            cantidadVentas = kpi.getCantidad();
+            totalVentas = kpi.getTotal();
+        } else {
+            cantidadVentas = ventaRepositoryPort.countVentasBySedeAndFecha(sedeId, fechaInicio, fechaFin);
+            totalVentas = ventaRepositoryPort.sumTotalVentasBySedeAndFecha(sedeId, fechaInicio, fechaFin);
+        }
         
         if (totalVentas == null) {
             totalVentas = BigDecimal.ZERO;
@@ -90,8 +108,16 @@ public class ReporteServiceImpl implements ReporteUseCase {
                 .orElseThrow(() -> new ResourceNotFoundException("Sede no encontrada"));
 
         // Obtener datos de ventas
-        Long totalVentas = ventaRepositoryPort.countVentasBySedeAndFecha(sedeId, fechaInicio, fechaFin);
-        BigDecimal valorTotalVentas = ventaRepositoryPort.sumTotalVentasBySedeAndFecha(sedeId, fechaInicio, fechaFin);
+        Long totalVentas;
+        BigDecimal valorTotalVentas;
+        if (cubreDiasCompletos(fechaInicio, fechaFin)) {
+            var kpi = resumenVentaRepositoryPort.obtenerKpiVentas(sedeId, fechaInicio.toLocalDate(), fechaFin.toLocalDate());
+            totalVentas = kpi.getCantidad();
+            valorTotalVentas = kpi.getTotal();
+        } else {
+            totalVentas = ventaRepositoryPort.countVentasBySedeAndFecha(sedeId, fechaInicio, fechaFin);
+            valorTotalVentas = ventaRepositoryPort.sumTotalVentasBySedeAndFecha(sedeId, fechaInicio, fechaFin);
+        }
 
         // Obtener datos de ingresos (asumiendo que hay un repositorio para ingresos)
         Long totalIngresos = 0L; // Implementar cuando esté disponible el repositorio de ingresos
@@ -119,11 +145,20 @@ public class ReporteServiceImpl implements ReporteUseCase {
 
     @Override
     public List<ProductoMasVendidoDTO> obtenerProductosMasVendidos(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long sedeId, Integer limite) {
-        List<ProductoMasVendidoDTO> productos = detalleVentaRepositoryPort.findProductosMasVendidos(fechaInicio, fechaFin, sedeId);
-        if (limite != null && limite > 0 && productos.size() > limite) {
-            return productos.subList(0, limite);
-        }
-        return productos;
+        // El límite se aplica en la consulta: el ranking completo del período no sale de la BD
+        return cubreDiasCompletos(fechaInicio, fechaFin)
+                ? resumenVentaRepositoryPort.findProductosMasVendidos(sedeId, fechaInicio.toLocalDate(), fechaFin.toLocalDate(), limite)
+                : ventaConsultaRepositoryPort.findProductosMasVendidos(sedeId, fechaInicio, fechaFin, limite);
+    }
+
+    @Override
+    public List<ProductoTopVentaDTO> obtenerTopVentasDelDia(Long sedeId, Integer limite) {
+        return rankingVentasPort.findTopDelDia(sedeId, limite != null && limite > 0 ? limite : LIMITE_TOP_POR_DEFECTO);
+    }
+
+    @Override
+    public List<ProductoTopVentaDTO> obtenerTopVentasDelMes(Long sedeId, Integer limite) {
+        return rankingVentasPort.findTopDelMes(sedeId, limite != null && limite > 0 ? limite : LIMITE_TOP_POR_DEFECTO);
     }
 
     @Override
@@ -156,9 +191,27 @@ public class ReporteServiceImpl implements ReporteUseCase {
 
     @Override
     public List<ReporteVentasDTO> generarReporteComparativoSedes(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        return sedeRepositoryPort.findAll().stream()
-                .map(sede -> generarReporteVentas(fechaInicio, fechaFin, sede.getId()))
-                .toList();
+        // Dos consultas en total sin importar la cantidad de sedes: totales agrupados y el primer producto de cada una
+        List<ReporteVentasDTO> reportes;
+        Map<Long, ProductoMasVendidoDTO> productosMasVendidos;
+        if (cubreDiasCompletos(fechaInicio, fechaFin)) {
+            reportes = resumenVentaRepositoryPort.sumarVentasPorSede(fechaInicio.toLocalDate(), fechaFin.toLocalDate());
+            productosMasVendidos = resumenVentaRepositoryPort.findProductoMasVendidoPorSede(
+                    fechaInicio.toLocalDate(), fechaFin.toLocalDate());
+        } else {
+            reportes = ventaConsultaRepositoryPort.sumarVentasPorSede(fechaInicio, fechaFin);
+            productosMasVendidos = ventaConsultaRepositoryPort.findProductoMasVendidoPorSede(fechaInicio, fechaFin);
+        }
+
+        for (ReporteVentasDTO reporte : reportes) {
+            reporte.setFechaInicio(fechaInicio);
+            reporte.setFechaFin(fechaFin);
+            reporte.setPromedioVenta(reporte.getCantidadVentas() > 0
+                    ? reporte.getTotalVentas().divide(BigDecimal.valueOf(reporte.getCantidadVentas()), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO);
+            reporte.setProductoMasVendido(productosMasVendidos.get(reporte.getSedeId()));
+        }
+        return reportes;
     }
 
     // Métodos de reportes de clientes eliminados - no existe entidad Cliente
@@ -185,6 +238,20 @@ public class ReporteServiceImpl implements ReporteUseCase {
         return reporte;
     }
 
+    @Override
+    public int reconstruirResumenesDiarios(LocalDate fechaInicio, LocalDate fechaFin) {
+        return resumenVentaService.reconstruir(fechaInicio, fechaFin);
+    }
+
+    /**
+     * Los resúmenes tienen granularidad diaria: sólo responden rangos que empiezan a medianoche y terminan
+     * al final de un día (o en el futuro). Cualquier otro rango se calcula sobre las ventas.
+     */
+    private boolean cubreDiasCompletos(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        return fechaInicio.toLocalTime().equals(LocalTime.MIDNIGHT)
+                && (!fechaFin.toLocalTime().isBefore(LocalTime.of(23, 59, 59)) || !fechaFin.isBefore(LocalDateTime.now()));
+    }
+
     private ProductoMasVendidoDTO obtenerProductoMasVendido(LocalDateTime fechaInicio, LocalDateTime fechaFin, Long sedeId) {
         List<ProductoMasVendidoDTO> productos = obtenerProductosMasVendidos(fechaInicio, fechaFin, sedeId, 1);
         return productos.isEmpty() ? null : productos.get(0);
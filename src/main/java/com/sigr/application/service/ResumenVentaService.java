@@ -0,0 +1,75 @@
+package com.sigr.application.service;
+
+import com.sigr.application.port.out.ResumenVentaRepositoryPort;
+import com.sigr.domain.exception.ValidationException;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Mantiene los resúmenes diarios de ventas (resumen_venta_diaria y resumen_producto_diario).
+ * Los cambios se aplican dentro de la transacción de la venta o anulación: se confirman o se deshacen con ella,
+ * sin ventana en la que una venta confirmada falte en el resumen ni trabajo pendiente que perder en un reinicio.
+ * El precio es que el upsert bloquea la fila (sede, día) hasta el commit, así que las ventas de una misma sede
+ * se serializan en ese último tramo; por eso {@link #registrarVentas} y {@link #registrarAnulaciones} deben ser
+ * la última sentencia de la transacción. La reconstrucción va día por día en transacciones cortas y sólo espera
+ * (y hace esperar) a las ventas de ese día.
+ */
+@Slf4j
+@Service
+public class ResumenVentaService {
+
+    private final ResumenVentaRepositoryPort resumenVentaRepositoryPort;
+    private final EntityManager entityManager;
+    private final TransactionTemplate nuevaTransaccion;
+
+    public ResumenVentaService(ResumenVentaRepositoryPort resumenVentaRepositoryPort,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager) {
+        this.resumenVentaRepositoryPort = resumenVentaRepositoryPort;
+        this.entityManager = entityManager;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void registrarVentas(Collection<Long> ventaIds) {
+        acumular(List.copyOf(ventaIds), 1);
+    }
+
+    public void registrarAnulaciones(Collection<Long> ventaIds) {
+        acumular(List.copyOf(ventaIds), -1);
+    }
+
+    public int reconstruir(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new ValidationException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        log.info("Rebuilding daily sales summaries from {} to {}", desde, hasta);
+        int filas = 0;
+        for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            LocalDate diaReconstruido = dia;
+            filas += nuevaTransaccion.execute(status -> resumenVentaRepositoryPort.reconstruir(diaReconstruido));
+        }
+        log.info("Rebuilt {} sede-day summary rows", filas);
+        return filas;
+    }
+
+    private void acumular(List<Long> ventaIds, int signo) {
+        if (ventaIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // El acumulado se calcula en SQL sobre venta y detalle_venta: las filas pendientes de JPA deben estar escritas
+            entityManager.flush();
+        }
+        resumenVentaRepositoryPort.acumular(ventaIds, signo);
+    }
+}
\ No newline at end of file
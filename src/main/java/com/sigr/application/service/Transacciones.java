@@ -0,0 +1,37 @@
+package com.sigr.application.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Acciones diferidas hasta el commit de la transacción en curso (o ejecutadas en el acto si no hay ninguna).
+ * Dentro de una transacción corren por orden ascendente y, a igual orden, en el orden en que se registraron.
+ */
+public final class Transacciones {
+
+    // Copias en memoria de los datos confirmados (stock, índice de búsqueda, rankings)
+    public static final int ORDEN_DATOS = 0;
+    // Cachés de resultados: al descartarse, el siguiente cálculo ya ve los datos de ORDEN_DATOS actualizados
+    public static final int ORDEN_CACHES = 100;
+
+    private Transacciones() {
+    }
+
+    public static void alConfirmar(int orden, Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return orden;
+            }
+
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.sigr.application.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigr.application.dto.venta.FormatoExportacion;
+import com.sigr.application.dto.venta.VentaExportFilaDTO;
+import com.sigr.application.port.in.VentaExportUseCase;
+import com.sigr.application.port.out.VentaExportRepositoryPort;
+import com.sigr.application.port.output.SedeRepositoryPort;
+import com.sigr.domain.exception.ResourceNotFoundException;
+import com.sigr.domain.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VentaExportServiceImpl implements VentaExportUseCase {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final String CABECERA_CSV = "venta_id,fecha,sede_id,usuario_id,vehiculo_id,fecha_entrega,total,estado," +
+            "descripcion,detalle_id,producto_id,codigo_barra,producto_nombre,cantidad,precio_unitario";
+
+    private final VentaExportRepositoryPort ventaExportRepositoryPort;
+    private final SedeRepositoryPort sedeRepositoryPort;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void validarExportacion(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new ValidationException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+        if (!sedeRepositoryPort.existsById(sedeId)) {
+            throw new ResourceNotFoundException("Sede no encontrada");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarVentas(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                               FormatoExportacion formato, OutputStream salida) {
+        log.info("Exporting sales of sede {} from {} to {} as {}", sedeId, fechaInicio, fechaFin, formato);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFFER);
+        try {
+            EscritorExportacion escritor = formato == FormatoExportacion.NDJSON
+                    ? new EscritorNdjson(objectMapper.getFactory().createGenerator(writer), writer)
+                    : new EscritorCsv(writer);
+            ventaExportRepositoryPort.recorrerVentasConDetalles(sedeId, fechaInicio, fechaFin, escritor);
+            escritor.terminar();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error escribiendo la exportación de ventas", e);
+        }
+    }
+
+    private interface EscritorExportacion extends Consumer<VentaExportFilaDTO> {
+
+        void terminar() throws IOException;
+    }
+
+    /**
+     * Una línea por detalle con los datos de la venta repetidos, para abrir directamente en hojas de cálculo.
+     */
+    private static class EscritorCsv implements EscritorExportacion {
+
+        private final Writer writer;
+        private boolean primeraFila = true;
+
+        EscritorCsv(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CABECERA_CSV);
+            writer.write('\n');
+        }
+
+        @Override
+        public void accept(VentaExportFilaDTO fila) {
+            try {
+                writer.write(String.join(",",
+                        texto(fila.getVentaId()), texto(fila.getFecha()), texto(fila.getSedeId()),
+                        texto(fila.getUsuarioId()), texto(fila.getVehiculoId()), texto(fila.getFechaEntrega()),
+                        texto(fila.getTotal()), texto(fila.getEstado()), escapar(fila.getDescripcion()),
+                        texto(fila.getDetalleId()), texto(fila.getProductoId()), escapar(fila.getCodigoBarra()),
+                        escapar(fila.getProductoNombre()), texto(fila.getCantidad()), texto(fila.getPrecioUnitario())));
+                writer.write('\n');
+                if (primeraFila) {
+                    // El cliente recibe la cabecera y la primera fila sin esperar a llenar el buffer
+                    writer.flush();
+                    primeraFila = false;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void terminar() {
+        }
+
+        private static String texto(Object valor) {
+            return valor != null ? valor.toString() : "";
+        }
+
+        private static String escapar(String valor) {
+            if (valor == null) {
+                return "";
+            }
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+                return valor;
+            }
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * Un objeto JSON por venta y por línea, con sus detalles anidados. Las filas llegan ordenadas por venta,
+     * así que sólo se mantiene abierta la venta en curso.
+     */
+    private static class EscritorNdjson implements EscritorExportacion {
+
+        private final JsonGenerator generator;
+        private final Writer writer;
+        private Long ventaActual;
+        private boolean primeraVenta = true;
+
+        EscritorNdjson(JsonGenerator generator, Writer writer) {
+            this.generator = generator;
+            this.writer = writer;
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void accept(VentaExportFilaDTO fila) {
+            try {
+                if (!Objects.equals(fila.getVentaId(), ventaActual)) {
+                    cerrarVenta();
+                    abrirVenta(fila);
+                }
+                if (fila.getDetalleId() != null) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("detalleId", fila.getDetalleId());
+                    escribirNumero("productoId", fila.getProductoId());
+                    generator.writeStringField("codigoBarra", fila.getCodigoBarra());
+                    generator.writeStringField("productoNombre", fila.getProductoNombre());
+                    escribirNumero("cantidad", fila.getCantidad());
+                    escribirDecimal("precioUnitario", fila.getPrecioUnitario());
+                    generator.writeEndObject();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void terminar() throws IOException {
+            cerrarVenta();
+            generator.flush();
+        }
+
+        private void abrirVenta(VentaExportFilaDTO fila) throws IOException {
+            ventaActual = fila.getVentaId();
+            generator.writeStartObject();
+            generator.writeNumberField("id", fila.getVentaId());
+            generator.writeStringField("fecha", fila.getFecha() != null ? fila.getFecha().toString() : null);
+            escribirNumero("sedeId", fila.getSedeId());
+            escribirNumero("usuarioId", fila.getUsuarioId());
+            escribirNumero("vehiculoId", fila.getVehiculoId());
+            generator.writeStringField("fechaEntrega", fila.getFechaEntrega() != null ? fila.getFechaEntrega().toString() : null);
+            escribirDecimal("total", fila.getTotal());
+            if (fila.getEstado() != null) {
+                generator.writeBooleanField("estado", fila.getEstado());
+            } else {
+                generator.writeNullField("estado");
+            }
+            generator.writeStringField("descripcion", fila.getDescripcion());
+            generator.writeArrayFieldStart("detalles");
+        }
+
+        private void cerrarVenta() throws IOException {
+            if (ventaActual == null) {
+                return;
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (primeraVenta) {
+                generator.flush();
+                writer.flush();
+                primeraVenta = false;
+            }
+        }
+
+        private void escribirNumero(String campo, Number valor) throws IOException {
+            if (valor != null) {
+                generator.writeNumberField(campo, valor.longValue());
+            } else {
+                generator.writeNullField(campo);
+            }
+        }
+
+        private void escribirDecimal(String campo, BigDecimal valor) throws IOException {
+            if (valor != null) {
+                generator.writeNumberField(campo, valor);
+            } else {
+                generator.writeNullField(campo);
+            }
+        }
+    }
+}
\ No newline at end of file
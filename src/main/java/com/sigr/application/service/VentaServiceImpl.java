@@ -3,13 +3,20 @@ package com.sigr.application.service;
 import com.sigr.application.dto.venta.VentaRequestDTO;
 import com.sigr.application.dto.venta.VentaResponseDTO;
 import com.sigr.application.dto.venta.VentaDescripcionDTO;
+import com.sigr.application.dto.venta.VentaCursorPageDTO;
+import com.sigr.application.dto.venta.VentaBatchResponseDTO;
+import com.sigr.application.dto.venta.AnulacionMasivaResponseDTO;
 import com.sigr.application.dto.venta.DetalleVentaRequestDTO;
 import com.sigr.application.dto.venta.DetalleVentaResponseDTO;
 import com.sigr.application.port.in.VentaUseCase;
 import com.sigr.application.port.out.VentaRepositoryPort;
 import com.sigr.application.port.out.DetalleVentaRepositoryPort;
+import com.sigr.application.port.out.VentaConsultaRepositoryPort;
+import com.sigr.application.port.out.VentaBatchRepositoryPort;
+import com.sigr.application.port.out.VentaAnulacionRepositoryPort;
 import com.sigr.application.port.output.InventarioRepositoryPort;
 import com.sigr.application.port.output.ProductoRepositoryPort;
+import com.sigr.application.port.output.RankingVentasPort;
 import com.sigr.application.port.output.UsuarioRepositoryPort;
 import com.sigr.application.port.output.SedeRepositoryPort;
 import com.sigr.application.port.output.VehiculoRepositoryPort;
@@ -17,23 +24,46 @@ import com.sigr.application.mapper.VehiculoMapper;
 import com.sigr.domain.entity.*;
 import com.sigr.domain.exception.ResourceNotFoundException;
 import com.sigr.domain.exception.BusinessException;
+import com.sigr.domain.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class VentaServiceImpl implements VentaUseCase {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    // Cota superior para la primera página: cualquier venta real tiene (fecha, id) menor
+    private static final LocalDateTime CURSOR_INICIAL_FECHA = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final VentaRepositoryPort ventaRepositoryPort;
     private final DetalleVentaRepositoryPort detalleVentaRepositoryPort;
+    private final VentaConsultaRepositoryPort ventaConsultaRepositoryPort;
+    private final VentaBatchRepositoryPort ventaBatchRepositoryPort;
+    private final VentaAnulacionRepositoryPort ventaAnulacionRepositoryPort;
     private final InventarioRepositoryPort inventarioRepositoryPort;
     private final ProductoRepositoryPort productoRepositoryPort;
     // Eliminado clienteRepositoryPort
@@ -41,11 +71,23 @@ public class VentaServiceImpl implements VentaUseCase {
     private final SedeRepositoryPort sedeRepositoryPort;
     private final VehiculoRepositoryPort vehiculoRepositoryPort;
     private final VehiculoMapper vehiculoMapper;
+    private final IdempotenciaService idempotenciaService;
+    private final ResumenVentaService resumenVentaService;
+    private final KardexService kardexService;
+    private final CacheDashboardService cacheDashboardService;
+    private final RankingVentasPort rankingVentasPort;
+
+    @Override
+    public VentaResponseDTO crearVenta(VentaRequestDTO ventaRequestDTO, String idempotencyKey) {
+        return idempotenciaService.ejecutar("VENTA", idempotencyKey, ventaRequestDTO, VentaResponseDTO.class,
+                () -> crearVenta(ventaRequestDTO));
+    }
 
     @Override
     @Transactional
     public VentaResponseDTO crearVenta(VentaRequestDTO ventaRequestDTO) {
-        System.out.println("=== DEBUG: Iniciando crearVenta ===");
+        log.debug("Creating venta for sede: {} with {} detalles",
+                ventaRequestDTO.getSedeId(), ventaRequestDTO.getDetalles().size());
         // Validar sede
         Sede sede = sedeRepositoryPort.findById(ventaRequestDTO.getSedeId())
                 .orElseThrow(() -> new ResourceNotFoundException("Sede no encontrada"));
@@ -79,39 +121,41 @@ public class VentaServiceImpl implements VentaUseCase {
         venta.setFechaEntrega(ventaRequestDTO.getFechaEntrega());
         venta.setEstado(true);
         
+        // Agrupar cantidades por producto; un mismo producto puede venir en varias líneas
+        Map<Long, Integer> cantidadesPorProducto = new TreeMap<>();
+        for (DetalleVentaRequestDTO detalle : ventaRequestDTO.getDetalles()) {
+            cantidadesPorProducto.merge(detalle.getProductoId(), detalle.getCantidad(), Integer::sum);
+        }
+
+        // Cargar todos los productos del ticket en una sola consulta
+        Map<Long, Producto> productos = productoRepositoryPort.findAllById(cantidadesPorProducto.keySet())
+                .stream()
+                .collect(Collectors.toMap(Producto::getId, Function.identity()));
+        if (productos.size() != cantidadesPorProducto.size()) {
+            throw new ResourceNotFoundException("Producto no encontrado");
+        }
+
+        // Descontar el stock con UPDATE condicionales (cantidad >= solicitado) en un solo lote
+        List<Long> rechazados = inventarioRepositoryPort.descontarStock(
+                ventaRequestDTO.getSedeId(), cantidadesPorProducto);
+        if (!rechazados.isEmpty()) {
+            Long productoId = rechazados.get(0);
+            if (!inventarioRepositoryPort.existsByProductoIdAndSedeId(productoId, ventaRequestDTO.getSedeId())) {
+                throw new ResourceNotFoundException("Producto no disponible en esta sede");
+            }
+            throw new BusinessException("Stock insuficiente para el producto: " + productos.get(productoId).getNombre());
+        }
+
         BigDecimal totalVenta = BigDecimal.ZERO;
 
-        // Procesar detalles de venta
+        // Crear detalles de venta para el cascade
         for (DetalleVentaRequestDTO detalle : ventaRequestDTO.getDetalles()) {
-            Producto producto = productoRepositoryPort.findById(detalle.getProductoId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado"));
-            
-            // Verificar stock disponible
-            Inventario inventario = inventarioRepositoryPort.findByProductoIdAndSedeId(
-                    detalle.getProductoId(), ventaRequestDTO.getSedeId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Producto no disponible en esta sede"));
-            
-            if (inventario.getCantidad() < detalle.getCantidad()) {
-                throw new BusinessException("Stock insuficiente para el producto: " + producto.getNombre());
-            }
-            
-            // Calcular subtotal
             BigDecimal subtotal = detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(detalle.getCantidad()));
             totalVenta = totalVenta.add(subtotal);
-            
-            // Actualizar inventario
-            int cantidadAntes = inventario.getCantidad();
-            inventario.setCantidad(inventario.getCantidad() - detalle.getCantidad());
-            System.out.println("DEBUG: Producto " + detalle.getProductoId() + 
-                " - Stock antes: " + cantidadAntes + 
-                " - Descontando: " + detalle.getCantidad() + 
-                " - Stock después: " + inventario.getCantidad());
-            inventarioRepositoryPort.save(inventario);
-            
-            // Crear detalle de venta para el cascade
+
             DetalleVenta detalleVenta = new DetalleVenta();
             detalleVenta.setVenta(venta);
-            detalleVenta.setProducto(producto);
+            detalleVenta.setProducto(productos.get(detalle.getProductoId()));
             detalleVenta.setCantidad(detalle.getCantidad());
             detalleVenta.setPrecioUnitario(detalle.getPrecioUnitario());
             
@@ -120,8 +164,174 @@ public class VentaServiceImpl implements VentaUseCase {
         
         venta.setTotal(totalVenta);
         Venta ventaGuardada = ventaRepositoryPort.save(venta);
+        log.info("Venta created successfully with id: {}", ventaGuardada.getId());
+        cacheDashboardService.invalidar(List.of(sede.getId()));
+        rankingVentasPort.registrarVenta(ventaGuardada);
+        kardexService.registrar(TipoMovimientoInventario.VENTA, sede.getId(), cantidadesPorProducto, -1,
+                ventaGuardada.getId(), null);
+        VentaResponseDTO response = mapToResponseDTO(ventaGuardada);
+        // Última sentencia antes del commit: la fila (sede, día) del resumen queda bloqueada el menor tiempo posible
+        resumenVentaService.registrarVentas(List.of(ventaGuardada.getId()));
         
-        return mapToResponseDTO(ventaGuardada);
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public VentaBatchResponseDTO crearVentasEnLote(List<VentaRequestDTO> ventasRequest) {
+        log.debug("Creating {} ventas in batch", ventasRequest.size());
+
+        // Precargar referencias de todo el lote
+        Set<Long> productoIds = new HashSet<>();
+        Set<Long> vehiculoIds = new HashSet<>();
+        Map<Long, Set<Long>> productoIdsPorSede = new TreeMap<>();
+        for (VentaRequestDTO request : ventasRequest) {
+            if (request.getVehiculoId() != null) {
+                vehiculoIds.add(request.getVehiculoId());
+            }
+            for (DetalleVentaRequestDTO detalle : request.getDetalles()) {
+                productoIds.add(detalle.getProductoId());
+                productoIdsPorSede.computeIfAbsent(request.getSedeId(), k -> new HashSet<>()).add(detalle.getProductoId());
+            }
+        }
+
+        Map<Long, Producto> productos = productoRepositoryPort.findAllById(productoIds).stream()
+                .collect(Collectors.toMap(Producto::getId, Function.identity()));
+        Map<Long, Vehiculo> vehiculos = vehiculoIds.isEmpty() ? Map.of() : vehiculoRepositoryPort.findAllById(vehiculoIds)
+                .stream()
+                .collect(Collectors.toMap(Vehiculo::getId, Function.identity()));
+        Map<Long, Optional<Sede>> sedes = new HashMap<>();
+        Map<Long, Optional<Usuario>> usuarios = new HashMap<>();
+        Map<Long, Optional<Usuario>> usuarioPorDefectoPorSede = new HashMap<>();
+
+        // Bloquear los inventarios involucrados en el orden global (sede_id, producto_id): sedes ascendentes y, en cada
+        // una, productos ascendentes. Llevar el stock disponible en memoria
+        Map<Long, Map<Long, Integer>> stockPorSede = new HashMap<>();
+        for (Map.Entry<Long, Set<Long>> entry : productoIdsPorSede.entrySet()) {
+            Map<Long, Integer> stock = new HashMap<>();
+            for (Inventario inventario : inventarioRepositoryPort.findByProductoIdsAndSedeIdForUpdate(entry.getValue(), entry.getKey())) {
+                stock.put(inventario.getProducto().getId(), inventario.getCantidad());
+            }
+            stockPorSede.put(entry.getKey(), stock);
+        }
+
+        VentaBatchResponseDTO response = new VentaBatchResponseDTO();
+        List<Venta> ventasAceptadas = new ArrayList<>();
+        List<VentaBatchResponseDTO.ResultadoVentaDTO> resultadosAceptados = new ArrayList<>();
+        Map<Long, Map<Long, Integer>> descuentosPorSede = new TreeMap<>();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        for (int indice = 0; indice < ventasRequest.size(); indice++) {
+            VentaRequestDTO request = ventasRequest.get(indice);
+            try {
+                Sede sede = sedes.computeIfAbsent(request.getSedeId(), sedeRepositoryPort::findById)
+                        .orElseThrow(() -> new ResourceNotFoundException("Sede no encontrada"));
+
+                Usuario usuario;
+                if (request.getUsuarioId() != null) {
+                    usuario = usuarios.computeIfAbsent(request.getUsuarioId(), usuarioRepositoryPort::findById)
+                            .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+                } else {
+                    usuario = usuarioPorDefectoPorSede.computeIfAbsent(request.getSedeId(),
+                                    sedeId -> usuarioRepositoryPort.findActiveBySedeId(sedeId).stream().findFirst())
+                            .orElseThrow(() -> new ResourceNotFoundException("No hay usuarios activos en la sede"));
+                }
+
+                Vehiculo vehiculo = null;
+                if (request.getVehiculoId() != null) {
+                    vehiculo = vehiculos.get(request.getVehiculoId());
+                    if (vehiculo == null) {
+                        throw new ResourceNotFoundException("Vehículo no encontrado");
+                    }
+                }
+
+                Map<Long, Integer> cantidadesPorProducto = new TreeMap<>();
+                for (DetalleVentaRequestDTO detalle : request.getDetalles()) {
+                    cantidadesPorProducto.merge(detalle.getProductoId(), detalle.getCantidad(), Integer::sum);
+                }
+
+                Map<Long, Integer> stock = stockPorSede.get(request.getSedeId());
+                for (Map.Entry<Long, Integer> entry : cantidadesPorProducto.entrySet()) {
+                    Producto producto = productos.get(entry.getKey());
+                    if (producto == null) {
+                        throw new ResourceNotFoundException("Producto no encontrado");
+                    }
+                    Integer disponible = stock.get(entry.getKey());
+                    if (disponible == null) {
+                        throw new ResourceNotFoundException("Producto no disponible en esta sede");
+                    }
+                    if (disponible < entry.getValue()) {
+                        throw new BusinessException("Stock insuficiente para el producto: " + producto.getNombre());
+                    }
+                }
+
+                // La venta es válida: reservar su stock para las siguientes del lote
+                Map<Long, Integer> descuentos = descuentosPorSede.computeIfAbsent(request.getSedeId(), k -> new TreeMap<>());
+                cantidadesPorProducto.forEach((productoId, cantidad) -> {
+                    stock.merge(productoId, -cantidad, Integer::sum);
+                    descuentos.merge(productoId, cantidad, Integer::sum);
+                });
+
+                Venta venta = new Venta();
+                venta.setFecha(ahora);
+                venta.setUsuario(usuario);
+                venta.setSede(sede);
+                venta.setVehiculo(vehiculo);
+                venta.setFechaEntrega(request.getFechaEntrega());
+                venta.setEstado(true);
+
+                BigDecimal totalVenta = BigDecimal.ZERO;
+                for (DetalleVentaRequestDTO detalle : request.getDetalles()) {
+                    totalVenta = totalVenta.add(detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(detalle.getCantidad())));
+
+                    DetalleVenta detalleVenta = new DetalleVenta();
+                    detalleVenta.setVenta(venta);
+                    detalleVenta.setProducto(productos.get(detalle.getProductoId()));
+                    detalleVenta.setCantidad(detalle.getCantidad());
+                    detalleVenta.setPrecioUnitario(detalle.getPrecioUnitario());
+                    venta.getDetalles().add(detalleVenta);
+                }
+                venta.setTotal(totalVenta);
+
+                ventasAceptadas.add(venta);
+                VentaBatchResponseDTO.ResultadoVentaDTO resultado = new VentaBatchResponseDTO.ResultadoVentaDTO(indice, true, null, null);
+                resultadosAceptados.add(resultado);
+                response.getResultados().add(resultado);
+            } catch (BusinessException e) {
+                response.getResultados().add(new VentaBatchResponseDTO.ResultadoVentaDTO(indice, false, null, e.getMessage()));
+            }
+        }
+
+        // Descontar el stock aceptado con un UPDATE por producto y sede; las filas ya están bloqueadas
+        descuentosPorSede.forEach((sedeId, descuentos) -> {
+            if (!inventarioRepositoryPort.descontarStock(sedeId, descuentos).isEmpty()) {
+                throw new BusinessException("No se pudo descontar el stock de la sede " + sedeId);
+            }
+        });
+
+        ventaBatchRepositoryPort.insertarEnLote(ventasAceptadas);
+        for (int i = 0; i < ventasAceptadas.size(); i++) {
+            resultadosAceptados.get(i).setVentaId(ventasAceptadas.get(i).getId());
+        }
+        cacheDashboardService.invalidar(descuentosPorSede.keySet());
+        for (Venta venta : ventasAceptadas) {
+            rankingVentasPort.registrarVenta(venta);
+            Map<Long, Integer> cantidadesPorProducto = new TreeMap<>();
+            for (DetalleVenta detalle : venta.getDetalles()) {
+                cantidadesPorProducto.merge(detalle.getProducto().getId(), detalle.getCantidad(), Integer::sum);
+            }
+            kardexService.registrar(TipoMovimientoInventario.VENTA, venta.getSede().getId(), cantidadesPorProducto, -1,
+                    venta.getId(), null);
+        }
+        // Última sentencia antes del commit: la fila (sede, día) del resumen queda bloqueada el menor tiempo posible
+        resumenVentaService.registrarVentas(ventasAceptadas.stream().map(Venta::getId).toList());
+
+        response.setTotalVentas(ventasRequest.size());
+        response.setVentasCreadas(ventasAceptadas.size());
+        response.setVentasRechazadas(ventasRequest.size() - ventasAceptadas.size());
+        log.info("Batch of {} ventas processed: {} created, {} rejected",
+                ventasRequest.size(), response.getVentasCreadas(), response.getVentasRechazadas());
+        return response;
     }
 
     @Override
@@ -133,32 +343,28 @@ public class VentaServiceImpl implements VentaUseCase {
 
     @Override
     public Page<VentaResponseDTO> obtenerTodasLasVentas(Pageable pageable) {
-        return ventaRepositoryPort.findAll(pageable)
-                .map(this::mapToResponseDTO);
+        return mapToResponseDTOPage(ventaConsultaRepositoryPort.findIds(pageable));
     }
 
     @Override
     public Page<VentaResponseDTO> obtenerVentasPorSede(Long sedeId, Pageable pageable) {
-        return ventaRepositoryPort.findBySedeId(sedeId, pageable)
-                .map(this::mapToResponseDTO);
+        return mapToResponseDTOPage(ventaConsultaRepositoryPort.findIdsBySedeId(sedeId, pageable));
     }
 
     @Override
     public Page<VentaResponseDTO> obtenerVentasPorSedeYFecha(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin, Pageable pageable) {
-        return ventaRepositoryPort.findBySedeIdAndFechaBetween(sedeId, fechaInicio, fechaFin, pageable)
-                .map(this::mapToResponseDTO);
+        return mapToResponseDTOPage(
+                ventaConsultaRepositoryPort.findIdsBySedeIdAndFechaBetween(sedeId, fechaInicio, fechaFin, pageable));
     }
 
     @Override
     public Page<VentaResponseDTO> obtenerVentasPorFecha(LocalDateTime fechaInicio, LocalDateTime fechaFin, Pageable pageable) {
-        return ventaRepositoryPort.findByFechaBetween(fechaInicio, fechaFin, pageable)
-                .map(this::mapToResponseDTO);
+        return mapToResponseDTOPage(ventaConsultaRepositoryPort.findIdsByFechaBetween(fechaInicio, fechaFin, pageable));
     }
 
     @Override
     public Page<VentaResponseDTO> obtenerVentasPorUsuario(Long usuarioId, Pageable pageable) {
-        return ventaRepositoryPort.findByUsuarioId(usuarioId, pageable)
-                .map(this::mapToResponseDTO);
+        return mapToResponseDTOPage(ventaConsultaRepositoryPort.findIdsByUsuarioId(usuarioId, pageable));
     }
 
     // Método eliminado - no existe concepto de cliente en este sistema
@@ -174,18 +380,66 @@ public class VentaServiceImpl implements VentaUseCase {
         }
         
         // Devolver stock al inventario
-        List<DetalleVenta> detalles = detalleVentaRepositoryPort.findByVentaId(id);
-        for (DetalleVenta detalle : detalles) {
-            Inventario inventario = inventarioRepositoryPort.findByProductoIdAndSedeId(
-                    detalle.getProducto().getId(), venta.getSede().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Inventario no encontrado"));
-            
-            inventario.setCantidad(inventario.getCantidad() + detalle.getCantidad());
-            inventarioRepositoryPort.save(inventario);
+        Map<Long, Integer> cantidadesPorProducto = new TreeMap<>();
+        for (DetalleVenta detalle : detalleVentaRepositoryPort.findByVentaId(id)) {
+            cantidadesPorProducto.merge(detalle.getProducto().getId(), detalle.getCantidad(), Integer::sum);
+        }
+        List<Long> sinInventario = inventarioRepositoryPort.incrementarStock(
+                venta.getSede().getId(), cantidadesPorProducto);
+        if (!sinInventario.isEmpty()) {
+            throw new ResourceNotFoundException("Inventario no encontrado");
         }
         
         venta.setEstado(false);
         ventaRepositoryPort.save(venta);
+        cacheDashboardService.invalidar(List.of(venta.getSede().getId()));
+        kardexService.registrar(TipoMovimientoInventario.ANULACION_VENTA, venta.getSede().getId(), cantidadesPorProducto, 1,
+                id, null);
+        // Última sentencia antes del commit, como en crearVenta
+        resumenVentaService.registrarAnulaciones(List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public AnulacionMasivaResponseDTO anularVentas(List<Long> ventaIds) {
+        List<Long> solicitadas = ventaIds.stream().distinct().toList();
+        log.info("Annulling {} sales in bulk", solicitadas.size());
+
+        AnulacionMasivaResponseDTO resumen = new AnulacionMasivaResponseDTO();
+        List<Long> anuladas = ventaAnulacionRepositoryPort.anularVentasActivas(solicitadas);
+        Set<Long> anuladasSet = new HashSet<>(anuladas);
+        resumen.setVentasAnuladas(anuladas.stream().sorted().toList());
+        resumen.setVentasOmitidas(solicitadas.stream().filter(id -> !anuladasSet.contains(id)).toList());
+        if (anuladas.isEmpty()) {
+            return resumen;
+        }
+
+        // Un solo UPDATE por sede con las cantidades ya sumadas de todas las ventas anuladas
+        Map<Long, Map<Long, Integer>> cantidadesPorSede =
+                ventaAnulacionRepositoryPort.sumarCantidadesPorSedeYProducto(anuladas);
+        int totalUnidades = 0;
+        for (Map.Entry<Long, Map<Long, Integer>> sede : cantidadesPorSede.entrySet()) {
+            List<Long> sinInventario = inventarioRepositoryPort.incrementarStockAgrupado(sede.getKey(), sede.getValue());
+            if (!sinInventario.isEmpty()) {
+                throw new ResourceNotFoundException(
+                        "Inventario no encontrado en la sede " + sede.getKey() + " para los productos: " + sinInventario);
+            }
+            for (Map.Entry<Long, Integer> producto : sede.getValue().entrySet()) {
+                resumen.getStockRestaurado().add(new AnulacionMasivaResponseDTO.StockRestauradoDTO(
+                        sede.getKey(), producto.getKey(), producto.getValue()));
+                totalUnidades += producto.getValue();
+            }
+        }
+        resumen.setTotalUnidadesRestauradas(totalUnidades);
+        cacheDashboardService.invalidar(cantidadesPorSede.keySet());
+        // Las cantidades llegan sumadas por sede, así que el movimiento no apunta a una venta concreta
+        cantidadesPorSede.forEach((sedeId, cantidades) -> kardexService.registrar(TipoMovimientoInventario.ANULACION_VENTA,
+                sedeId, cantidades, 1, null, "Anulación masiva de " + anuladas.size() + " ventas"));
+        // Última sentencia antes del commit, como en crearVenta
+        resumenVentaService.registrarAnulaciones(anuladas);
+
+        log.info("Annulled {} sales, restored {} units", anuladas.size(), totalUnidades);
+        return resumen;
     }
 
     @Override
@@ -193,10 +447,8 @@ public class VentaServiceImpl implements VentaUseCase {
         LocalDateTime inicioDelDia = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
         LocalDateTime finDelDia = inicioDelDia.plusDays(1).minusNanos(1);
         
-        return ventaRepositoryPort.findBySedeIdAndFechaBetween(sedeId, inicioDelDia, finDelDia)
-                .stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return mapToResponseDTOs(
+                ventaConsultaRepositoryPort.findIdsBySedeIdAndFechaBetween(sedeId, inicioDelDia, finDelDia));
     }
 
     @Override
@@ -213,6 +465,41 @@ public class VentaServiceImpl implements VentaUseCase {
                 .map(this::mapToResponseDTO);
     }
 
+    @Override
+    public VentaCursorPageDTO obtenerVentasPorSedeCursor(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                         String cursor, int size) {
+        if (fechaInicio != null && fechaFin != null) {
+            return paginarPorCursor(cursor, size, (fecha, id, limite) -> ventaConsultaRepositoryPort
+                    .findIdsBySedeIdAndFechaBetweenAfterCursor(sedeId, fechaInicio, fechaFin, fecha, id, limite));
+        }
+        return paginarPorCursor(cursor, size, (fecha, id, limite) ->
+                ventaConsultaRepositoryPort.findIdsBySedeIdAfterCursor(sedeId, fecha, id, limite));
+    }
+
+    @Override
+    public VentaCursorPageDTO obtenerVentasPorFechaCursor(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                          String cursor, int size) {
+        return paginarPorCursor(cursor, size, (fecha, id, limite) ->
+                ventaConsultaRepositoryPort.findIdsByFechaBetweenAfterCursor(fechaInicio, fechaFin, fecha, id, limite));
+    }
+
+    @Override
+    public VentaCursorPageDTO obtenerVentasPorUsuarioCursor(Long usuarioId, String cursor, int size) {
+        return paginarPorCursor(cursor, size, (fecha, id, limite) ->
+                ventaConsultaRepositoryPort.findIdsByUsuarioIdAfterCursor(usuarioId, fecha, id, limite));
+    }
+
+    @Override
+    public VentaCursorPageDTO obtenerVentasPendientesPorEntregarCursor(Long sedeId, String cursor, int size) {
+        LocalDateTime fechaActual = LocalDateTime.now();
+        if (sedeId != null) {
+            return paginarPorCursor(cursor, size, (fecha, id, limite) -> ventaConsultaRepositoryPort
+                    .findIdsPendientesPorEntregarBySedeIdAfterCursor(sedeId, fechaActual, fecha, id, limite));
+        }
+        return paginarPorCursor(cursor, size, (fecha, id, limite) ->
+                ventaConsultaRepositoryPort.findIdsPendientesPorEntregarAfterCursor(fechaActual, fecha, id, limite));
+    }
+
     @Override
     @Transactional
     public VentaResponseDTO actualizarFechaEntrega(Long id, LocalDateTime nuevaFechaEntrega) {
@@ -241,7 +528,81 @@ public class VentaServiceImpl implements VentaUseCase {
         return mapToResponseDTO(ventaActualizada);
     }
 
+    private record PosicionCursor(LocalDateTime fecha, Long id) {
+    }
+
+    @FunctionalInterface
+    private interface BusquedaPorCursor {
+        List<Long> buscar(LocalDateTime fecha, Long id, int limite);
+    }
+
+    private VentaCursorPageDTO paginarPorCursor(String cursor, int size, BusquedaPorCursor busqueda) {
+        int limite = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+
+        PosicionCursor posicion = cursor == null || cursor.isBlank()
+                ? new PosicionCursor(CURSOR_INICIAL_FECHA, Long.MAX_VALUE)
+                : decodificarCursor(cursor);
+
+        // Se pide un registro extra para saber si existe una página siguiente sin hacer COUNT
+        List<Long> ids = busqueda.buscar(posicion.fecha(), posicion.id(), limite + 1);
+        boolean hasNext = ids.size() > limite;
+        List<VentaResponseDTO> ventas = mapToResponseDTOs(hasNext ? ids.subList(0, limite) : ids);
+
+        String nextCursor = null;
+        if (hasNext && !ventas.isEmpty()) {
+            VentaResponseDTO ultima = ventas.get(ventas.size() - 1);
+            nextCursor = codificarCursor(ultima.getFecha(), ultima.getId());
+        }
+        return new VentaCursorPageDTO(ventas, ventas.size(), nextCursor, hasNext);
+    }
+
+    private String codificarCursor(LocalDateTime fecha, Long id) {
+        String valor = fecha + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PosicionCursor decodificarCursor(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|");
+            if (partes.length != 2) {
+                throw new ValidationException("Cursor inválido");
+            }
+            return new PosicionCursor(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Cursor inválido");
+        }
+    }
+
+    private Page<VentaResponseDTO> mapToResponseDTOPage(Page<Long> ventaIds) {
+        return new PageImpl<>(mapToResponseDTOs(ventaIds.getContent()), ventaIds.getPageable(), ventaIds.getTotalElements());
+    }
+
+    // Carga cabeceras y detalles de todas las ventas en dos consultas, conservando el orden de los ids
+    private List<VentaResponseDTO> mapToResponseDTOs(List<Long> ventaIds) {
+        if (ventaIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Venta> ventas = ventaConsultaRepositoryPort.findAllByIdWithAsociaciones(ventaIds)
+                .stream()
+                .collect(Collectors.toMap(Venta::getId, Function.identity()));
+        Map<Long, List<DetalleVenta>> detallesPorVenta = ventaConsultaRepositoryPort.findDetallesByVentaIds(ventaIds)
+                .stream()
+                .collect(Collectors.groupingBy(detalle -> detalle.getVenta().getId()));
+
+        return ventaIds.stream()
+                .map(ventas::get)
+                .filter(Objects::nonNull)
+                .map(venta -> mapToResponseDTO(venta, detallesPorVenta.getOrDefault(venta.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
     private VentaResponseDTO mapToResponseDTO(Venta venta) {
+        return mapToResponseDTO(venta, detalleVentaRepositoryPort.findByVentaId(venta.getId()));
+    }
+
+    private VentaResponseDTO mapToResponseDTO(Venta venta, List<DetalleVenta> detalles) {
         VentaResponseDTO dto = new VentaResponseDTO();
         dto.setId(venta.getId());
         dto.setFecha(venta.getFecha());
@@ -262,8 +623,6 @@ public class VentaServiceImpl implements VentaUseCase {
         dto.setEstado(venta.getEstado());
         dto.setDescripcion(venta.getDescripcion());
         
-        // Obtener detalles
-        List<DetalleVenta> detalles = detalleVentaRepositoryPort.findByVentaId(venta.getId());
         List<DetalleVentaResponseDTO> detallesDTO = detalles.stream()
                 .map(this::mapDetalleToResponseDTO)
                 .collect(Collectors.toList());
@@ -0,0 +1,33 @@
+package com.sigr.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Último cambio de cada producto del catálogo. Guarda sólo la versión más reciente por producto,
+ * así los terminales piden lo que cambió desde su versión sin recorrer un historial completo.
+ * Los productos eliminados quedan marcados para que los terminales los quiten.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "cambio_catalogo",
+       indexes = @Index(name = "idx_cambio_catalogo_version", columnList = "version"))
+public class CambioCatalogo {
+
+    @Id
+    @Column(name = "producto_id")
+    private Long productoId;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "eliminado", nullable = false)
+    private Boolean eliminado;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+}
\ No newline at end of file
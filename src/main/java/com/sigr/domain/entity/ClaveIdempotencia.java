@@ -0,0 +1,33 @@
+package com.sigr.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "clave_idempotencia",
+       indexes = @Index(name = "idx_clave_idempotencia_fecha", columnList = "fecha"))
+public class ClaveIdempotencia {
+
+    // Operación + clave enviada por el cliente, p. ej. "VENTA:3f2a..."
+    @Id
+    @Column(name = "clave", length = 150)
+    private String clave;
+
+    @Column(name = "operacion", nullable = false, length = 30)
+    private String operacion;
+
+    // SHA-256 del cuerpo de la solicitud original
+    @Column(name = "huella", nullable = false, length = 64)
+    private String huella;
+
+    @Column(name = "respuesta", columnDefinition = "TEXT")
+    private String respuesta;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+}
\ No newline at end of file
@@ -14,7 +14,8 @@ import java.math.BigDecimal;
 public class DetalleIngreso {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalle_ingreso_seq")
+    @SequenceGenerator(name = "detalle_ingreso_seq", sequenceName = "detalle_ingreso_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -10,11 +10,13 @@ import java.math.BigDecimal;
 @Entity
 @Getter
 @Setter
-@Table(name = "detalle_venta")
+@Table(name = "detalle_venta",
+       indexes = @Index(name = "idx_detalle_venta_venta_id", columnList = "venta_id"))
 public class DetalleVenta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalle_venta_seq")
+    @SequenceGenerator(name = "detalle_venta_seq", sequenceName = "detalle_venta_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
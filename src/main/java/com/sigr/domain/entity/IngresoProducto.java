@@ -16,7 +16,8 @@ import java.util.List;
 public class IngresoProducto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingreso_producto_seq")
+    @SequenceGenerator(name = "ingreso_producto_seq", sequenceName = "ingreso_producto_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "fecha", columnDefinition = "TIMESTAMP DEFAULT now()")
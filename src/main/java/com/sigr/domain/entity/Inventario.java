@@ -13,7 +13,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 public class Inventario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventario_seq")
+    @SequenceGenerator(name = "inventario_seq", sequenceName = "inventario_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,4 +30,18 @@ public class Inventario {
     @Column(name = "cantidad", nullable = false)
     private Integer cantidad;
 
+    // Umbral propio de la sede; si es null se usa el del producto
+    @Column(name = "stock_minimo")
+    private Integer stockMinimo;
+
+    public Integer getStockMinimoEfectivo() {
+        if (stockMinimo != null) {
+            return stockMinimo;
+        }
+        if (producto != null && producto.getStockMinimo() != null) {
+            return producto.getStockMinimo();
+        }
+        return Producto.STOCK_MINIMO_POR_DEFECTO;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.sigr.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kardex: cada cambio de cantidad de un inventario, sólo se inserta. La cantidad lleva signo
+ * (negativa en salidas) y la fecha es la del cambio en inventario, no la de escritura del registro.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "movimiento_inventario",
+       indexes = @Index(name = "idx_movimiento_inventario_producto_sede_fecha", columnList = "producto_id, sede_id, fecha"))
+public class MovimientoInventario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimiento_inventario_seq")
+    @SequenceGenerator(name = "movimiento_inventario_seq", sequenceName = "movimiento_inventario_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(name = "sede_id", nullable = false)
+    private Long sedeId;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 30)
+    private TipoMovimientoInventario tipo;
+
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+
+    // Venta, ingreso o inventario que originó el movimiento, según el tipo
+    @Column(name = "referencia_id")
+    private Long referenciaId;
+
+    @Column(name = "motivo")
+    private String motivo;
+}
\ No newline at end of file
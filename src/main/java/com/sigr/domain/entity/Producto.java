@@ -13,6 +13,8 @@ import java.math.BigDecimal;
 @Table(name = "producto")
 public class Producto {
 
+    public static final int STOCK_MINIMO_POR_DEFECTO = 5;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -47,4 +49,8 @@ public class Producto {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Proveedor proveedor;
 
+    // Con esta cantidad o menos el inventario se considera en stock bajo
+    @Column(name = "stock_minimo", columnDefinition = "INTEGER DEFAULT " + STOCK_MINIMO_POR_DEFECTO)
+    private Integer stockMinimo = STOCK_MINIMO_POR_DEFECTO;
+
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.sigr.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Unidades e importe vendidos de cada producto por sede y día, sólo de ventas activas.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "resumen_producto_diario",
+       indexes = @Index(name = "idx_resumen_producto_diario_sede_dia", columnList = "sede_id, dia"))
+public class ResumenProductoDiario {
+
+    @EmbeddedId
+    private ResumenProductoDiarioId id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", insertable = false, updatable = false)
+    private Producto producto;
+
+    @Column(name = "cantidad_vendida", nullable = false)
+    private Long cantidadVendida;
+
+    @Column(name = "total_ventas", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalVentas;
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.sigr.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales de ventas activas (no anuladas) por sede y día. Se mantiene incrementalmente
+ * al confirmar cada venta o anulación y puede reconstruirse desde venta/detalle_venta.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "resumen_venta_diaria",
+       indexes = @Index(name = "idx_resumen_venta_diaria_dia", columnList = "dia"))
+public class ResumenVentaDiaria {
+
+    @EmbeddedId
+    private ResumenVentaDiariaId id;
+
+    @Column(name = "cantidad_ventas", nullable = false)
+    private Long cantidadVentas;
+
+    @Column(name = "total_ventas", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalVentas;
+
+    @Column(name = "unidades_vendidas", nullable = false)
+    private Long unidadesVendidas;
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.sigr.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ResumenVentaDiariaId implements Serializable {
+
+    @Column(name = "sede_id", nullable = false)
+    private Long sedeId;
+
+    @Column(name = "dia", nullable = false)
+    private LocalDate dia;
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.sigr.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Último número reservado de cada serie de códigos de barras generados. Los nodos reservan bloques
+ * de números incrementando esta fila y los reparten en memoria.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "secuencia_codigo_barra")
+public class SecuenciaCodigoBarra {
+
+    // Serie, p. ej. "EAN13-0004" (por categoría) o "PROD-20240115" (códigos internos del día)
+    @Id
+    @Column(name = "clave", length = 30)
+    private String clave;
+
+    @Column(name = "ultimo_valor", nullable = false)
+    private Long ultimoValor;
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.sigr.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Foto periódica de las cantidades de una sede. El stock en una fecha se obtiene de la última foto
+ * anterior más los movimientos del kardex posteriores a ella.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "snapshot_inventario",
+       indexes = @Index(name = "idx_snapshot_inventario_producto_sede_fecha", columnList = "producto_id, sede_id, fecha"))
+public class SnapshotInventario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "snapshot_inventario_seq")
+    @SequenceGenerator(name = "snapshot_inventario_seq", sequenceName = "snapshot_inventario_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(name = "sede_id", nullable = false)
+    private Long sedeId;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+}
\ No newline at end of file
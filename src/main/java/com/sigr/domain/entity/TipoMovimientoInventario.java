@@ -0,0 +1,12 @@
+package com.sigr.domain.entity;
+
+public enum TipoMovimientoInventario {
+    VENTA,
+    ANULACION_VENTA,
+    INGRESO,
+    AJUSTE,
+    ALTA_INVENTARIO,
+    BAJA_INVENTARIO,
+    TRANSFERENCIA_SALIDA,
+    TRANSFERENCIA_ENTRADA
+}
\ No newline at end of file
@@ -13,11 +13,16 @@ import java.util.List;
 @Entity
 @Getter
 @Setter
-@Table(name = "venta")
+@Table(name = "venta", indexes = {
+        @Index(name = "idx_venta_fecha_id", columnList = "fecha, id"),
+        @Index(name = "idx_venta_sede_fecha_id", columnList = "sede_id, fecha, id"),
+        @Index(name = "idx_venta_usuario_fecha_id", columnList = "usuario_id, fecha, id")
+})
 public class Venta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venta_seq")
+    @SequenceGenerator(name = "venta_seq", sequenceName = "venta_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "fecha", columnDefinition = "TIMESTAMP DEFAULT now()")
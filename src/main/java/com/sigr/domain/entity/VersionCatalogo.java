@@ -0,0 +1,25 @@
+package com.sigr.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Fila única con la versión vigente del catálogo. Cada cambio la incrementa dentro de su transacción;
+ * el bloqueo de la fila hace que las versiones se confirmen en orden.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "version_catalogo")
+public class VersionCatalogo {
+
+    public static final int ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
\ No newline at end of file
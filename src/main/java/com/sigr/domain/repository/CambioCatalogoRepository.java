@@ -0,0 +1,13 @@
+package com.sigr.domain.repository;
+
+import com.sigr.domain.entity.CambioCatalogo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CambioCatalogoRepository extends JpaRepository<CambioCatalogo, Long> {
+
+    List<CambioCatalogo> findByVersionGreaterThanAndVersionLessThanEqual(Long desde, Long hasta);
+}
\ No newline at end of file
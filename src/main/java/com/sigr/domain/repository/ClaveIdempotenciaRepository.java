@@ -0,0 +1,32 @@
+package com.sigr.domain.repository;
+
+import com.sigr.domain.entity.ClaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ClaveIdempotenciaRepository extends JpaRepository<ClaveIdempotencia, String> {
+
+    // Si otra transacción ya insertó la clave y no ha terminado, el INSERT espera a que confirme o revierta
+    @Modifying
+    @Query(value = "INSERT INTO clave_idempotencia (clave, operacion, huella, fecha) " +
+                   "VALUES (:clave, :operacion, :huella, :fecha) ON CONFLICT (clave) DO NOTHING",
+           nativeQuery = true)
+    int reservar(@Param("clave") String clave,
+                 @Param("operacion") String operacion,
+                 @Param("huella") String huella,
+                 @Param("fecha") LocalDateTime fecha);
+
+    @Modifying
+    @Query("UPDATE ClaveIdempotencia c SET c.respuesta = :respuesta WHERE c.clave = :clave")
+    int guardarRespuesta(@Param("clave") String clave, @Param("respuesta") String respuesta);
+
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.fecha < :limite")
+    int deleteByFechaBefore(@Param("limite") LocalDateTime limite);
+}
\ No newline at end of file
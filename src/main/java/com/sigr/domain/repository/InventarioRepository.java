@@ -1,14 +1,22 @@
 package com.sigr.domain.repository;
 
 import com.sigr.application.dto.dashboard.DashboardResponseDTO;
+import com.sigr.application.dto.inventario.InventarioResponseDTO;
+import com.sigr.application.dto.inventario.StockDisponibleDTO;
 import com.sigr.application.dto.reporte.ProductoStockBajoDTO;
 import com.sigr.domain.entity.Inventario;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,20 +27,40 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
     
     List<Inventario> findBySedeId(Long sedeId);
     
+    // Bloquea en el orden global (sede_id, producto_id) que siguen todos los FOR UPDATE sobre inventario
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventario i WHERE i.sede.id = :sedeId AND i.producto.id IN :productoIds " +
+           "ORDER BY i.sede.id, i.producto.id")
+    List<Inventario> findByProductoIdInAndSedeIdForUpdate(@Param("productoIds") Collection<Long> productoIds,
+                                                         @Param("sedeId") Long sedeId);
+    
     List<Inventario> findByProductoId(Long productoId);
     
     List<Inventario> findByProductoIdAndCantidadGreaterThan(Long productoId, Integer cantidad);
+
+    @Query("SELECT i FROM Inventario i JOIN FETCH i.sede " +
+           "WHERE i.producto.id IN :productoIds AND i.cantidad > 0 ORDER BY i.producto.id, i.sede.id")
+    List<Inventario> findByProductoIdInConStock(@Param("productoIds") Collection<Long> productoIds);
     
-    @Query("SELECT i FROM Inventario i WHERE i.cantidad <= :cantidad")
-    List<Inventario> findByLowStock(@Param("cantidad") Integer cantidad);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventario i SET i.cantidad = i.cantidad - :cantidad " +
+           "WHERE i.producto.id = :productoId AND i.sede.id = :sedeId AND i.cantidad >= :cantidad")
+    int descontarStock(@Param("productoId") Long productoId,
+                       @Param("sedeId") Long sedeId,
+                       @Param("cantidad") Integer cantidad);
     
-    @Query("SELECT i FROM Inventario i WHERE i.sede.id = :sedeId AND i.cantidad <= :cantidad")
-    List<Inventario> findBySedeIdAndLowStock(@Param("sedeId") Long sedeId, @Param("cantidad") Integer cantidad);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventario i SET i.cantidad = i.cantidad + :cantidad " +
+           "WHERE i.producto.id = :productoId AND i.sede.id = :sedeId")
+    int incrementarStock(@Param("productoId") Long productoId,
+                         @Param("sedeId") Long sedeId,
+                         @Param("cantidad") Integer cantidad);
     
     @Query("SELECT COUNT(i) FROM Inventario i WHERE i.sede.id = :sedeId")
     Integer countBySedeId(@Param("sedeId") Long sedeId);
     
-    @Query("SELECT COUNT(i) FROM Inventario i WHERE i.sede.id = :sedeId AND i.cantidad < 10")
+    @Query("SELECT COUNT(i) FROM Inventario i JOIN i.producto p " +
+           "WHERE i.sede.id = :sedeId AND i.cantidad <= COALESCE(i.stockMinimo, p.stockMinimo)")
     Integer countBySedeIdAndCantidadActualLessThanStockMinimo(@Param("sedeId") Long sedeId);
     
     @Query("SELECT SUM(i.cantidad * p.precioVenta) FROM Inventario i JOIN i.producto p WHERE i.sede.id = :sedeId")
@@ -44,13 +72,13 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
             p.nombre, 
             p.codigoBarra, 
             i.cantidad, 
-            10, 
+            COALESCE(i.stockMinimo, p.stockMinimo), 
             p.precioVenta
         )
         FROM Inventario i 
         JOIN i.producto p 
         WHERE i.sede.id = :sedeId 
-        AND i.cantidad < 10
+        AND i.cantidad <= COALESCE(i.stockMinimo, p.stockMinimo)
         ORDER BY i.cantidad ASC
         """)
     List<ProductoStockBajoDTO> findProductosConStockBajo(@Param("sedeId") Long sedeId);
@@ -64,4 +92,74 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
         WHERE i.sede.id = :sedeId
         """)
     DashboardResponseDTO.KpisDTO.InventarioDTO obtenerKpiInventario(@Param("sedeId") Long sedeId);
+
+    @Query("SELECT new com.sigr.application.dto.inventario.StockDisponibleDTO(i.producto.id, i.sede.id, i.cantidad, " +
+           "COALESCE(i.stockMinimo, p.stockMinimo)) FROM Inventario i JOIN i.producto p")
+    List<StockDisponibleDTO> findAllStock();
+
+    @Query("SELECT new com.sigr.application.dto.inventario.StockDisponibleDTO(i.producto.id, i.sede.id, i.cantidad, " +
+           "COALESCE(i.stockMinimo, p.stockMinimo)) FROM Inventario i JOIN i.producto p WHERE p.id = :productoId")
+    List<StockDisponibleDTO> findStockByProductoId(@Param("productoId") Long productoId);
+
+    // Listados de inventario proyectados directamente al DTO de respuesta: una sola consulta con los joins,
+    // sin hidratar entidades ni disparar las cargas perezosas de producto, categoría y sede por fila
+    String PROYECCION_INVENTARIO_RESPONSE = """
+        SELECT new com.sigr.application.dto.inventario.InventarioResponseDTO(
+            i.id,
+            i.cantidad,
+            COALESCE(i.stockMinimo, p.stockMinimo),
+            p.id,
+            p.codigoBarra,
+            p.nombre,
+            p.descripcion,
+            p.precioCompra,
+            p.precioVenta,
+            c.id,
+            c.nombre,
+            s.id,
+            s.nombre,
+            s.direccion,
+            s.telefono
+        )
+        FROM Inventario i
+        JOIN i.producto p
+        LEFT JOIN p.categoria c
+        JOIN i.sede s
+        """;
+
+    @Query(PROYECCION_INVENTARIO_RESPONSE + "ORDER BY i.id")
+    List<InventarioResponseDTO> listarTodos();
+
+    @Query(value = PROYECCION_INVENTARIO_RESPONSE,
+           countQuery = "SELECT COUNT(i) FROM Inventario i")
+    Page<InventarioResponseDTO> listarTodos(Pageable pageable);
+
+    @Query(PROYECCION_INVENTARIO_RESPONSE + "WHERE s.id = :sedeId ORDER BY p.nombre")
+    List<InventarioResponseDTO> listarPorSede(@Param("sedeId") Long sedeId);
+
+    @Query(value = PROYECCION_INVENTARIO_RESPONSE + "WHERE s.id = :sedeId",
+           countQuery = "SELECT COUNT(i) FROM Inventario i WHERE i.sede.id = :sedeId")
+    Page<InventarioResponseDTO> listarPorSede(@Param("sedeId") Long sedeId, Pageable pageable);
+
+    @Query(PROYECCION_INVENTARIO_RESPONSE + "WHERE p.id = :productoId ORDER BY s.id")
+    List<InventarioResponseDTO> listarPorProducto(@Param("productoId") Long productoId);
+
+    @Query(PROYECCION_INVENTARIO_RESPONSE + "WHERE s.id = :sedeId AND p.id IN :productoIds ORDER BY i.cantidad")
+    List<InventarioResponseDTO> listarPorSedeYProductos(@Param("sedeId") Long sedeId,
+                                                        @Param("productoIds") Collection<Long> productoIds);
+
+    @Query(PROYECCION_INVENTARIO_RESPONSE + "WHERE i.cantidad <= :cantidad ORDER BY s.id, i.cantidad")
+    List<InventarioResponseDTO> listarConCantidadHasta(@Param("cantidad") Integer cantidad);
+
+    @Query(PROYECCION_INVENTARIO_RESPONSE + "WHERE s.id = :sedeId AND i.cantidad <= :cantidad ORDER BY i.cantidad")
+    List<InventarioResponseDTO> listarPorSedeConCantidadHasta(@Param("sedeId") Long sedeId,
+                                                              @Param("cantidad") Integer cantidad);
+
+    @Query(PROYECCION_INVENTARIO_RESPONSE +
+           "WHERE i.cantidad <= COALESCE(i.stockMinimo, p.stockMinimo) ORDER BY s.id, i.cantidad")
+    List<InventarioResponseDTO> listarConStockBajo();
+
+    @Query(PROYECCION_INVENTARIO_RESPONSE +
+           "WHERE s.id = :sedeId AND i.cantidad <= COALESCE(i.stockMinimo, p.stockMinimo) ORDER BY i.cantidad")
+    List<InventarioResponseDTO> listarPorSedeConStockBajo(@Param("sedeId") Long sedeId);
 }
\ No newline at end of file
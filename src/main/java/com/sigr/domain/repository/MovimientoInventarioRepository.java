@@ -0,0 +1,42 @@
+package com.sigr.domain.repository;
+
+import com.sigr.domain.entity.MovimientoInventario;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MovimientoInventarioRepository extends JpaRepository<MovimientoInventario, Long> {
+
+    Page<MovimientoInventario> findByProductoIdAndSedeIdAndFechaBetweenOrderByFechaDescIdDesc(Long productoId,
+                                                                                              Long sedeId,
+                                                                                              LocalDateTime fechaInicio,
+                                                                                              LocalDateTime fechaFin,
+                                                                                              Pageable pageable);
+
+    // Movimientos en (desde, hasta]
+    @Query("""
+        SELECT COALESCE(SUM(m.cantidad), 0L)
+        FROM MovimientoInventario m
+        WHERE m.productoId = :productoId AND m.sedeId = :sedeId
+        AND m.fecha > :desde AND m.fecha <= :hasta
+        """)
+    Long sumCantidadEntre(@Param("productoId") Long productoId,
+                          @Param("sedeId") Long sedeId,
+                          @Param("desde") LocalDateTime desde,
+                          @Param("hasta") LocalDateTime hasta);
+
+    @Query("""
+        SELECT COALESCE(SUM(m.cantidad), 0L)
+        FROM MovimientoInventario m
+        WHERE m.productoId = :productoId AND m.sedeId = :sedeId AND m.fecha > :desde
+        """)
+    Long sumCantidadDespuesDe(@Param("productoId") Long productoId,
+                              @Param("sedeId") Long sedeId,
+                              @Param("desde") LocalDateTime desde);
+}
\ No newline at end of file
@@ -1,36 +1,73 @@
 package com.sigr.domain.repository;
 
+import com.sigr.application.dto.producto.ProductoBusquedaDTO;
 import com.sigr.application.dto.producto.ProductoConStockDTO;
 import com.sigr.domain.entity.Producto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
 
+    @EntityGraph(attributePaths = {"categoria", "marca", "proveedor"})
     Optional<Producto> findByCodigoBarra(String codigoBarra);
 
+    @EntityGraph(attributePaths = {"categoria", "marca", "proveedor"})
+    List<Producto> findByCodigoBarraIn(Collection<String> codigosBarra);
+
     boolean existsByCodigoBarra(String codigoBarra);
 
     List<Producto> findByNombreContainingIgnoreCase(String nombre);
 
+    @Query("SELECT p.codigoBarra FROM Producto p")
+    List<String> findAllCodigosBarra();
+
+    @Query("SELECT new com.sigr.application.dto.producto.ProductoBusquedaDTO(p.id, p.codigoBarra, p.nombre, " +
+           "p.descripcion, p.precioVenta) FROM Producto p")
+    List<ProductoBusquedaDTO> findAllParaBusqueda();
+
     List<Producto> findByCategoriaId(Long categoriaId);
 
+    @EntityGraph(attributePaths = {"categoria", "marca", "proveedor"})
     @Query("SELECT DISTINCT p FROM Producto p JOIN Inventario i ON p.id = i.producto.id WHERE i.sede.id = :sedeId AND i.cantidad > 0")
     List<Producto> findByInventarios_SedeId(@Param("sedeId") Long sedeId);
 
+    // Catálogo con categoría, marca y proveedor en la misma consulta, para listados que los mapean todos
+    @EntityGraph(attributePaths = {"categoria", "marca", "proveedor"})
+    @Query("SELECT p FROM Producto p")
+    List<Producto> findAllConRelaciones();
+
+    @EntityGraph(attributePaths = {"categoria", "marca", "proveedor"})
+    @Query(value = "SELECT p FROM Producto p", countQuery = "SELECT COUNT(p) FROM Producto p")
+    Page<Producto> findAllConRelaciones(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"categoria", "marca", "proveedor"})
+    @Query("SELECT p FROM Producto p WHERE p.id IN :ids")
+    List<Producto> findConRelacionesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"categoria", "marca", "proveedor"})
+    @Query(value = "SELECT p FROM Producto p WHERE EXISTS (" +
+                   "SELECT 1 FROM Inventario i WHERE i.producto = p AND i.sede.id = :sedeId AND i.cantidad > 0)",
+           countQuery = "SELECT COUNT(p) FROM Producto p WHERE EXISTS (" +
+                   "SELECT 1 FROM Inventario i WHERE i.producto = p AND i.sede.id = :sedeId AND i.cantidad > 0)")
+    Page<Producto> findConStockEnSede(@Param("sedeId") Long sedeId, Pageable pageable);
+
     @Query("""
         SELECT new com.sigr.application.dto.producto.ProductoConStockDTO(
             p.id, p.codigoBarra, p.nombre, p.descripcion, p.precioCompra, p.precioVenta,
             c.id, c.nombre,
             i.id, i.cantidad, s.id, s.nombre,
             CASE WHEN i.cantidad > 0 THEN true ELSE false END,
-            CASE WHEN i.cantidad <= 5 THEN true ELSE false END
+            CASE WHEN i.cantidad <= COALESCE(i.stockMinimo, p.stockMinimo) THEN true ELSE false END
         )
         FROM Producto p
         LEFT JOIN p.categoria c
@@ -47,7 +84,7 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
             c.id, c.nombre,
             i.id, i.cantidad, s.id, s.nombre,
             CASE WHEN i.cantidad > 0 THEN true ELSE false END,
-            CASE WHEN i.cantidad <= 5 THEN true ELSE false END
+            CASE WHEN i.cantidad <= COALESCE(i.stockMinimo, p.stockMinimo) THEN true ELSE false END
         )
         FROM Producto p
         LEFT JOIN p.categoria c
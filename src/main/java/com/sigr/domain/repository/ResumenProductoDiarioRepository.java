@@ -0,0 +1,48 @@
+package com.sigr.domain.repository;
+
+import com.sigr.application.dto.dashboard.DashboardResponseDTO;
+import com.sigr.domain.entity.ResumenProductoDiario;
+import com.sigr.domain.entity.ResumenProductoDiarioId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ResumenProductoDiarioRepository extends JpaRepository<ResumenProductoDiario, ResumenProductoDiarioId> {
+
+    @Query("""
+        SELECT new com.sigr.application.dto.dashboard.DashboardResponseDTO$ProductoMasVendidoDTO(
+            p.nombre,
+            SUM(r.cantidadVendida),
+            p.id
+        )
+        FROM ResumenProductoDiario r
+        JOIN r.producto p
+        WHERE r.id.sedeId = :sedeId
+        GROUP BY p.id, p.nombre
+        HAVING SUM(r.cantidadVendida) > 0
+        ORDER BY SUM(r.cantidadVendida) DESC, p.id ASC
+        """)
+    List<DashboardResponseDTO.ProductoMasVendidoDTO> obtenerProductosMasVendidos(@Param("sedeId") Long sedeId,
+                                                                                 Pageable pageable);
+
+    // [productoId, nombre, codigoBarra, cantidad, total]
+    @Query("""
+        SELECT p.id, p.nombre, p.codigoBarra, SUM(r.cantidadVendida), SUM(r.totalVentas)
+        FROM ResumenProductoDiario r
+        JOIN r.producto p
+        WHERE r.id.sedeId = :sedeId AND r.id.dia BETWEEN :desde AND :hasta
+        GROUP BY p.id, p.nombre, p.codigoBarra
+        HAVING SUM(r.cantidadVendida) > 0
+        ORDER BY SUM(r.cantidadVendida) DESC, p.id ASC
+        """)
+    List<Object[]> findProductosMasVendidos(@Param("sedeId") Long sedeId,
+                                            @Param("desde") LocalDate desde,
+                                            @Param("hasta") LocalDate hasta,
+                                            Pageable pageable);
+}
\ No newline at end of file
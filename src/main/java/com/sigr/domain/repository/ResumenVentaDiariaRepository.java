@@ -0,0 +1,60 @@
+package com.sigr.domain.repository;
+
+import com.sigr.application.dto.dashboard.DashboardResponseDTO;
+import com.sigr.domain.entity.ResumenVentaDiaria;
+import com.sigr.domain.entity.ResumenVentaDiariaId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ResumenVentaDiariaRepository extends JpaRepository<ResumenVentaDiaria, ResumenVentaDiariaId> {
+
+    @Query("""
+        SELECT new com.sigr.application.dto.dashboard.DashboardResponseDTO$ProductosVendidosPorSedeDTO(
+            s.id,
+            s.nombre,
+            COALESCE(SUM(r.unidadesVendidas), 0L)
+        )
+        FROM Sede s
+        LEFT JOIN ResumenVentaDiaria r ON r.id.sedeId = s.id AND r.id.dia BETWEEN :desde AND :hasta
+        GROUP BY s.id, s.nombre
+        ORDER BY s.id
+        """)
+    List<DashboardResponseDTO.ProductosVendidosPorSedeDTO> contarProductosVendidosPorSede(@Param("desde") LocalDate desde,
+                                                                                         @Param("hasta") LocalDate hasta);
+
+    @Query("""
+        SELECT COALESCE(SUM(r.unidadesVendidas), 0L)
+        FROM ResumenVentaDiaria r
+        WHERE r.id.sedeId = :sedeId AND r.id.dia BETWEEN :desde AND :hasta
+        """)
+    Long contarProductosVendidos(@Param("sedeId") Long sedeId,
+                                 @Param("desde") LocalDate desde,
+                                 @Param("hasta") LocalDate hasta);
+
+    @Query("""
+        SELECT new com.sigr.application.dto.dashboard.DashboardResponseDTO$KpisDTO$VentaMesDTO(
+            COALESCE(SUM(r.totalVentas), 0),
+            COALESCE(SUM(r.cantidadVentas), 0L)
+        )
+        FROM ResumenVentaDiaria r
+        WHERE r.id.sedeId = :sedeId AND r.id.dia BETWEEN :desde AND :hasta
+        """)
+    DashboardResponseDTO.KpisDTO.VentaMesDTO obtenerKpiVentas(@Param("sedeId") Long sedeId,
+                                                            @Param("desde") LocalDate desde,
+                                                            @Param("hasta") LocalDate hasta);
+
+    // [año, mes, total]
+    @Query("""
+        SELECT YEAR(r.id.dia), MONTH(r.id.dia), SUM(r.totalVentas)
+        FROM ResumenVentaDiaria r
+        WHERE r.id.sedeId = :sedeId AND r.id.dia >= :desde
+        GROUP BY YEAR(r.id.dia), MONTH(r.id.dia)
+        """)
+    List<Object[]> sumarVentasPorMes(@Param("sedeId") Long sedeId, @Param("desde") LocalDate desde);
+}
\ No newline at end of file
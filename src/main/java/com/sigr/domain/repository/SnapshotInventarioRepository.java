@@ -0,0 +1,16 @@
+package com.sigr.domain.repository;
+
+import com.sigr.domain.entity.SnapshotInventario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface SnapshotInventarioRepository extends JpaRepository<SnapshotInventario, Long> {
+
+    Optional<SnapshotInventario> findFirstByProductoIdAndSedeIdAndFechaLessThanEqualOrderByFechaDesc(Long productoId,
+                                                                                                    Long sedeId,
+                                                                                                    LocalDateTime fecha);
+}
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.sigr.domain.repository;
 
+import com.sigr.domain.entity.DetalleVenta;
 import com.sigr.domain.entity.Venta;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -33,4 +37,126 @@ public interface VentaRepository extends JpaRepository<Venta, Long> {
     BigDecimal getTotalVentasBySedeAndFecha(@Param("sedeId") Long sedeId,
                                            @Param("fechaInicio") LocalDateTime fechaInicio,
                                            @Param("fechaFin") LocalDateTime fechaFin);
+    
+    // Listados en dos fases: primero la página de ids, luego cabeceras y detalles por lotes
+    
+    @Query(value = "SELECT v.id FROM Venta v",
+           countQuery = "SELECT COUNT(v) FROM Venta v")
+    Page<Long> findIds(Pageable pageable);
+    
+    @Query(value = "SELECT v.id FROM Venta v WHERE v.sede.id = :sedeId",
+           countQuery = "SELECT COUNT(v) FROM Venta v WHERE v.sede.id = :sedeId")
+    Page<Long> findIdsBySedeId(@Param("sedeId") Long sedeId, Pageable pageable);
+    
+    @Query(value = "SELECT v.id FROM Venta v WHERE v.sede.id = :sedeId AND v.fecha BETWEEN :fechaInicio AND :fechaFin",
+           countQuery = "SELECT COUNT(v) FROM Venta v WHERE v.sede.id = :sedeId AND v.fecha BETWEEN :fechaInicio AND :fechaFin")
+    Page<Long> findIdsBySedeIdAndFechaBetween(@Param("sedeId") Long sedeId,
+                                             @Param("fechaInicio") LocalDateTime fechaInicio,
+                                             @Param("fechaFin") LocalDateTime fechaFin,
+                                             Pageable pageable);
+    
+    @Query("SELECT v.id FROM Venta v WHERE v.sede.id = :sedeId AND v.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY v.fecha ASC, v.id ASC")
+    List<Long> findIdsBySedeIdAndFechaBetween(@Param("sedeId") Long sedeId,
+                                             @Param("fechaInicio") LocalDateTime fechaInicio,
+                                             @Param("fechaFin") LocalDateTime fechaFin);
+    
+    @Query(value = "SELECT v.id FROM Venta v WHERE v.fecha BETWEEN :fechaInicio AND :fechaFin",
+           countQuery = "SELECT COUNT(v) FROM Venta v WHERE v.fecha BETWEEN :fechaInicio AND :fechaFin")
+    Page<Long> findIdsByFechaBetween(@Param("fechaInicio") LocalDateTime fechaInicio,
+                                    @Param("fechaFin") LocalDateTime fechaFin,
+                                    Pageable pageable);
+    
+    @Query(value = "SELECT v.id FROM Venta v WHERE v.usuario.id = :usuarioId",
+           countQuery = "SELECT COUNT(v) FROM Venta v WHERE v.usuario.id = :usuarioId")
+    Page<Long> findIdsByUsuarioId(@Param("usuarioId") Long usuarioId, Pageable pageable);
+    
+    @Query("""
+        SELECT DISTINCT v FROM Venta v
+        LEFT JOIN FETCH v.usuario
+        LEFT JOIN FETCH v.sede
+        LEFT JOIN FETCH v.vehiculo ve
+        LEFT JOIN FETCH ve.marca
+        LEFT JOIN FETCH ve.sede
+        WHERE v.id IN :ids
+        """)
+    List<Venta> findAllByIdWithAsociaciones(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT d FROM DetalleVenta d LEFT JOIN FETCH d.producto WHERE d.venta.id IN :ventaIds ORDER BY d.id ASC")
+    List<DetalleVenta> findDetallesByVentaIds(@Param("ventaIds") Collection<Long> ventaIds);
+    
+    // Paginación por cursor (keyset) sobre (fecha, id) descendente: sin OFFSET ni COUNT
+    
+    @Query(value = """
+        SELECT v.id FROM venta v
+        WHERE v.sede_id = :sedeId AND (v.fecha, v.id) < (:fecha, :id)
+        ORDER BY v.fecha DESC, v.id DESC
+        LIMIT :limite
+        """, nativeQuery = true)
+    List<Long> findIdsBySedeIdAfterCursor(@Param("sedeId") Long sedeId,
+                                         @Param("fecha") LocalDateTime fecha,
+                                         @Param("id") Long id,
+                                         @Param("limite") int limite);
+    
+    @Query(value = """
+        SELECT v.id FROM venta v
+        WHERE v.sede_id = :sedeId AND v.fecha BETWEEN :fechaInicio AND :fechaFin
+        AND (v.fecha, v.id) < (:fecha, :id)
+        ORDER BY v.fecha DESC, v.id DESC
+        LIMIT :limite
+        """, nativeQuery = true)
+    List<Long> findIdsBySedeIdAndFechaBetweenAfterCursor(@Param("sedeId") Long sedeId,
+                                                        @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                        @Param("fechaFin") LocalDateTime fechaFin,
+                                                        @Param("fecha") LocalDateTime fecha,
+                                                        @Param("id") Long id,
+                                                        @Param("limite") int limite);
+    
+    @Query(value = """
+        SELECT v.id FROM venta v
+        WHERE v.fecha BETWEEN :fechaInicio AND :fechaFin
+        AND (v.fecha, v.id) < (:fecha, :id)
+        ORDER BY v.fecha DESC, v.id DESC
+        LIMIT :limite
+        """, nativeQuery = true)
+    List<Long> findIdsByFechaBetweenAfterCursor(@Param("fechaInicio") LocalDateTime fechaInicio,
+                                               @Param("fechaFin") LocalDateTime fechaFin,
+                                               @Param("fecha") LocalDateTime fecha,
+                                               @Param("id") Long id,
+                                               @Param("limite") int limite);
+    
+    @Query(value = """
+        SELECT v.id FROM venta v
+        WHERE v.usuario_id = :usuarioId AND (v.fecha, v.id) < (:fecha, :id)
+        ORDER BY v.fecha DESC, v.id DESC
+        LIMIT :limite
+        """, nativeQuery = true)
+    List<Long> findIdsByUsuarioIdAfterCursor(@Param("usuarioId") Long usuarioId,
+                                            @Param("fecha") LocalDateTime fecha,
+                                            @Param("id") Long id,
+                                            @Param("limite") int limite);
+    
+    @Query(value = """
+        SELECT v.id FROM venta v
+        WHERE v.estado = true AND v.fecha_entrega > :fechaActual
+        AND (v.fecha, v.id) < (:fecha, :id)
+        ORDER BY v.fecha DESC, v.id DESC
+        LIMIT :limite
+        """, nativeQuery = true)
+    List<Long> findIdsPendientesPorEntregarAfterCursor(@Param("fechaActual") LocalDateTime fechaActual,
+                                                      @Param("fecha") LocalDateTime fecha,
+                                                      @Param("id") Long id,
+                                                      @Param("limite") int limite);
+    
+    @Query(value = """
+        SELECT v.id FROM venta v
+        WHERE v.sede_id = :sedeId AND v.estado = true AND v.fecha_entrega > :fechaActual
+        AND (v.fecha, v.id) < (:fecha, :id)
+        ORDER BY v.fecha DESC, v.id DESC
+        LIMIT :limite
+        """, nativeQuery = true)
+    List<Long> findIdsPendientesPorEntregarBySedeIdAfterCursor(@Param("sedeId") Long sedeId,
+                                                              @Param("fechaActual") LocalDateTime fechaActual,
+                                                              @Param("fecha") LocalDateTime fecha,
+                                                              @Param("id") Long id,
+                                                              @Param("limite") int limite);
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.sigr.infrastructure.adapter.input;
+
+import com.sigr.application.dto.inventario.AlertaStockBajoDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Suscripciones server-sent events a los cambios del conjunto de stock bajo. Los envíos se hacen en un
+ * único hilo propio, en el orden en que se publicaron, para no retrasar la transacción que movió el stock.
+ */
+@Slf4j
+@Component
+public class AlertasStockBajoSse {
+
+    private static final Long TODAS_LAS_SEDES = 0L;
+
+    private final Map<Long, Set<SseEmitter>> suscriptoresPorSede = new ConcurrentHashMap<>();
+    private final ExecutorService envios;
+    private final long timeoutMs;
+
+    public AlertasStockBajoSse(@Value("${app.stock-bajo.sse-timeout-ms:1800000}") long timeoutMs,
+                               @Value("${app.stock-bajo.cola-envios:10000}") int capacidadCola) {
+        this.timeoutMs = timeoutMs;
+        this.envios = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(capacidadCola),
+                runnable -> {
+                    Thread hilo = new Thread(runnable, "sse-stock-bajo");
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                (runnable, executor) -> log.warn("Low stock SSE queue full, dropping notification"));
+    }
+
+    /**
+     * Registra un suscriptor y le envía primero el estado actual; a partir de ahí recibe cada cambio.
+     * @param sedeId sede a seguir, o null para todas
+     */
+    public SseEmitter suscribir(Long sedeId, Supplier<List<AlertaStockBajoDTO>> estadoActual) {
+        Long clave = sedeId != null ? sedeId : TODAS_LAS_SEDES;
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Set<SseEmitter> suscriptores = suscriptoresPorSede.computeIfAbsent(clave, k -> ConcurrentHashMap.newKeySet());
+        suscriptores.add(emitter);
+        emitter.onCompletion(() -> suscriptores.remove(emitter));
+        emitter.onTimeout(() -> suscriptores.remove(emitter));
+        emitter.onError(e -> suscriptores.remove(emitter));
+
+        // El estado inicial se calcula en el hilo de envíos: los cambios posteriores le llegan detrás
+        envios.execute(() -> enviar(suscriptores, emitter, SseEmitter.event()
+                .name("estado")
+                .data(estadoActual.get(), MediaType.APPLICATION_JSON)));
+        log.debug("Low stock SSE subscriber added for sede {}", sedeId);
+        return emitter;
+    }
+
+    @EventListener
+    public void alCambiarStockBajo(AlertaStockBajoDTO alerta) {
+        envios.execute(() -> {
+            notificar(suscriptoresPorSede.get(alerta.getSedeId()), alerta);
+            notificar(suscriptoresPorSede.get(TODAS_LAS_SEDES), alerta);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock-bajo.heartbeat-ms:30000}")
+    public void latido() {
+        // Detecta clientes desconectados que no cerraron la conexión
+        envios.execute(() -> suscriptoresPorSede.values().forEach(suscriptores ->
+                suscriptores.forEach(emitter -> enviar(suscriptores, emitter, SseEmitter.event().comment("ping")))));
+    }
+
+    @PreDestroy
+    public void alDetener() {
+        envios.shutdownNow();
+        suscriptoresPorSede.values().forEach(suscriptores -> suscriptores.forEach(SseEmitter::complete));
+    }
+
+    private void notificar(Set<SseEmitter> suscriptores, AlertaStockBajoDTO alerta) {
+        if (suscriptores == null) {
+            return;
+        }
+        for (SseEmitter emitter : suscriptores) {
+            enviar(suscriptores, emitter, SseEmitter.event()
+                    .name(Boolean.TRUE.equals(alerta.getStockBajo()) ? "stock-bajo" : "stock-normal")
+                    .data(alerta, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void enviar(Set<SseEmitter> suscriptores, SseEmitter emitter, SseEmitter.SseEventBuilder evento) {
+        try {
+            emitter.send(evento);
+        } catch (IOException | IllegalStateException e) {
+            suscriptores.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
\ No newline at end of file
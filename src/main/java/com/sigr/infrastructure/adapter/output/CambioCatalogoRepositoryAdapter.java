@@ -0,0 +1,95 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.port.output.CambioCatalogoRepositoryPort;
+import com.sigr.domain.entity.CambioCatalogo;
+import com.sigr.domain.entity.VersionCatalogo;
+import com.sigr.domain.repository.CambioCatalogoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class CambioCatalogoRepositoryAdapter implements CambioCatalogoRepositoryPort {
+
+    // Toma el bloqueo de la fila hasta el fin de la transacción: las versiones se confirman en orden creciente
+    private static final String INCREMENTAR_VERSION_SQL = """
+            INSERT INTO version_catalogo (id, version) VALUES (?, 1)
+            ON CONFLICT (id) DO UPDATE SET version = version_catalogo.version + 1
+            RETURNING version
+            """;
+    private static final String REGISTRAR_CAMBIO_SQL = """
+            INSERT INTO cambio_catalogo (producto_id, version, eliminado, fecha) VALUES (?, ?, ?, ?)
+            ON CONFLICT (producto_id) DO UPDATE
+            SET version = EXCLUDED.version, eliminado = EXCLUDED.eliminado, fecha = EXCLUDED.fecha
+            """;
+    private static final String REGISTRAR_CAMBIOS_POR_REFERENCIA_SQL = """
+            INSERT INTO cambio_catalogo (producto_id, version, eliminado, fecha)
+            SELECT p.id, ?, false, ? FROM producto p WHERE p.%s = ?
+            ON CONFLICT (producto_id) DO UPDATE
+            SET version = EXCLUDED.version, eliminado = EXCLUDED.eliminado, fecha = EXCLUDED.fecha
+            """;
+
+    private final CambioCatalogoRepository cambioCatalogoRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long registrarCambios(Collection<Long> productoIds, boolean eliminados) {
+        if (productoIds.isEmpty()) {
+            return obtenerVersion();
+        }
+        long version = incrementarVersion();
+        Timestamp fecha = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> parametros = new ArrayList<>(productoIds.size());
+        for (Long productoId : productoIds) {
+            parametros.add(new Object[]{productoId, version, eliminados, fecha});
+        }
+        jdbcTemplate.batchUpdate(REGISTRAR_CAMBIO_SQL, parametros);
+        return version;
+    }
+
+    @Override
+    public long registrarCambiosPorCategoria(Long categoriaId) {
+        return registrarCambiosPorReferencia("categoria_id", categoriaId);
+    }
+
+    @Override
+    public long registrarCambiosPorMarca(Long marcaId) {
+        return registrarCambiosPorReferencia("marca_id", marcaId);
+    }
+
+    @Override
+    public long registrarCambiosPorProveedor(Long proveedorId) {
+        return registrarCambiosPorReferencia("proveedor_id", proveedorId);
+    }
+
+    @Override
+    public long obtenerVersion() {
+        List<Long> version = jdbcTemplate.queryForList(
+                "SELECT version FROM version_catalogo WHERE id = ?", Long.class, VersionCatalogo.ID);
+        return version.isEmpty() ? 0 : version.get(0);
+    }
+
+    @Override
+    public List<CambioCatalogo> findCambiosEntre(long desdeExclusive, long hastaInclusive) {
+        return cambioCatalogoRepository.findByVersionGreaterThanAndVersionLessThanEqual(desdeExclusive, hastaInclusive);
+    }
+
+    // La columna sale siempre de las constantes de esta clase, nunca de la entrada del usuario
+    private long registrarCambiosPorReferencia(String columna, Long id) {
+        long version = incrementarVersion();
+        jdbcTemplate.update(REGISTRAR_CAMBIOS_POR_REFERENCIA_SQL.formatted(columna),
+                version, Timestamp.valueOf(LocalDateTime.now()), id);
+        return version;
+    }
+
+    private long incrementarVersion() {
+        return jdbcTemplate.queryForObject(INCREMENTAR_VERSION_SQL, Long.class, VersionCatalogo.ID);
+    }
+}
\ No newline at end of file
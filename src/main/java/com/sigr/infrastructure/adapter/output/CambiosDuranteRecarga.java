@@ -0,0 +1,106 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.service.Transacciones;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Sincroniza una copia en memoria que recibe cambios al confirmar cada transacción con su recarga completa desde la BD.
+ * Mientras una recarga está en curso los cambios se siguen aplicando a la copia vigente y además se anotan; al instalar
+ * la nueva copia se reaplican, en el orden en que llegaron, sólo los de transacciones que el snapshot de la recarga no
+ * llegó a ver. Así ningún cambio se pierde entre la lectura y el reemplazo, ni se cuenta dos veces si ya estaba leído.
+ * <p>
+ * Los cambios deben registrarse desde la transacción que escribe y ser reaplicables: leen los mapas vigentes al correr.
+ */
+class CambiosDuranteRecarga {
+
+    private final InstantaneasTransaccionales instantaneas;
+    // Lectura: aplicar un cambio. Escritura: empezar a anotar e instalar la recarga
+    private final ReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private Queue<CambioPendiente> pendientes;
+    private boolean reaplicando;
+
+    CambiosDuranteRecarga(InstantaneasTransaccionales instantaneas) {
+        this.instantaneas = instantaneas;
+    }
+
+    /**
+     * Aplica el cambio al confirmar la transacción en curso (o en el acto si no hay ninguna).
+     */
+    void alConfirmar(Runnable cambio) {
+        Long txid = instantaneas.txidActual();
+        Transacciones.alConfirmar(Transacciones.ORDEN_DATOS, () -> aplicar(txid, cambio));
+    }
+
+    /**
+     * @param leer     consulta la BD y construye la nueva copia; corre en la transacción de la instantánea
+     * @param instalar reemplaza la copia vigente por la nueva
+     * @param completar corre tras reaplicar los cambios pendientes, aún sin que entren otros
+     */
+    synchronized <T> void recargar(Supplier<T> leer, Consumer<T> instalar, Runnable completar) {
+        bloqueo.writeLock().lock();
+        try {
+            pendientes = new ConcurrentLinkedQueue<>();
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+        try {
+            InstantaneasTransaccionales.Lectura<T> lectura = instantaneas.leer(leer);
+            bloqueo.writeLock().lock();
+            try {
+                instalar.accept(lectura.datos());
+                reaplicando = true;
+                try {
+                    for (CambioPendiente pendiente : pendientes) {
+                        if (!lectura.instantanea().incluye(pendiente.txid())) {
+                            pendiente.cambio().run();
+                        }
+                    }
+                } finally {
+                    reaplicando = false;
+                }
+                completar.run();
+            } finally {
+                bloqueo.writeLock().unlock();
+            }
+        } finally {
+            bloqueo.writeLock().lock();
+            try {
+                pendientes = null;
+            } finally {
+                bloqueo.writeLock().unlock();
+            }
+        }
+    }
+
+    <T> void recargar(Supplier<T> leer, Consumer<T> instalar) {
+        recargar(leer, instalar, () -> { });
+    }
+
+    /**
+     * @return true mientras se reaplican cambios sobre una copia recién instalada (para no repetir sus efectos externos)
+     */
+    boolean reaplicando() {
+        return reaplicando;
+    }
+
+    private void aplicar(Long txid, Runnable cambio) {
+        bloqueo.readLock().lock();
+        try {
+            cambio.run();
+            if (pendientes != null) {
+                pendientes.add(new CambioPendiente(txid, cambio));
+            }
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    private record CambioPendiente(Long txid, Runnable cambio) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.port.output.ClaveIdempotenciaRepositoryPort;
+import com.sigr.domain.entity.ClaveIdempotencia;
+import com.sigr.domain.repository.ClaveIdempotenciaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class ClaveIdempotenciaRepositoryAdapter implements ClaveIdempotenciaRepositoryPort {
+
+    private final ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @Override
+    public boolean reservar(String clave, String operacion, String huella) {
+        return claveIdempotenciaRepository.reservar(clave, operacion, huella, LocalDateTime.now()) > 0;
+    }
+
+    @Override
+    public Optional<ClaveIdempotencia> findById(String clave) {
+        return claveIdempotenciaRepository.findById(clave);
+    }
+
+    @Override
+    public void guardarRespuesta(String clave, String respuesta) {
+        claveIdempotenciaRepository.guardarRespuesta(clave, respuesta);
+    }
+
+    @Override
+    public int deleteByFechaBefore(LocalDateTime limite) {
+        return claveIdempotenciaRepository.deleteByFechaBefore(limite);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.dto.producto.ProductoBusquedaDTO;
+import com.sigr.application.port.output.BusquedaProductoPort;
+import com.sigr.domain.entity.Producto;
+import com.sigr.domain.repository.ProductoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas en memoria sobre nombre, descripción y código de barras de los productos,
+ * para el autocompletado del buscador. Se carga al iniciar, aplica las altas, cambios y bajas de este nodo
+ * al confirmar su transacción y se recarga periódicamente para recoger las hechas desde otros nodos; las que se
+ * confirman mientras la recarga lee la BD se concilian con {@link CambiosDuranteRecarga}.
+ */
+@Slf4j
+@Component
+public class IndiceBusquedaProductos implements BusquedaProductoPort {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    // Primero el código de barras exacto, luego más trigramas en común, nombres que empiezan por el texto y más cortos
+    private static final Comparator<Resultado> RELEVANCIA = Comparator
+            .comparing(Resultado::codigoExacto).reversed()
+            .thenComparing(Comparator.comparingInt(Resultado::coincidencias).reversed())
+            .thenComparing(Comparator.comparing(Resultado::empiezaPorTexto).reversed())
+            .thenComparingInt(resultado -> resultado.entrada().nombre().length())
+            .thenComparing(resultado -> resultado.entrada().producto().getId());
+
+    private final ProductoRepository productoRepository;
+    private final StockEnMemoria stockEnMemoria;
+    private final CambiosDuranteRecarga cambios;
+
+    private volatile Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private volatile Map<String, Set<Long>> indice = new ConcurrentHashMap<>();
+
+    public IndiceBusquedaProductos(ProductoRepository productoRepository, StockEnMemoria stockEnMemoria,
+                                   InstantaneasTransaccionales instantaneas) {
+        this.productoRepository = productoRepository;
+        this.stockEnMemoria = stockEnMemoria;
+        this.cambios = new CambiosDuranteRecarga(instantaneas);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        recargar();
+    }
+
+    @Scheduled(initialDelayString = "${app.busqueda-productos.refresh-ms:300000}",
+               fixedDelayString = "${app.busqueda-productos.refresh-ms:300000}")
+    public void recargar() {
+        long inicio = System.currentTimeMillis();
+        cambios.recargar(() -> construir(productoRepository.findAllParaBusqueda()), copia -> {
+            entradas = copia.entradas();
+            indice = copia.indice();
+        });
+        log.debug("Indexed {} products ({} trigrams) for search in {} ms",
+                entradas.size(), indice.size(), System.currentTimeMillis() - inicio);
+    }
+
+    private static Copia construir(List<ProductoBusquedaDTO> productos) {
+        Copia copia = new Copia(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        for (ProductoBusquedaDTO producto : productos) {
+            Entrada entrada = Entrada.de(producto);
+            copia.entradas().put(producto.getId(), entrada);
+            agregarTrigramas(copia.indice(), entrada);
+        }
+        return copia;
+    }
+
+    @Override
+    public List<ProductoBusquedaDTO> buscar(String texto, Long sedeId, int limite) {
+        String consulta = normalizar(texto);
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        Map<Long, Entrada> entradasActuales = entradas;
+        Map<String, Set<Long>> indiceActual = indice;
+
+        Set<String> trigramas = trigramasConsulta(consulta);
+        Map<Long, Integer> coincidencias = new HashMap<>();
+        for (String trigrama : trigramas) {
+            Set<Long> productoIds = indiceActual.get(trigrama);
+            if (productoIds != null) {
+                for (Long productoId : productoIds) {
+                    coincidencias.merge(productoId, 1, Integer::sum);
+                }
+            }
+        }
+
+        // Las consultas cortas deben coincidir completas; las largas toleran algún error de tipeo
+        int minimo = Math.max(1, trigramas.size() - trigramas.size() / 4);
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, RELEVANCIA.reversed());
+        coincidencias.forEach((productoId, cantidad) -> {
+            Entrada entrada = entradasActuales.get(productoId);
+            if (cantidad < minimo || entrada == null) {
+                return;
+            }
+            Integer stock = null;
+            if (sedeId != null) {
+                // Sin la copia de stock cargada no se puede afirmar que haya existencias
+                stock = stockEnMemoria.puedeResponder(productoId, sedeId)
+                        ? stockEnMemoria.obtenerCantidad(productoId, sedeId) : null;
+                if (stock == null || stock <= 0) {
+                    return;
+                }
+            }
+            mejores.add(new Resultado(entrada, cantidad, consulta.equals(entrada.codigoBarra()),
+                    entrada.nombre().startsWith(consulta), stock));
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        });
+
+        List<Resultado> ordenados = new ArrayList<>(mejores);
+        ordenados.sort(RELEVANCIA);
+        List<ProductoBusquedaDTO> resultado = new ArrayList<>(ordenados.size());
+        for (Resultado encontrado : ordenados) {
+            ProductoBusquedaDTO producto = encontrado.entrada().producto();
+            resultado.add(new ProductoBusquedaDTO(producto.getId(), producto.getCodigoBarra(), producto.getNombre(),
+                    producto.getDescripcion(), producto.getPrecioVenta(), encontrado.stock()));
+        }
+        return resultado;
+    }
+
+    @Override
+    public void indexar(Producto producto) {
+        ProductoBusquedaDTO datos = new ProductoBusquedaDTO(producto.getId(), producto.getCodigoBarra(),
+                producto.getNombre(), producto.getDescripcion(), producto.getPrecioVenta());
+        cambios.alConfirmar(() -> reemplazar(datos.getId(), Entrada.de(datos)));
+    }
+
+    @Override
+    public void eliminar(Long productoId) {
+        cambios.alConfirmar(() -> reemplazar(productoId, null));
+    }
+
+    // Los escritores se serializan entre sí (y CambiosDuranteRecarga, con el cambio de mapas); los lectores no se bloquean
+    private synchronized void reemplazar(Long productoId, Entrada nueva) {
+        Entrada anterior = nueva != null ? entradas.put(productoId, nueva) : entradas.remove(productoId);
+        if (anterior != null) {
+            for (String trigrama : trigramas(anterior.texto())) {
+                indice.computeIfPresent(trigrama, (clave, productoIds) -> {
+                    productoIds.remove(productoId);
+                    return productoIds.isEmpty() ? null : productoIds;
+                });
+            }
+        }
+        if (nueva != null) {
+            agregarTrigramas(indice, nueva);
+        }
+    }
+
+    private static void agregarTrigramas(Map<String, Set<Long>> indice, Entrada entrada) {
+        for (String trigrama : trigramas(entrada.texto())) {
+            indice.computeIfAbsent(trigrama, clave -> ConcurrentHashMap.newKeySet()).add(entrada.producto().getId());
+        }
+    }
+
+    /**
+     * Trigramas de cada palabra rellenada con dos espacios delante y uno detrás, como pg_trgm.
+     */
+    private static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (String palabra : texto.split(" ")) {
+            if (!palabra.isEmpty()) {
+                agregarTrigramasPalabra(trigramas, "  " + palabra + " ");
+            }
+        }
+        return trigramas;
+    }
+
+    // La última palabra puede estar a medio escribir: sin relleno final sólo exige que sea prefijo
+    private static Set<String> trigramasConsulta(String consulta) {
+        String[] palabras = consulta.split(" ");
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (int i = 0; i < palabras.length; i++) {
+            agregarTrigramasPalabra(trigramas, i < palabras.length - 1 ? "  " + palabras[i] + " " : "  " + palabras[i]);
+        }
+        return trigramas;
+    }
+
+    private static void agregarTrigramasPalabra(Set<String> trigramas, String palabraRellenada) {
+        for (int i = 0; i + 3 <= palabraRellenada.length(); i++) {
+            trigramas.add(palabraRellenada.substring(i, i + 3));
+        }
+    }
+
+    private static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(sinAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private record Entrada(ProductoBusquedaDTO producto, String nombre, String codigoBarra, String texto) {
+
+        static Entrada de(ProductoBusquedaDTO producto) {
+            String nombre = normalizar(producto.getNombre());
+            String codigoBarra = normalizar(producto.getCodigoBarra());
+            return new Entrada(producto, nombre, codigoBarra,
+                    nombre + " " + normalizar(producto.getDescripcion()) + " " + codigoBarra);
+        }
+    }
+
+    private record Copia(Map<Long, Entrada> entradas, Map<String, Set<Long>> indice) {
+    }
+
+    private record Resultado(Entrada entrada, int coincidencias, boolean codigoExacto, boolean empiezaPorTexto,
+                             Integer stock) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.sigr.infrastructure.adapter.output;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Ids de transacción y snapshots de PostgreSQL para las copias en memoria que se recargan desde la BD:
+ * permiten saber si el cambio de una transacción ya confirmada entró o no en los datos de una recarga.
+ */
+@Component
+public class InstantaneasTransaccionales {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate lectura;
+
+    public InstantaneasTransaccionales(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lectura.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.lectura.setReadOnly(true);
+    }
+
+    /**
+     * @return el txid de la transacción en curso (se pide una vez por transacción), o null si no hay ninguna
+     */
+    public Long txidActual() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        // Se guarda como sincronización y no como recurso: así una transacción REQUIRES_NEW no hereda el de la externa
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacion instanceof TxidTransaccion registrado) {
+                return registrado.txid();
+            }
+        }
+        Long txid = jdbcTemplate.queryForObject("SELECT txid_current()", Long.class);
+        TransactionSynchronizationManager.registerSynchronization(new TxidTransaccion(txid));
+        return txid;
+    }
+
+    /**
+     * Ejecuta la consulta en una transacción REPEATABLE READ de sólo lectura cuya primera sentencia fija el snapshot,
+     * de modo que los datos devueltos son exactamente los visibles en esa instantánea.
+     */
+    public <T> Lectura<T> leer(Supplier<T> consulta) {
+        return lectura.execute(status -> {
+            String snapshot = jdbcTemplate.queryForObject("SELECT txid_current_snapshot()::text", String.class);
+            return new Lectura<>(Instantanea.parse(snapshot), consulta.get());
+        });
+    }
+
+    public record Lectura<T>(Instantanea instantanea, T datos) {
+    }
+
+    /**
+     * Snapshot de PostgreSQL (xmin:xmax:xip). Una transacción confirmada es visible si empezó antes de xmin,
+     * o antes de xmax y no estaba en curso al tomarlo.
+     */
+    public record Instantanea(long xmin, long xmax, Set<Long> enCurso) {
+
+        public static Instantanea parse(String snapshot) {
+            String[] partes = snapshot.split(":", -1);
+            Set<Long> enCurso = partes[2].isEmpty() ? Set.of()
+                    : Arrays.stream(partes[2].split(",")).map(Long::valueOf).collect(Collectors.toUnmodifiableSet());
+            return new Instantanea(Long.parseLong(partes[0]), Long.parseLong(partes[1]), enCurso);
+        }
+
+        /**
+         * @param txid transacción ya confirmada; null si el cambio se hizo fuera de una transacción, y se da por visible
+         */
+        public boolean incluye(Long txid) {
+            if (txid == null || txid < xmin) {
+                return true;
+            }
+            return txid < xmax && !enCurso.contains(txid);
+        }
+    }
+
+    private record TxidTransaccion(Long txid) implements TransactionSynchronization {
+    }
+}
\ No newline at end of file
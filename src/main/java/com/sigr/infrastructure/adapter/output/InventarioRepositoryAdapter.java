@@ -1,6 +1,10 @@
 package com.sigr.infrastructure.adapter.output;
 
 import com.sigr.application.dto.dashboard.DashboardResponseDTO;
+import com.sigr.application.dto.inventario.AlertaStockBajoDTO;
+import com.sigr.application.dto.inventario.DiferenciaInventarioDTO;
+import com.sigr.application.dto.inventario.InventarioResponseDTO;
+import com.sigr.application.dto.inventario.StockDisponibleDTO;
 import com.sigr.application.dto.reporte.ProductoStockBajoDTO;
 import com.sigr.application.port.output.InventarioRepositoryPort;
 import com.sigr.domain.entity.Inventario;
@@ -8,17 +12,36 @@ import com.sigr.domain.repository.InventarioRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Component
 @RequiredArgsConstructor
 public class InventarioRepositoryAdapter implements InventarioRepositoryPort {
 
+    private static final String DESCONTAR_STOCK_SQL =
+            "UPDATE inventario SET cantidad = cantidad - ? WHERE producto_id = ? AND sede_id = ? AND cantidad >= ?";
+    private static final String INCREMENTAR_STOCK_SQL =
+            "UPDATE inventario SET cantidad = cantidad + ? WHERE producto_id = ? AND sede_id = ?";
+
+    // Filas por sentencia; mantiene los parámetros del VALUES / IN muy por debajo del límite de PostgreSQL
+    private static final int TRAMO_PRODUCTOS = 1000;
+
     private final InventarioRepository inventarioRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final StockEnMemoria stockEnMemoria;
+    private final JdbcSequenceAllocator sequenceAllocator;
 
     @Override
     public List<Inventario> findAll() {
@@ -45,6 +68,11 @@ public class InventarioRepositoryAdapter implements InventarioRepositoryPort {
         return inventarioRepository.findBySedeId(sedeId);
     }
 
+    @Override
+    public List<Inventario> findByProductoIdsAndSedeIdForUpdate(Collection<Long> productoIds, Long sedeId) {
+        return inventarioRepository.findByProductoIdInAndSedeIdForUpdate(productoIds, sedeId);
+    }
+
     @Override
     public List<Inventario> findByProductoId(Long productoId) {
         return inventarioRepository.findByProductoId(productoId);
@@ -56,22 +84,263 @@ public class InventarioRepositoryAdapter implements InventarioRepositoryPort {
     }
 
     @Override
-    public List<Inventario> findByLowStock(Integer cantidad) {
-        return inventarioRepository.findByLowStock(cantidad);
+    public Map<Long, List<Inventario>> findByProductoIdsWithStock(Collection<Long> productoIds) {
+        List<Long> ids = new ArrayList<>(productoIds);
+        Map<Long, List<Inventario>> porProducto = new HashMap<>();
+        // Tramos para no superar el límite de parámetros del IN con catálogos grandes
+        for (int desde = 0; desde < ids.size(); desde += TRAMO_PRODUCTOS) {
+            List<Long> tramo = ids.subList(desde, Math.min(desde + TRAMO_PRODUCTOS, ids.size()));
+            for (Inventario inventario : inventarioRepository.findByProductoIdInConStock(tramo)) {
+                porProducto.computeIfAbsent(inventario.getProducto().getId(), id -> new ArrayList<>()).add(inventario);
+            }
+        }
+        return porProducto;
+    }
+
+    @Override
+    public List<InventarioResponseDTO> listarTodos() {
+        return inventarioRepository.listarTodos();
+    }
+
+    @Override
+    public Page<InventarioResponseDTO> listarTodos(Pageable pageable) {
+        return inventarioRepository.listarTodos(pageable);
     }
 
     @Override
-    public List<Inventario> findBySedeIdAndLowStock(Long sedeId, Integer cantidad) {
-        return inventarioRepository.findBySedeIdAndLowStock(sedeId, cantidad);
+    public List<InventarioResponseDTO> listarPorSede(Long sedeId) {
+        return inventarioRepository.listarPorSede(sedeId);
+    }
+
+    @Override
+    public Page<InventarioResponseDTO> listarPorSede(Long sedeId, Pageable pageable) {
+        return inventarioRepository.listarPorSede(sedeId, pageable);
+    }
+
+    @Override
+    public List<InventarioResponseDTO> listarPorProducto(Long productoId) {
+        return inventarioRepository.listarPorProducto(productoId);
+    }
+
+    @Override
+    public List<InventarioResponseDTO> listarConCantidadHasta(Integer cantidad) {
+        return inventarioRepository.listarConCantidadHasta(cantidad);
+    }
+
+    @Override
+    public List<InventarioResponseDTO> listarPorSedeConCantidadHasta(Long sedeId, Integer cantidad) {
+        return inventarioRepository.listarPorSedeConCantidadHasta(sedeId, cantidad);
     }
 
     @Override
     public Inventario save(Inventario inventario) {
-        return inventarioRepository.save(inventario);
+        Inventario guardado = inventarioRepository.save(inventario);
+        registrarCantidad(guardado);
+        return guardado;
+    }
+
+    @Override
+    public Inventario saveAndFlush(Inventario inventario) {
+        Inventario guardado = inventarioRepository.saveAndFlush(inventario);
+        registrarCantidad(guardado);
+        return guardado;
+    }
+
+    @Override
+    public List<Inventario> saveAll(List<Inventario> inventarios) {
+        List<Inventario> guardados = inventarioRepository.saveAll(inventarios);
+        guardados.forEach(this::registrarCantidad);
+        return guardados;
+    }
+
+    @Override
+    public void crearInventarios(Long sedeId, List<StockDisponibleDTO> stocks) {
+        if (stocks.isEmpty()) {
+            return;
+        }
+        List<Long> ids = sequenceAllocator.reservar("inventario_seq", stocks.size());
+        List<Object[]> parametros = new ArrayList<>(stocks.size());
+        for (int i = 0; i < stocks.size(); i++) {
+            parametros.add(new Object[]{ids.get(i), stocks.get(i).getProductoId(), sedeId, stocks.get(i).getCantidad()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO inventario (id, producto_id, sede_id, cantidad) VALUES (?, ?, ?, ?)", parametros);
+        for (StockDisponibleDTO stock : stocks) {
+            stockEnMemoria.registrarCantidad(stock.getProductoId(), sedeId, stock.getCantidad(), stock.getStockMinimo());
+        }
+    }
+
+    @Override
+    public boolean descontarStock(Long productoId, Long sedeId, Integer cantidad) {
+        boolean descontado = inventarioRepository.descontarStock(productoId, sedeId, cantidad) == 1;
+        if (descontado) {
+            stockEnMemoria.registrarMovimiento(productoId, sedeId, -cantidad);
+        }
+        return descontado;
+    }
+
+    @Override
+    public List<Long> descontarStock(Long sedeId, Map<Long, Integer> cantidadesPorProducto) {
+        List<Long> rechazados = ejecutarLote(DESCONTAR_STOCK_SQL, sedeId, cantidadesPorProducto, true);
+        registrarMovimientos(sedeId, cantidadesPorProducto, rechazados, -1);
+        return rechazados;
+    }
+
+    @Override
+    public List<Long> incrementarStockAgrupado(Long sedeId, Map<Long, Integer> cantidadesPorProducto) {
+        if (cantidadesPorProducto.isEmpty()) {
+            return List.of();
+        }
+        List<Long> productoIds = new ArrayList<>(new TreeMap<>(cantidadesPorProducto).keySet());
+        String marcadores = String.join(", ", Collections.nCopies(productoIds.size(), "?"));
+
+        // Bloqueo previo en el orden global (sede_id, producto_id): el plan del UPDATE ... FROM no garantiza un orden
+        List<Object> parametrosBloqueo = new ArrayList<>(productoIds.size() + 1);
+        parametrosBloqueo.add(sedeId);
+        parametrosBloqueo.addAll(productoIds);
+        jdbcTemplate.queryForList(
+                "SELECT id FROM inventario WHERE sede_id = ? AND producto_id IN (" + marcadores + ") " +
+                "ORDER BY sede_id, producto_id FOR UPDATE",
+                Long.class, parametrosBloqueo.toArray());
+
+        List<Object> parametros = new ArrayList<>(productoIds.size() * 2 + 1);
+        for (Long productoId : productoIds) {
+            parametros.add(productoId);
+            parametros.add(cantidadesPorProducto.get(productoId));
+        }
+        parametros.add(sedeId);
+        List<Long> actualizados = jdbcTemplate.queryForList(
+                "UPDATE inventario i SET cantidad = i.cantidad + v.cantidad " +
+                "FROM (VALUES " + String.join(", ", Collections.nCopies(productoIds.size(), "(CAST(? AS BIGINT), CAST(? AS INTEGER))")) + ") " +
+                "AS v(producto_id, cantidad) " +
+                "WHERE i.producto_id = v.producto_id AND i.sede_id = ? " +
+                "RETURNING i.producto_id",
+                Long.class, parametros.toArray());
+
+        List<Long> sinInventario = new ArrayList<>(productoIds);
+        sinInventario.removeAll(actualizados);
+        registrarMovimientos(sedeId, cantidadesPorProducto, sinInventario, 1);
+        return sinInventario;
+    }
+
+    @Override
+    public List<DiferenciaInventarioDTO> aplicarConteo(Long sedeId, Map<Long, Integer> cantidadesContadas) {
+        List<Long> productoIds = new ArrayList<>(new TreeMap<>(cantidadesContadas).keySet());
+        List<DiferenciaInventarioDTO> resultado = new ArrayList<>(productoIds.size());
+        // Tramos consecutivos en orden de producto: los bloqueos siguen el orden global (sede_id, producto_id)
+        for (int desde = 0; desde < productoIds.size(); desde += TRAMO_PRODUCTOS) {
+            List<Long> tramo = productoIds.subList(desde, Math.min(desde + TRAMO_PRODUCTOS, productoIds.size()));
+
+            List<Object> parametrosBloqueo = new ArrayList<>(tramo.size() + 1);
+            parametrosBloqueo.add(sedeId);
+            parametrosBloqueo.addAll(tramo);
+            Map<Long, Integer> actuales = new TreeMap<>();
+            jdbcTemplate.query(
+                    "SELECT producto_id, cantidad FROM inventario WHERE sede_id = ? AND producto_id IN (" +
+                    String.join(", ", Collections.nCopies(tramo.size(), "?")) + ") ORDER BY sede_id, producto_id FOR UPDATE",
+                    rs -> {
+                        actuales.put(rs.getLong("producto_id"), rs.getInt("cantidad"));
+                    },
+                    parametrosBloqueo.toArray());
+
+            List<Object> parametros = new ArrayList<>();
+            Map<Long, Integer> diferencias = new TreeMap<>();
+            actuales.forEach((productoId, cantidadSistema) -> {
+                Integer cantidadContada = cantidadesContadas.get(productoId);
+                resultado.add(new DiferenciaInventarioDTO(productoId, cantidadSistema, cantidadContada,
+                        cantidadContada - cantidadSistema));
+                if (!cantidadContada.equals(cantidadSistema)) {
+                    parametros.add(productoId);
+                    parametros.add(cantidadContada);
+                    diferencias.put(productoId, cantidadContada - cantidadSistema);
+                }
+            });
+            if (diferencias.isEmpty()) {
+                continue;
+            }
+
+            parametros.add(sedeId);
+            jdbcTemplate.update(
+                    "UPDATE inventario i SET cantidad = v.cantidad " +
+                    "FROM (VALUES " + String.join(", ", Collections.nCopies(diferencias.size(), "(CAST(? AS BIGINT), CAST(? AS INTEGER))")) + ") " +
+                    "AS v(producto_id, cantidad) " +
+                    "WHERE i.producto_id = v.producto_id AND i.sede_id = ?",
+                    parametros.toArray());
+            registrarMovimientos(sedeId, diferencias, List.of(), 1);
+        }
+        return resultado;
+    }
+
+    @Override
+    public boolean incrementarStock(Long productoId, Long sedeId, Integer cantidad) {
+        boolean incrementado = inventarioRepository.incrementarStock(productoId, sedeId, cantidad) == 1;
+        if (incrementado) {
+            stockEnMemoria.registrarMovimiento(productoId, sedeId, cantidad);
+        }
+        return incrementado;
+    }
+
+    @Override
+    public Optional<Integer> findCantidad(Long productoId, Long sedeId) {
+        if (stockEnMemoria.puedeResponder(productoId, sedeId)) {
+            return Optional.ofNullable(stockEnMemoria.obtenerCantidad(productoId, sedeId));
+        }
+        return inventarioRepository.findByProductoIdAndSedeId(productoId, sedeId).map(Inventario::getCantidad);
+    }
+
+    @Override
+    public Optional<StockDisponibleDTO> findStock(Long productoId, Long sedeId) {
+        if (stockEnMemoria.puedeResponder(productoId, sedeId)) {
+            Integer cantidad = stockEnMemoria.obtenerCantidad(productoId, sedeId);
+            return cantidad == null ? Optional.empty() : Optional.of(new StockDisponibleDTO(productoId, sedeId, cantidad,
+                    stockEnMemoria.obtenerStockMinimo(productoId, sedeId)));
+        }
+        return inventarioRepository.findByProductoIdAndSedeId(productoId, sedeId)
+                .map(inventario -> new StockDisponibleDTO(productoId, sedeId, inventario.getCantidad(),
+                        inventario.getStockMinimoEfectivo()));
+    }
+
+    @Override
+    public List<InventarioResponseDTO> listarConStockBajo() {
+        if (!stockEnMemoria.estaCargado()) {
+            return inventarioRepository.listarConStockBajo();
+        }
+        List<InventarioResponseDTO> inventarios = new ArrayList<>();
+        for (Long sedeId : stockEnMemoria.sedesConStockBajo()) {
+            inventarios.addAll(listarPorSedeConStockBajo(sedeId));
+        }
+        return inventarios;
+    }
+
+    @Override
+    public List<InventarioResponseDTO> listarPorSedeConStockBajo(Long sedeId) {
+        if (!stockEnMemoria.estaCargado()) {
+            return inventarioRepository.listarPorSedeConStockBajo(sedeId);
+        }
+        Set<Long> productoIds = stockEnMemoria.productosConStockBajo(sedeId);
+        return productoIds.isEmpty() ? List.of() : inventarioRepository.listarPorSedeYProductos(sedeId, productoIds);
+    }
+
+    @Override
+    public List<AlertaStockBajoDTO> findAlertasStockBajo(Long sedeId) {
+        return stockEnMemoria.alertasStockBajo(sedeId);
+    }
+
+    @Override
+    public void refrescarStockMinimos(Long productoId) {
+        stockEnMemoria.registrarStockMinimos(inventarioRepository.findStockByProductoId(productoId));
+    }
+
+    @Override
+    public List<Long> incrementarStock(Long sedeId, Map<Long, Integer> cantidadesPorProducto) {
+        List<Long> sinInventario = ejecutarLote(INCREMENTAR_STOCK_SQL, sedeId, cantidadesPorProducto, false);
+        registrarMovimientos(sedeId, cantidadesPorProducto, sinInventario, 1);
+        return sinInventario;
     }
 
     @Override
     public void deleteById(Long id) {
+        inventarioRepository.findById(id).ifPresent(inventario ->
+                stockEnMemoria.registrarBaja(inventario.getProducto().getId(), inventario.getSede().getId()));
         inventarioRepository.deleteById(id);
     }
 
@@ -92,6 +361,9 @@ public class InventarioRepositoryAdapter implements InventarioRepositoryPort {
 
     @Override
     public Integer countProductosConStockBajo(Long sedeId) {
+        if (stockEnMemoria.estaCargado()) {
+            return stockEnMemoria.productosConStockBajo(sedeId).size();
+        }
         return inventarioRepository.countBySedeIdAndCantidadActualLessThanStockMinimo(sedeId);
     }
 
@@ -109,4 +381,42 @@ public class InventarioRepositoryAdapter implements InventarioRepositoryPort {
     public DashboardResponseDTO.KpisDTO.InventarioDTO obtenerKpiInventario(Long sedeId) {
         return inventarioRepository.obtenerKpiInventario(sedeId);
     }
+
+    private void registrarCantidad(Inventario inventario) {
+        if (inventario.getProducto() != null && inventario.getSede() != null) {
+            stockEnMemoria.registrarCantidad(inventario.getProducto().getId(), inventario.getSede().getId(),
+                    inventario.getCantidad(), inventario.getStockMinimoEfectivo());
+        }
+    }
+
+    private void registrarMovimientos(Long sedeId, Map<Long, Integer> cantidadesPorProducto,
+                                      Collection<Long> noAplicados, int signo) {
+        cantidadesPorProducto.forEach((productoId, cantidad) -> {
+            if (!noAplicados.contains(productoId)) {
+                stockEnMemoria.registrarMovimiento(productoId, sedeId, signo * cantidad);
+            }
+        });
+    }
+
+    private List<Long> ejecutarLote(String sql, Long sedeId, Map<Long, Integer> cantidadesPorProducto,
+                                    boolean condicional) {
+        // Orden ascendente de producto para que los bloqueos de fila se tomen siempre en el mismo orden
+        List<Long> productoIds = new ArrayList<>(new TreeMap<>(cantidadesPorProducto).keySet());
+        List<Object[]> parametros = new ArrayList<>(productoIds.size());
+        for (Long productoId : productoIds) {
+            Integer cantidad = cantidadesPorProducto.get(productoId);
+            parametros.add(condicional
+                    ? new Object[]{cantidad, productoId, sedeId, cantidad}
+                    : new Object[]{cantidad, productoId, sedeId});
+        }
+
+        int[] filasActualizadas = jdbcTemplate.batchUpdate(sql, parametros);
+        List<Long> rechazados = new ArrayList<>();
+        for (int i = 0; i < filasActualizadas.length; i++) {
+            if (filasActualizadas[i] == 0) {
+                rechazados.add(productoIds.get(i));
+            }
+        }
+        return rechazados;
+    }
 }
\ No newline at end of file
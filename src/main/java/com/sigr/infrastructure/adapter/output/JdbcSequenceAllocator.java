@@ -0,0 +1,77 @@
+package com.sigr.infrastructure.adapter.output;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reserva ids de las secuencias pooled para los INSERT hechos por JDBC, respetando la misma
+ * interpretación que el optimizador pooled de Hibernate: cada nextval v reserva el bloque
+ * (v - incremento + 1 .. v), de modo que ambos caminos nunca generan el mismo id.
+ * Al arrancar comprueba que las secuencias de las tablas migradas con migrar-ids-a-secuencias.sql no
+ * entreguen ids ya usados: si la aplicación arrancó antes que el script, Hibernate las creó desde 1.
+ */
+@Component
+@RequiredArgsConstructor
+public class JdbcSequenceAllocator implements SmartInitializingSingleton {
+
+    // Tablas que migrar-ids-a-secuencias.sql pasa de IDENTITY a secuencia; las mismas que recorre el script
+    private static final List<String> TABLAS_MIGRADAS =
+            List.of("venta", "detalle_venta", "ingreso_producto", "detalle_ingreso", "inventario", "usuario_rol");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Long> incrementos = new ConcurrentHashMap<>();
+
+    public List<Long> reservar(String secuencia, int cantidad) {
+        long incremento = incrementos.computeIfAbsent(secuencia, nombre -> jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = ?", Long.class, nombre));
+
+        List<Long> ids = new ArrayList<>(cantidad);
+        while (ids.size() < cantidad) {
+            long bloques = (cantidad - ids.size() + incremento - 1) / incremento;
+            List<Long> limites = jdbcTemplate.queryForList(
+                    "SELECT nextval(?) FROM generate_series(1, ?)", Long.class, secuencia, bloques);
+            for (Long limite : limites) {
+                // El primer valor de una secuencia nueva da un bloque parcial; se descartan ids no positivos
+                for (long id = Math.max(1, limite - incremento + 1); id <= limite && ids.size() < cantidad; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Corre con todos los singletons creados (ddl-auto ya aplicado) y antes de levantar el servidor web:
+     * si falla, la aplicación no arranca.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> desfasadas = new ArrayList<>();
+        for (String tabla : TABLAS_MIGRADAS) {
+            String secuencia = tabla + "_seq";
+            Map<String, Object> estado = jdbcTemplate.queryForMap(
+                    "SELECT s.last_value, s.is_called, p.increment_by FROM " + secuencia + " s, pg_sequences p " +
+                    "WHERE p.sequencename = ? AND p.schemaname = current_schema()", secuencia);
+            long ultimo = ((Number) estado.get("last_value")).longValue();
+            long incremento = ((Number) estado.get("increment_by")).longValue();
+            long siguiente = Boolean.TRUE.equals(estado.get("is_called")) ? ultimo + incremento : ultimo;
+            // Primer id del próximo bloque pooled; una secuencia recién creada empieza igualmente en 1
+            long primerId = Math.max(1, siguiente - incremento + 1);
+            long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabla, Long.class);
+            if (primerId <= maxId) {
+                desfasadas.add(String.format("%s (próximo id %d, MAX(id) de %s = %d)", secuencia, primerId, tabla, maxId));
+            }
+        }
+        if (!desfasadas.isEmpty()) {
+            throw new IllegalStateException("Secuencias por detrás de los ids existentes; ejecutar " +
+                    "migrar-ids-a-secuencias.sql antes de arrancar: " + String.join(", ", desfasadas));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.port.output.MovimientoInventarioRepositoryPort;
+import com.sigr.domain.entity.MovimientoInventario;
+import com.sigr.domain.entity.SnapshotInventario;
+import com.sigr.domain.repository.MovimientoInventarioRepository;
+import com.sigr.domain.repository.SnapshotInventarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class MovimientoInventarioRepositoryAdapter implements MovimientoInventarioRepositoryPort {
+
+    private static final int TAMANO_LOTE = 500;
+
+    private static final String INSERT_MOVIMIENTO_SQL =
+            "INSERT INTO movimiento_inventario (id, producto_id, sede_id, fecha, tipo, cantidad, referencia_id, motivo) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final MovimientoInventarioRepository movimientoInventarioRepository;
+    private final SnapshotInventarioRepository snapshotInventarioRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcSequenceAllocator sequenceAllocator;
+
+    @Override
+    public void insertarEnLote(List<MovimientoInventario> movimientos) {
+        if (movimientos.isEmpty()) {
+            return;
+        }
+        List<Long> ids = sequenceAllocator.reservar("movimiento_inventario_seq", movimientos.size());
+        for (int i = 0; i < movimientos.size(); i++) {
+            movimientos.get(i).setId(ids.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_MOVIMIENTO_SQL, movimientos, TAMANO_LOTE, (ps, movimiento) -> {
+            ps.setLong(1, movimiento.getId());
+            ps.setLong(2, movimiento.getProductoId());
+            ps.setLong(3, movimiento.getSedeId());
+            ps.setTimestamp(4, Timestamp.valueOf(movimiento.getFecha()));
+            ps.setString(5, movimiento.getTipo().name());
+            ps.setInt(6, movimiento.getCantidad());
+            if (movimiento.getReferenciaId() != null) {
+                ps.setLong(7, movimiento.getReferenciaId());
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+            ps.setString(8, movimiento.getMotivo());
+        });
+    }
+
+    @Override
+    public Page<MovimientoInventario> findByProductoIdAndSedeIdAndFechaBetween(Long productoId, Long sedeId,
+                                                                                LocalDateTime fechaInicio,
+                                                                                LocalDateTime fechaFin,
+                                                                                Pageable pageable) {
+        return movimientoInventarioRepository.findByProductoIdAndSedeIdAndFechaBetweenOrderByFechaDescIdDesc(
+                productoId, sedeId, fechaInicio, fechaFin, pageable);
+    }
+
+    @Override
+    public long sumCantidadEntre(Long productoId, Long sedeId, LocalDateTime desde, LocalDateTime hasta) {
+        return movimientoInventarioRepository.sumCantidadEntre(productoId, sedeId, desde, hasta);
+    }
+
+    @Override
+    public long sumCantidadDespuesDe(Long productoId, Long sedeId, LocalDateTime desde) {
+        return movimientoInventarioRepository.sumCantidadDespuesDe(productoId, sedeId, desde);
+    }
+
+    @Override
+    public int tomarSnapshot(Long sedeId) {
+        // SHARE espera a que terminen las transacciones que ya modificaron inventario y frena las nuevas
+        jdbcTemplate.execute("LOCK TABLE inventario IN SHARE MODE");
+        // Fecha tomada con el bloqueo concedido: lo confirmado mientras se esperaba queda en la foto y sus
+        // movimientos tienen fecha anterior. Mismo reloj que KardexService.registrar, que fecha los movimientos
+        LocalDateTime fecha = LocalDateTime.now();
+        List<Long> ids = sequenceAllocator.reservar("snapshot_inventario_seq",
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventario WHERE sede_id = ?", Integer.class, sedeId));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("""
+                INSERT INTO snapshot_inventario (id, producto_id, sede_id, fecha, cantidad)
+                SELECT (CAST(? AS BIGINT[]))[ROW_NUMBER() OVER (ORDER BY i.producto_id)], i.producto_id, i.sede_id, ?, i.cantidad
+                FROM inventario i
+                WHERE i.sede_id = ?
+                """,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+                    ps.setTimestamp(2, Timestamp.valueOf(fecha));
+                    ps.setLong(3, sedeId);
+                });
+    }
+
+    @Override
+    public Optional<SnapshotInventario> findUltimoSnapshot(Long productoId, Long sedeId, LocalDateTime hasta) {
+        return snapshotInventarioRepository.findFirstByProductoIdAndSedeIdAndFechaLessThanEqualOrderByFechaDesc(
+                productoId, sedeId, hasta);
+    }
+}
\ No newline at end of file
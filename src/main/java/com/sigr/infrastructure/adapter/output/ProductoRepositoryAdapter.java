@@ -7,25 +7,44 @@ import com.sigr.domain.repository.ProductoRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
 public class ProductoRepositoryAdapter implements ProductoRepositoryPort {
 
+    // Filas por sentencia; 9 parámetros por fila quedan muy por debajo del límite de PostgreSQL
+    private static final int FILAS_POR_INSERT = 500;
+    // Ids por consulta IN; acota el tamaño de la sentencia en sincronizaciones con muchos cambios
+    private static final int TRAMO_IDS = 1000;
+
     private final ProductoRepository productoRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public List<Producto> findAll() {
-        return productoRepository.findAll();
+        return productoRepository.findAllConRelaciones();
     }
 
     @Override
     public Page<Producto> findAllPaginated(Pageable pageable) {
-        return productoRepository.findAll(pageable);
+        return productoRepository.findAllConRelaciones(pageable);
+    }
+
+    @Override
+    public Page<Producto> findBySedeIdPaginated(Long sedeId, Pageable pageable) {
+        return productoRepository.findConStockEnSede(sedeId, pageable);
     }
 
     @Override
@@ -33,11 +52,32 @@ public class ProductoRepositoryAdapter implements ProductoRepositoryPort {
         return productoRepository.findById(id);
     }
 
+    @Override
+    public List<Producto> findAllById(Collection<Long> ids) {
+        return productoRepository.findAllById(ids);
+    }
+
+    @Override
+    public List<Producto> findConRelacionesByIds(Collection<Long> ids) {
+        List<Producto> productos = new ArrayList<>(ids.size());
+        List<Long> pendientes = new ArrayList<>(ids);
+        for (int desde = 0; desde < pendientes.size(); desde += TRAMO_IDS) {
+            productos.addAll(productoRepository.findConRelacionesByIdIn(
+                    pendientes.subList(desde, Math.min(desde + TRAMO_IDS, pendientes.size()))));
+        }
+        return productos;
+    }
+
     @Override
     public Optional<Producto> findByCodigoBarra(String codigoBarra) {
         return productoRepository.findByCodigoBarra(codigoBarra);
     }
 
+    @Override
+    public List<Producto> findByCodigosBarra(Collection<String> codigosBarra) {
+        return productoRepository.findByCodigoBarraIn(codigosBarra);
+    }
+
     @Override
     public List<Producto> findByNombreContaining(String nombre) {
         return productoRepository.findByNombreContainingIgnoreCase(nombre);
@@ -58,6 +98,43 @@ public class ProductoRepositoryAdapter implements ProductoRepositoryPort {
         return productoRepository.save(producto);
     }
 
+    @Override
+    public void insertarLote(List<Producto> productos) {
+        for (int desde = 0; desde < productos.size(); desde += FILAS_POR_INSERT) {
+            List<Producto> tramo = productos.subList(desde, Math.min(desde + FILAS_POR_INSERT, productos.size()));
+            List<Object> parametros = new ArrayList<>(tramo.size() * 9);
+            Map<String, Producto> porCodigo = new HashMap<>(tramo.size() * 2);
+            for (Producto producto : tramo) {
+                parametros.add(producto.getCodigoBarra());
+                parametros.add(producto.getNombre());
+                parametros.add(producto.getDescripcion());
+                parametros.add(producto.getPrecioCompra());
+                parametros.add(producto.getPrecioVenta());
+                parametros.add(producto.getCategoria() != null ? producto.getCategoria().getId() : null);
+                parametros.add(producto.getMarca() != null ? producto.getMarca().getId() : null);
+                parametros.add(producto.getProveedor() != null ? producto.getProveedor().getId() : null);
+                parametros.add(producto.getStockMinimo());
+                porCodigo.put(producto.getCodigoBarra(), producto);
+            }
+            // RETURNING no garantiza el orden de VALUES: los ids se asignan por código de barras
+            jdbcTemplate.query(
+                    "INSERT INTO producto (codigo_barra, nombre, descripcion, precio_compra, precio_venta, " +
+                    "categoria_id, marca_id, proveedor_id, stock_minimo) VALUES " +
+                    String.join(", ", Collections.nCopies(tramo.size(),
+                            "(?, ?, CAST(? AS TEXT), ?, ?, CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), ?)")) +
+                    " RETURNING id, codigo_barra",
+                    rs -> {
+                        porCodigo.get(rs.getString("codigo_barra")).setId(rs.getLong("id"));
+                    },
+                    parametros.toArray());
+        }
+    }
+
+    @Override
+    public Set<String> findAllCodigosBarra() {
+        return new HashSet<>(productoRepository.findAllCodigosBarra());
+    }
+
     @Override
     public void deleteById(Long id) {
         productoRepository.deleteById(id);
@@ -0,0 +1,170 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.dto.reporte.ProductoTopVentaDTO;
+import com.sigr.application.port.output.RankingVentasPort;
+import com.sigr.domain.entity.DetalleVenta;
+import com.sigr.domain.entity.Venta;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Productos más vendidos de cada sede en el día y el mes en curso, con el algoritmo Space-Saving: cada ranking
+ * sigue como máximo {@code capacidad} productos, así que registrar una venta y leer el top no dependen de cuántos
+ * productos se vendieron. Las cantidades pueden sobrestimarse como mucho en el error informado de cada producto.
+ * <p>
+ * Se carga desde los resúmenes diarios al iniciar, suma las ventas de este nodo al confirmar su transacción y se
+ * recarga periódicamente para recoger las de otros nodos y descontar las anulaciones, que no se restan en vivo.
+ * Las ventas que se confirman mientras la recarga lee los resúmenes se concilian con {@link CambiosDuranteRecarga}.
+ */
+@Slf4j
+@Component
+public class RankingVentasEnMemoria implements RankingVentasPort {
+
+    // Los "capacidad" primeros de cada sede por unidades vendidas en el rango de días
+    private static final String TOP_POR_SEDE_SQL = """
+            SELECT x.sede_id, p.id, p.nombre, p.codigo_barra, x.cantidad
+            FROM (SELECT r.sede_id, r.producto_id, SUM(r.cantidad_vendida) AS cantidad,
+                         ROW_NUMBER() OVER (PARTITION BY r.sede_id
+                                            ORDER BY SUM(r.cantidad_vendida) DESC, r.producto_id) AS puesto
+                  FROM resumen_producto_diario r
+                  WHERE r.dia BETWEEN ? AND ?
+                  GROUP BY r.sede_id, r.producto_id
+                  HAVING SUM(r.cantidad_vendida) > 0) x
+            JOIN producto p ON p.id = x.producto_id
+            WHERE x.puesto <= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacidad;
+    private final CambiosDuranteRecarga cambios;
+
+    private volatile Map<Long, RankingSede> rankings = new ConcurrentHashMap<>();
+
+    public RankingVentasEnMemoria(JdbcTemplate jdbcTemplate, InstantaneasTransaccionales instantaneas,
+                                  @Value("${app.top-ventas.capacidad:100}") int capacidad) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacidad = capacidad;
+        this.cambios = new CambiosDuranteRecarga(instantaneas);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        recargar();
+    }
+
+    @Scheduled(initialDelayString = "${app.top-ventas.refresh-ms:300000}",
+               fixedDelayString = "${app.top-ventas.refresh-ms:300000}")
+    public void recargar() {
+        long inicio = System.currentTimeMillis();
+        cambios.recargar(() -> construir(LocalDate.now()), nuevos -> rankings = nuevos);
+        log.debug("Loaded best seller rankings for {} sedes in {} ms", rankings.size(), System.currentTimeMillis() - inicio);
+    }
+
+    @Override
+    public void registrarVenta(Venta venta) {
+        Long sedeId = venta.getSede().getId();
+        LocalDate dia = venta.getFecha() != null ? venta.getFecha().toLocalDate() : LocalDate.now();
+        // Se copian ahora: al confirmar la venta ya no hay sesión abierta para recorrer sus asociaciones
+        List<Vendido> vendidos = new ArrayList<>(venta.getDetalles().size());
+        for (DetalleVenta detalle : venta.getDetalles()) {
+            vendidos.add(new Vendido(detalle.getProducto().getId(), detalle.getProducto().getNombre(),
+                    detalle.getProducto().getCodigoBarra(), detalle.getCantidad()));
+        }
+        cambios.alConfirmar(() -> rankings.computeIfAbsent(sedeId, clave -> new RankingSede(LocalDate.now(),
+                new SpaceSaving(capacidad), new SpaceSaving(capacidad))).registrar(dia, vendidos));
+    }
+
+    @Override
+    public List<ProductoTopVentaDTO> findTopDelDia(Long sedeId, int limite) {
+        RankingSede ranking = rankings.get(sedeId);
+        return ranking != null ? ranking.top(LocalDate.now(), false, limite) : List.of();
+    }
+
+    @Override
+    public List<ProductoTopVentaDTO> findTopDelMes(Long sedeId, int limite) {
+        RankingSede ranking = rankings.get(sedeId);
+        return ranking != null ? ranking.top(LocalDate.now(), true, limite) : List.of();
+    }
+
+    private Map<Long, RankingSede> construir(LocalDate hoy) {
+        Map<Long, SpaceSaving> delDia = cargar(hoy, hoy);
+        Map<Long, SpaceSaving> delMes = cargar(hoy.withDayOfMonth(1), hoy);
+
+        Map<Long, RankingSede> nuevos = new ConcurrentHashMap<>();
+        delMes.forEach((sedeId, ranking) -> nuevos.put(sedeId, new RankingSede(hoy,
+                delDia.getOrDefault(sedeId, new SpaceSaving(capacidad)), ranking)));
+        return nuevos;
+    }
+
+    private Map<Long, SpaceSaving> cargar(LocalDate desde, LocalDate hasta) {
+        Map<Long, SpaceSaving> porSede = new HashMap<>();
+        jdbcTemplate.query(TOP_POR_SEDE_SQL, rs -> {
+            porSede.computeIfAbsent(rs.getLong(1), sedeId -> new SpaceSaving(capacidad))
+                    .sumar(rs.getLong(2), rs.getString(3), rs.getString(4), rs.getLong(5));
+        }, Date.valueOf(desde), Date.valueOf(hasta), capacidad);
+        return porSede;
+    }
+
+    /**
+     * Rankings del día y del mes de una sede; al cambiar de día (o de mes) el ranking correspondiente empieza vacío.
+     */
+    private final class RankingSede {
+
+        private LocalDate dia;
+        private SpaceSaving delDia;
+        private SpaceSaving delMes;
+
+        RankingSede(LocalDate dia, SpaceSaving delDia, SpaceSaving delMes) {
+            this.dia = dia;
+            this.delDia = delDia;
+            this.delMes = delMes;
+        }
+
+        synchronized void registrar(LocalDate fecha, List<Vendido> vendidos) {
+            avanzarHasta(fecha);
+            boolean esHoy = fecha.equals(dia);
+            boolean esEsteMes = YearMonth.from(fecha).equals(YearMonth.from(dia));
+            for (Vendido vendido : vendidos) {
+                if (esHoy) {
+                    delDia.sumar(vendido.productoId(), vendido.nombre(), vendido.codigoBarra(), vendido.cantidad());
+                }
+                if (esEsteMes) {
+                    delMes.sumar(vendido.productoId(), vendido.nombre(), vendido.codigoBarra(), vendido.cantidad());
+                }
+            }
+        }
+
+        synchronized List<ProductoTopVentaDTO> top(LocalDate hoy, boolean delMesEnCurso, int limite) {
+            avanzarHasta(hoy);
+            return (delMesEnCurso ? delMes : delDia).top(limite);
+        }
+
+        private void avanzarHasta(LocalDate fecha) {
+            if (!fecha.isAfter(dia)) {
+                return;
+            }
+            if (!YearMonth.from(fecha).equals(YearMonth.from(dia))) {
+                delMes = new SpaceSaving(capacidad);
+            }
+            delDia = new SpaceSaving(capacidad);
+            dia = fecha;
+        }
+    }
+
+    private record Vendido(Long productoId, String nombre, String codigoBarra, int cantidad) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,213 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.dto.dashboard.DashboardResponseDTO;
+import com.sigr.application.dto.reporte.ProductoMasVendidoDTO;
+import com.sigr.application.dto.reporte.ReporteVentasDTO;
+import com.sigr.application.port.out.ResumenVentaRepositoryPort;
+import com.sigr.domain.repository.ResumenProductoDiarioRepository;
+import com.sigr.domain.repository.ResumenVentaDiariaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class ResumenVentaRepositoryAdapter implements ResumenVentaRepositoryPort {
+
+    private static final Locale LOCALE_ES = Locale.forLanguageTag("es");
+    // Primer entero de los candados consultivos (pg_advisory_xact_lock(int, int)) por día de resumen;
+    // el segundo es el día en días desde 1970-01-01
+    private static final int CANDADO_RESUMEN_DIA = 0x52564431;
+
+    // %s: filtro sobre venta v. Los parámetros de signo preceden a los del filtro
+    private static final String UPSERT_RESUMEN_VENTA_SQL = """
+            INSERT INTO resumen_venta_diaria (sede_id, dia, cantidad_ventas, total_ventas, unidades_vendidas)
+            SELECT x.sede_id, x.dia, ? * COUNT(*), ? * COALESCE(SUM(x.total), 0), ? * SUM(x.unidades)
+            FROM (SELECT v.sede_id, CAST(v.fecha AS DATE) AS dia, v.total, COALESCE(SUM(d.cantidad), 0) AS unidades
+                  FROM venta v LEFT JOIN detalle_venta d ON d.venta_id = v.id
+                  WHERE %s
+                  GROUP BY v.id, v.sede_id, v.fecha, v.total) x
+            GROUP BY x.sede_id, x.dia
+            ORDER BY x.sede_id, x.dia
+            ON CONFLICT (sede_id, dia) DO UPDATE SET
+                cantidad_ventas = resumen_venta_diaria.cantidad_ventas + EXCLUDED.cantidad_ventas,
+                total_ventas = resumen_venta_diaria.total_ventas + EXCLUDED.total_ventas,
+                unidades_vendidas = resumen_venta_diaria.unidades_vendidas + EXCLUDED.unidades_vendidas
+            """;
+
+    private static final String UPSERT_RESUMEN_PRODUCTO_SQL = """
+            INSERT INTO resumen_producto_diario (sede_id, producto_id, dia, cantidad_vendida, total_ventas)
+            SELECT v.sede_id, d.producto_id, CAST(v.fecha AS DATE),
+                   ? * SUM(d.cantidad), ? * SUM(d.cantidad * d.precio_unitario)
+            FROM detalle_venta d JOIN venta v ON v.id = d.venta_id
+            WHERE %s
+            GROUP BY v.sede_id, d.producto_id, CAST(v.fecha AS DATE)
+            ORDER BY v.sede_id, d.producto_id, CAST(v.fecha AS DATE)
+            ON CONFLICT (sede_id, producto_id, dia) DO UPDATE SET
+                cantidad_vendida = resumen_producto_diario.cantidad_vendida + EXCLUDED.cantidad_vendida,
+                total_ventas = resumen_producto_diario.total_ventas + EXCLUDED.total_ventas
+            """;
+
+    private static final String VENTAS_POR_SEDE_SQL = """
+            SELECT s.id, s.nombre, COALESCE(SUM(r.cantidad_ventas), 0), COALESCE(SUM(r.total_ventas), 0)
+            FROM sede s
+            LEFT JOIN resumen_venta_diaria r ON r.sede_id = s.id AND r.dia BETWEEN ? AND ?
+            GROUP BY s.id, s.nombre
+            ORDER BY s.id
+            """;
+
+    // Mismo desempate que findProductosMasVendidos: a igual cantidad, el id menor
+    private static final String PRODUCTO_MAS_VENDIDO_POR_SEDE_SQL = """
+            SELECT x.sede_id, p.id, p.nombre, p.codigo_barra, x.cantidad, x.total
+            FROM (SELECT r.sede_id, r.producto_id, SUM(r.cantidad_vendida) AS cantidad, SUM(r.total_ventas) AS total,
+                         ROW_NUMBER() OVER (PARTITION BY r.sede_id
+                                            ORDER BY SUM(r.cantidad_vendida) DESC, r.producto_id) AS puesto
+                  FROM resumen_producto_diario r
+                  WHERE r.dia BETWEEN ? AND ?
+                  GROUP BY r.sede_id, r.producto_id
+                  HAVING SUM(r.cantidad_vendida) > 0) x
+            JOIN producto p ON p.id = x.producto_id
+            WHERE x.puesto = 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ResumenVentaDiariaRepository resumenVentaDiariaRepository;
+    private final ResumenProductoDiarioRepository resumenProductoDiarioRepository;
+
+    @Override
+    public void acumular(Collection<Long> ventaIds, int signo) {
+        if (ventaIds.isEmpty()) {
+            return;
+        }
+        String filtro = "v.id IN (" + String.join(", ", Collections.nCopies(ventaIds.size(), "?")) + ")";
+
+        // Candado compartido por día: las ventas no se esperan entre sí, sólo a la reconstrucción de sus días
+        List<Object> parametrosCandado = new ArrayList<>(List.of(CANDADO_RESUMEN_DIA));
+        parametrosCandado.addAll(ventaIds);
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?, x.dia - DATE '1970-01-01') " +
+                        "FROM (SELECT DISTINCT CAST(v.fecha AS DATE) AS dia FROM venta v WHERE " + filtro +
+                        " ORDER BY dia) x",
+                rs -> { }, parametrosCandado.toArray());
+
+        List<Object> parametrosVenta = new ArrayList<>(List.of(signo, signo, signo));
+        parametrosVenta.addAll(ventaIds);
+        jdbcTemplate.update(UPSERT_RESUMEN_VENTA_SQL.formatted(filtro), parametrosVenta.toArray());
+
+        List<Object> parametrosProducto = new ArrayList<>(List.of(signo, signo));
+        parametrosProducto.addAll(ventaIds);
+        jdbcTemplate.update(UPSERT_RESUMEN_PRODUCTO_SQL.formatted(filtro), parametrosProducto.toArray());
+    }
+
+    @Override
+    public int reconstruir(LocalDate dia) {
+        // Exclusivo sobre el día: espera a que confirmen las ventas de ese día que ya acumularon y frena las nuevas
+        // hasta el commit. En READ COMMITTED las sentencias siguientes ya ven todo lo confirmado antes del candado
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> { }, CANDADO_RESUMEN_DIA, (int) dia.toEpochDay());
+        jdbcTemplate.update("DELETE FROM resumen_venta_diaria WHERE dia = ?", dia);
+        jdbcTemplate.update("DELETE FROM resumen_producto_diario WHERE dia = ?", dia);
+
+        String filtro = "v.estado = true AND v.fecha >= ? AND v.fecha < ?";
+        Timestamp inicio = Timestamp.valueOf(dia.atStartOfDay());
+        Timestamp fin = Timestamp.valueOf(dia.plusDays(1).atStartOfDay());
+        int filas = jdbcTemplate.update(UPSERT_RESUMEN_VENTA_SQL.formatted(filtro), 1, 1, 1, inicio, fin);
+        jdbcTemplate.update(UPSERT_RESUMEN_PRODUCTO_SQL.formatted(filtro), 1, 1, inicio, fin);
+        return filas;
+    }
+
+    @Override
+    public List<DashboardResponseDTO.ProductosVendidosPorSedeDTO> contarProductosVendidosPorSede(LocalDate desde, LocalDate hasta) {
+        return resumenVentaDiariaRepository.contarProductosVendidosPorSede(desde, hasta);
+    }
+
+    @Override
+    public Long contarProductosVendidos(Long sedeId, LocalDate desde, LocalDate hasta) {
+        return resumenVentaDiariaRepository.contarProductosVendidos(sedeId, desde, hasta);
+    }
+
+    @Override
+    public DashboardResponseDTO.KpisDTO.VentaMesDTO obtenerKpiVentas(Long sedeId, LocalDate desde, LocalDate hasta) {
+        return resumenVentaDiariaRepository.obtenerKpiVentas(sedeId, desde, hasta);
+    }
+
+    @Override
+    public List<DashboardResponseDTO.VentaMensualDTO> obtenerVentasMensuales(Long sedeId, LocalDate desde) {
+        Map<YearMonth, BigDecimal> totales = new HashMap<>();
+        for (Object[] fila : resumenVentaDiariaRepository.sumarVentasPorMes(sedeId, desde)) {
+            totales.put(YearMonth.of(((Number) fila[0]).intValue(), ((Number) fila[1]).intValue()), (BigDecimal) fila[2]);
+        }
+
+        List<DashboardResponseDTO.VentaMensualDTO> meses = new ArrayList<>();
+        for (YearMonth mes = YearMonth.from(desde); !mes.isAfter(YearMonth.now()); mes = mes.plusMonths(1)) {
+            String nombre = mes.getMonth().getDisplayName(TextStyle.SHORT, LOCALE_ES);
+            meses.add(new DashboardResponseDTO.VentaMensualDTO(
+                    nombre.substring(0, 1).toUpperCase(LOCALE_ES) + nombre.substring(1),
+                    totales.getOrDefault(mes, BigDecimal.ZERO),
+                    mes.getMonthValue(),
+                    mes.getYear()));
+        }
+        return meses;
+    }
+
+    @Override
+    public List<DashboardResponseDTO.ProductoMasVendidoDTO> obtenerProductosMasVendidos(Long sedeId, int limite) {
+        return resumenProductoDiarioRepository.obtenerProductosMasVendidos(sedeId, PageRequest.of(0, limite));
+    }
+
+    @Override
+    public List<ProductoMasVendidoDTO> findProductosMasVendidos(Long sedeId, LocalDate desde, LocalDate hasta, Integer limite) {
+        Pageable pagina = limite != null && limite > 0 ? PageRequest.of(0, limite) : Pageable.unpaged();
+        List<ProductoMasVendidoDTO> productos = new ArrayList<>();
+        for (Object[] fila : resumenProductoDiarioRepository.findProductosMasVendidos(sedeId, desde, hasta, pagina)) {
+            ProductoMasVendidoDTO producto = new ProductoMasVendidoDTO();
+            producto.setProductoId((Long) fila[0]);
+            producto.setProductoNombre((String) fila[1]);
+            producto.setCodigoBarra((String) fila[2]);
+            producto.setCantidadVendida(((Number) fila[3]).intValue());
+            producto.setTotalVentas((BigDecimal) fila[4]);
+            productos.add(producto);
+        }
+        return productos;
+    }
+
+    @Override
+    public List<ReporteVentasDTO> sumarVentasPorSede(LocalDate desde, LocalDate hasta) {
+        return jdbcTemplate.query(VENTAS_POR_SEDE_SQL, (rs, fila) -> {
+            ReporteVentasDTO reporte = new ReporteVentasDTO();
+            reporte.setSedeId(rs.getLong(1));
+            reporte.setSedeNombre(rs.getString(2));
+            reporte.setCantidadVentas(rs.getLong(3));
+            reporte.setTotalVentas(rs.getBigDecimal(4));
+            return reporte;
+        }, desde, hasta);
+    }
+
+    @Override
+    public Map<Long, ProductoMasVendidoDTO> findProductoMasVendidoPorSede(LocalDate desde, LocalDate hasta) {
+        Map<Long, ProductoMasVendidoDTO> productos = new HashMap<>();
+        jdbcTemplate.query(PRODUCTO_MAS_VENDIDO_POR_SEDE_SQL, rs -> {
+            ProductoMasVendidoDTO producto = new ProductoMasVendidoDTO();
+            producto.setProductoId(rs.getLong(2));
+            producto.setProductoNombre(rs.getString(3));
+            producto.setCodigoBarra(rs.getString(4));
+            producto.setCantidadVendida(rs.getInt(5));
+            producto.setTotalVentas(rs.getBigDecimal(6));
+            productos.put(rs.getLong(1), producto);
+        }, desde, hasta);
+        return productos;
+    }
+}
\ No newline at end of file
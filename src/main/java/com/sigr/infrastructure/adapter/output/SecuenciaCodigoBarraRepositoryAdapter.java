@@ -0,0 +1,41 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.port.output.SecuenciaCodigoBarraRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class SecuenciaCodigoBarraRepositoryAdapter implements SecuenciaCodigoBarraRepositoryPort {
+
+    private static final String RESERVAR_BLOQUE_SQL =
+            "UPDATE secuencia_codigo_barra SET ultimo_valor = ultimo_valor + ? WHERE clave = ? RETURNING ultimo_valor";
+
+    // La primera reserva crea la serie a continuación del mayor número ya usado; si otro nodo la creó antes, la incrementa
+    private static final String CREAR_SERIE_SQL = """
+            INSERT INTO secuencia_codigo_barra (clave, ultimo_valor)
+            SELECT ?, COALESCE(MAX(CAST(SUBSTRING(p.codigo_barra FROM ?) AS BIGINT)), 0) + ?
+            FROM producto p
+            WHERE p.codigo_barra LIKE ? AND p.codigo_barra ~ ?
+            ON CONFLICT (clave) DO UPDATE SET ultimo_valor = secuencia_codigo_barra.ultimo_valor + ?
+            RETURNING ultimo_valor
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reservarBloque(String clave, int tamano, String prefijo, String patron) {
+        List<Long> ultimo = jdbcTemplate.queryForList(RESERVAR_BLOQUE_SQL, Long.class, (long) tamano, clave);
+        if (!ultimo.isEmpty()) {
+            return ultimo.get(0);
+        }
+        return jdbcTemplate.queryForObject(CREAR_SERIE_SQL, Long.class,
+                clave, patron, (long) tamano, prefijo + "%", patron, (long) tamano);
+    }
+}
\ No newline at end of file
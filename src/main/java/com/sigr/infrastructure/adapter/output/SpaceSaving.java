@@ -0,0 +1,77 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.dto.reporte.ProductoTopVentaDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving ponderado: un producto nuevo con el ranking lleno reemplaza al de menor cantidad y hereda
+ * esa cantidad como error. Ningún producto fuera del ranking vendió más que el último del ranking.
+ * No es seguro para hilos: {@link RankingVentasEnMemoria} lo usa siempre bajo el monitor de cada sede.
+ */
+final class SpaceSaving {
+
+    // Menor cantidad primero; a igual cantidad sale antes el id mayor, así el recorrido inverso desempata por id
+    private static final Comparator<Contador> ORDEN = Comparator
+            .comparingLong((Contador contador) -> contador.cantidad)
+            .thenComparing(contador -> contador.productoId, Comparator.reverseOrder());
+
+    private final int capacidad;
+    private final Map<Long, Contador> contadores = new HashMap<>();
+    private final TreeSet<Contador> orden = new TreeSet<>(ORDEN);
+
+    SpaceSaving(int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    void sumar(Long productoId, String nombre, String codigoBarra, long cantidad) {
+        Contador contador = contadores.get(productoId);
+        if (contador != null) {
+            orden.remove(contador);
+            contador.cantidad += cantidad;
+        } else if (contadores.size() < capacidad) {
+            contador = new Contador(productoId, cantidad, 0);
+            contadores.put(productoId, contador);
+        } else {
+            Contador menor = orden.pollFirst();
+            contadores.remove(menor.productoId);
+            contador = new Contador(productoId, menor.cantidad + cantidad, menor.cantidad);
+            contadores.put(productoId, contador);
+        }
+        contador.nombre = nombre;
+        contador.codigoBarra = codigoBarra;
+        orden.add(contador);
+    }
+
+    List<ProductoTopVentaDTO> top(int limite) {
+        List<ProductoTopVentaDTO> productos = new ArrayList<>(Math.min(limite, orden.size()));
+        Iterator<Contador> mayores = orden.descendingIterator();
+        while (mayores.hasNext() && productos.size() < limite) {
+            Contador contador = mayores.next();
+            productos.add(new ProductoTopVentaDTO(contador.productoId, contador.nombre, contador.codigoBarra,
+                    contador.cantidad, contador.error));
+        }
+        return productos;
+    }
+
+    private static final class Contador {
+
+        private final Long productoId;
+        private final long error;
+        private long cantidad;
+        private String nombre;
+        private String codigoBarra;
+
+        Contador(Long productoId, long cantidad, long error) {
+            this.productoId = productoId;
+            this.cantidad = cantidad;
+            this.error = error;
+        }
+    }
+}
\ No newline at end of file
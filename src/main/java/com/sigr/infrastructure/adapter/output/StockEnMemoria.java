@@ -0,0 +1,270 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.dto.inventario.AlertaStockBajoDTO;
+import com.sigr.application.dto.inventario.StockDisponibleDTO;
+import com.sigr.domain.entity.Producto;
+import com.sigr.domain.repository.InventarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copia en memoria del nodo de la cantidad de cada inventario, indexada por (productoId, sedeId)
+ * empaquetados en un long. Las escrituras de InventarioRepositoryAdapter se aplican al confirmar
+ * su transacción y una recarga periódica recoge los cambios hechos desde otros nodos; los que se confirman
+ * mientras la recarga lee la BD se concilian con {@link CambiosDuranteRecarga}.
+ * Es una vista para lecturas de disponibilidad: los descuentos de stock siguen validándose en la BD.
+ * <p>
+ * Junto a cada cantidad guarda su stock mínimo efectivo y mantiene por sede el conjunto de productos
+ * en stock bajo. Cada entrada o salida de ese conjunto se publica como {@link AlertaStockBajoDTO}.
+ */
+@Slf4j
+@Component
+public class StockEnMemoria {
+
+    private static final long MAX_ID_EMPAQUETABLE = 0xFFFFFFFFL;
+
+    private final InventarioRepository inventarioRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CambiosDuranteRecarga cambios;
+
+    private volatile Map<Long, AtomicInteger> cantidades = new ConcurrentHashMap<>();
+    private volatile Map<Long, Integer> stockMinimos = new ConcurrentHashMap<>();
+    private volatile Map<Long, Set<Long>> stockBajoPorSede = new ConcurrentHashMap<>();
+    private volatile boolean cargado;
+
+    public StockEnMemoria(InventarioRepository inventarioRepository, ApplicationEventPublisher eventPublisher,
+                          InstantaneasTransaccionales instantaneas) {
+        this.inventarioRepository = inventarioRepository;
+        this.eventPublisher = eventPublisher;
+        this.cambios = new CambiosDuranteRecarga(instantaneas);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        recargar();
+    }
+
+    @Scheduled(initialDelayString = "${app.stock-cache.refresh-ms:60000}",
+               fixedDelayString = "${app.stock-cache.refresh-ms:60000}")
+    public synchronized void recargar() {
+        long inicio = System.currentTimeMillis();
+        // Recargar es sincronizado: nadie más reemplaza este conjunto, que sigue recibiendo cambios hasta instalar la copia
+        Map<Long, Set<Long>> stockBajoAnterior = stockBajoPorSede;
+        boolean avisar = cargado;
+        List<AlertaStockBajoDTO> alertas = new ArrayList<>();
+        cambios.recargar(() -> construir(inventarioRepository.findAllStock()), this::instalar, () -> {
+            // Tras la carga inicial sólo se avisan los cambios hechos desde otros nodos
+            if (avisar) {
+                alertas.addAll(diferencias(stockBajoAnterior));
+            }
+            cargado = true;
+        });
+        alertas.forEach(eventPublisher::publishEvent);
+        log.debug("Loaded {} inventory quantities into memory in {} ms", cantidades.size(), System.currentTimeMillis() - inicio);
+    }
+
+    private static Copia construir(List<StockDisponibleDTO> stocks) {
+        Copia copia = new Copia(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        for (StockDisponibleDTO stock : stocks) {
+            if (!esEmpaquetable(stock.getProductoId(), stock.getSedeId())) {
+                continue;
+            }
+            long clave = clave(stock.getProductoId(), stock.getSedeId());
+            int stockMinimo = stockMinimoOPorDefecto(stock.getStockMinimo());
+            copia.cantidades().put(clave, new AtomicInteger(stock.getCantidad()));
+            copia.stockMinimos().put(clave, stockMinimo);
+            if (stock.getCantidad() <= stockMinimo) {
+                copia.stockBajoPorSede().computeIfAbsent(stock.getSedeId(), k -> ConcurrentHashMap.newKeySet())
+                        .add(stock.getProductoId());
+            }
+        }
+        return copia;
+    }
+
+    private void instalar(Copia copia) {
+        cantidades = copia.cantidades();
+        stockMinimos = copia.stockMinimos();
+        stockBajoPorSede = copia.stockBajoPorSede();
+    }
+
+    private List<AlertaStockBajoDTO> diferencias(Map<Long, Set<Long>> stockBajoAnterior) {
+        List<AlertaStockBajoDTO> alertas = new ArrayList<>();
+        stockBajoPorSede.forEach((sedeId, productos) -> productos.forEach(productoId -> {
+            if (!contiene(stockBajoAnterior, sedeId, productoId)) {
+                alertas.add(new AlertaStockBajoDTO(productoId, sedeId, obtenerCantidad(productoId, sedeId),
+                        obtenerStockMinimo(productoId, sedeId), true));
+            }
+        }));
+        stockBajoAnterior.forEach((sedeId, productos) -> productos.forEach(productoId -> {
+            if (!contiene(stockBajoPorSede, sedeId, productoId)) {
+                alertas.add(new AlertaStockBajoDTO(productoId, sedeId, obtenerCantidad(productoId, sedeId),
+                        obtenerStockMinimo(productoId, sedeId), false));
+            }
+        }));
+        return alertas;
+    }
+
+    /**
+     * @return true si la consulta puede responderse desde memoria (mapa cargado e ids empaquetables)
+     */
+    public boolean puedeResponder(Long productoId, Long sedeId) {
+        return cargado && esEmpaquetable(productoId, sedeId);
+    }
+
+    /**
+     * @return la cantidad en memoria, o null si no hay inventario para el producto en la sede
+     */
+    public Integer obtenerCantidad(Long productoId, Long sedeId) {
+        AtomicInteger cantidad = cantidades.get(clave(productoId, sedeId));
+        return cantidad != null ? cantidad.get() : null;
+    }
+
+    public Integer obtenerStockMinimo(Long productoId, Long sedeId) {
+        return stockMinimos.get(clave(productoId, sedeId));
+    }
+
+    public boolean estaCargado() {
+        return cargado;
+    }
+
+    public Set<Long> productosConStockBajo(Long sedeId) {
+        Set<Long> productos = stockBajoPorSede.get(sedeId);
+        return productos != null ? Set.copyOf(productos) : Set.of();
+    }
+
+    public Set<Long> sedesConStockBajo() {
+        return Set.copyOf(stockBajoPorSede.keySet());
+    }
+
+    public List<AlertaStockBajoDTO> alertasStockBajo(Long sedeId) {
+        List<AlertaStockBajoDTO> alertas = new ArrayList<>();
+        stockBajoPorSede.forEach((sede, productos) -> {
+            if (sedeId == null || sedeId.equals(sede)) {
+                for (Long productoId : productos) {
+                    alertas.add(new AlertaStockBajoDTO(productoId, sede, obtenerCantidad(productoId, sede),
+                            obtenerStockMinimo(productoId, sede), true));
+                }
+            }
+        });
+        return alertas;
+    }
+
+    public void registrarMovimiento(Long productoId, Long sedeId, int delta) {
+        if (!esEmpaquetable(productoId, sedeId)) {
+            return;
+        }
+        cambios.alConfirmar(() -> {
+            // Si la fila aún no está en memoria (creada en otro nodo) la trae la próxima recarga
+            AtomicInteger cantidad = cantidades.get(clave(productoId, sedeId));
+            if (cantidad != null) {
+                cantidad.addAndGet(delta);
+                evaluarStockBajo(productoId, sedeId, cantidad);
+            }
+        });
+    }
+
+    public void registrarCantidad(Long productoId, Long sedeId, int cantidad, Integer stockMinimo) {
+        if (!esEmpaquetable(productoId, sedeId)) {
+            return;
+        }
+        cambios.alConfirmar(() -> {
+            long clave = clave(productoId, sedeId);
+            stockMinimos.put(clave, stockMinimoOPorDefecto(stockMinimo));
+            AtomicInteger actual = cantidades.computeIfAbsent(clave, k -> new AtomicInteger());
+            actual.set(cantidad);
+            evaluarStockBajo(productoId, sedeId, actual);
+        });
+    }
+
+    /**
+     * Actualiza los stocks mínimos efectivos (por ejemplo tras cambiar el del producto) y reevalúa cada inventario.
+     */
+    public void registrarStockMinimos(Collection<StockDisponibleDTO> stocks) {
+        cambios.alConfirmar(() -> {
+            for (StockDisponibleDTO stock : stocks) {
+                if (!esEmpaquetable(stock.getProductoId(), stock.getSedeId())) {
+                    continue;
+                }
+                long clave = clave(stock.getProductoId(), stock.getSedeId());
+                stockMinimos.put(clave, stockMinimoOPorDefecto(stock.getStockMinimo()));
+                AtomicInteger cantidad = cantidades.get(clave);
+                if (cantidad != null) {
+                    evaluarStockBajo(stock.getProductoId(), stock.getSedeId(), cantidad);
+                }
+            }
+        });
+    }
+
+    public void registrarBaja(Long productoId, Long sedeId) {
+        if (!esEmpaquetable(productoId, sedeId)) {
+            return;
+        }
+        cambios.alConfirmar(() -> {
+            long clave = clave(productoId, sedeId);
+            cantidades.remove(clave);
+            stockMinimos.remove(clave);
+            Set<Long> productos = stockBajoPorSede.get(sedeId);
+            if (productos != null && productos.remove(productoId)) {
+                publicar(new AlertaStockBajoDTO(productoId, sedeId, null, null, false));
+            }
+        });
+    }
+
+    private void evaluarStockBajo(Long productoId, Long sedeId, AtomicInteger cantidad) {
+        boolean cambio;
+        int valor;
+        int stockMinimo;
+        // Se relee la cantidad bajo el monitor para que el último en evaluar deje el conjunto acorde al valor final
+        synchronized (cantidad) {
+            valor = cantidad.get();
+            stockMinimo = stockMinimoOPorDefecto(stockMinimos.get(clave(productoId, sedeId)));
+            Set<Long> productos = stockBajoPorSede.computeIfAbsent(sedeId, k -> ConcurrentHashMap.newKeySet());
+            cambio = valor <= stockMinimo ? productos.add(productoId) : productos.remove(productoId);
+        }
+        if (cambio) {
+            publicar(new AlertaStockBajoDTO(productoId, sedeId, valor, stockMinimo, valor <= stockMinimo));
+        }
+    }
+
+    private void publicar(AlertaStockBajoDTO alerta) {
+        // Lo reaplicado tras una recarga ya se avisó al aplicarse la primera vez; la recarga avisa sólo las diferencias
+        if (!cambios.reaplicando()) {
+            eventPublisher.publishEvent(alerta);
+        }
+    }
+
+    private static boolean contiene(Map<Long, Set<Long>> stockBajoPorSede, Long sedeId, Long productoId) {
+        Set<Long> productos = stockBajoPorSede.get(sedeId);
+        return productos != null && productos.contains(productoId);
+    }
+
+    private static int stockMinimoOPorDefecto(Integer stockMinimo) {
+        return stockMinimo != null ? stockMinimo : Producto.STOCK_MINIMO_POR_DEFECTO;
+    }
+
+    private static boolean esEmpaquetable(Long productoId, Long sedeId) {
+        return productoId != null && sedeId != null
+                && productoId >= 0 && productoId <= MAX_ID_EMPAQUETABLE
+                && sedeId >= 0 && sedeId <= MAX_ID_EMPAQUETABLE;
+    }
+
+    private static long clave(long productoId, long sedeId) {
+        return (productoId << 32) | sedeId;
+    }
+
+    private record Copia(Map<Long, AtomicInteger> cantidades, Map<Long, Integer> stockMinimos,
+                         Map<Long, Set<Long>> stockBajoPorSede) {
+    }
+}
\ No newline at end of file
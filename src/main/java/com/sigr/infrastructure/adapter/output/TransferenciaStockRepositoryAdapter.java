@@ -0,0 +1,123 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.port.output.TransferenciaStockRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+@Component
+@RequiredArgsConstructor
+public class TransferenciaStockRepositoryAdapter implements TransferenciaStockRepositoryPort {
+
+    private static final String VALORES = "(CAST(? AS BIGINT), CAST(? AS INTEGER))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcSequenceAllocator sequenceAllocator;
+    private final StockEnMemoria stockEnMemoria;
+
+    @Override
+    public Map<Long, Integer> bloquearInventarios(Long sedeOrigenId, Long sedeDestinoId, Collection<Long> productoIds) {
+        List<Long> ordenados = new ArrayList<>(new TreeSet<>(productoIds));
+        List<Object> parametros = new ArrayList<>(ordenados.size() + 2);
+        parametros.add(sedeOrigenId);
+        parametros.add(sedeDestinoId);
+        parametros.addAll(ordenados);
+
+        Map<Long, Integer> cantidadesOrigen = new TreeMap<>();
+        jdbcTemplate.query(
+                "SELECT sede_id, producto_id, cantidad FROM inventario " +
+                "WHERE sede_id IN (?, ?) AND producto_id IN (" + String.join(", ", Collections.nCopies(ordenados.size(), "?")) + ") " +
+                "ORDER BY sede_id, producto_id FOR UPDATE",
+                rs -> {
+                    if (rs.getLong("sede_id") == sedeOrigenId) {
+                        cantidadesOrigen.put(rs.getLong("producto_id"), rs.getInt("cantidad"));
+                    }
+                },
+                parametros.toArray());
+        return cantidadesOrigen;
+    }
+
+    @Override
+    public List<Long> transferir(Long sedeOrigenId, Long sedeDestinoId, Map<Long, Integer> cantidadesPorProducto) {
+        List<Long> productoIds = new ArrayList<>(new TreeMap<>(cantidadesPorProducto).keySet());
+        List<Object> valores = new ArrayList<>(productoIds.size() * 2 + 1);
+        for (Long productoId : productoIds) {
+            valores.add(productoId);
+            valores.add(cantidadesPorProducto.get(productoId));
+        }
+        String tablaValores = "(VALUES " + String.join(", ", Collections.nCopies(productoIds.size(), VALORES)) + ") " +
+                "AS v(producto_id, cantidad)";
+
+        List<Object> parametrosOrigen = new ArrayList<>(valores);
+        parametrosOrigen.add(sedeOrigenId);
+        List<Long> descontados = jdbcTemplate.queryForList(
+                "UPDATE inventario i SET cantidad = i.cantidad - v.cantidad FROM " + tablaValores + " " +
+                "WHERE i.producto_id = v.producto_id AND i.sede_id = ? AND i.cantidad >= v.cantidad " +
+                "RETURNING i.producto_id",
+                Long.class, parametrosOrigen.toArray());
+        if (descontados.size() != productoIds.size()) {
+            // Las filas estaban bloqueadas y validadas: sólo ocurre si no se llamó antes a bloquearInventarios
+            throw new IllegalStateException("No se pudo descontar el stock de origen de todos los productos");
+        }
+
+        List<Object> parametrosDestino = new ArrayList<>(valores);
+        parametrosDestino.add(sedeDestinoId);
+        List<Long> incrementados = jdbcTemplate.queryForList(
+                "UPDATE inventario i SET cantidad = i.cantidad + v.cantidad FROM " + tablaValores + " " +
+                "WHERE i.producto_id = v.producto_id AND i.sede_id = ? " +
+                "RETURNING i.producto_id",
+                Long.class, parametrosDestino.toArray());
+
+        List<Long> faltantes = new ArrayList<>(productoIds);
+        faltantes.removeAll(incrementados);
+        if (!faltantes.isEmpty()) {
+            crearInventariosDestino(sedeDestinoId, faltantes, cantidadesPorProducto);
+        }
+
+        for (Long productoId : productoIds) {
+            int cantidad = cantidadesPorProducto.get(productoId);
+            stockEnMemoria.registrarMovimiento(productoId, sedeOrigenId, -cantidad);
+            if (!faltantes.contains(productoId)) {
+                stockEnMemoria.registrarMovimiento(productoId, sedeDestinoId, cantidad);
+            }
+        }
+        return faltantes;
+    }
+
+    private void crearInventariosDestino(Long sedeDestinoId, List<Long> productoIds, Map<Long, Integer> cantidadesPorProducto) {
+        List<Long> ids = sequenceAllocator.reservar("inventario_seq", productoIds.size());
+        List<Object> parametros = new ArrayList<>(productoIds.size() * 3 + 1);
+        parametros.add(sedeDestinoId);
+        for (int i = 0; i < productoIds.size(); i++) {
+            parametros.add(ids.get(i));
+            parametros.add(productoIds.get(i));
+            parametros.add(cantidadesPorProducto.get(productoIds.get(i)));
+        }
+
+        // Si otra transacción creó la fila entretanto, el conflicto suma la cantidad sobre ella
+        jdbcTemplate.query(
+                "WITH creados AS (" +
+                "  INSERT INTO inventario (id, producto_id, sede_id, cantidad) " +
+                "  SELECT v.id, v.producto_id, CAST(? AS BIGINT), v.cantidad FROM (VALUES " +
+                String.join(", ", Collections.nCopies(productoIds.size(), "(CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS INTEGER))")) +
+                "  ) AS v(id, producto_id, cantidad) ORDER BY v.producto_id " +
+                "  ON CONFLICT (producto_id, sede_id) DO UPDATE SET cantidad = inventario.cantidad + EXCLUDED.cantidad " +
+                "  RETURNING producto_id, cantidad, stock_minimo" +
+                ") " +
+                "SELECT c.producto_id, c.cantidad, COALESCE(c.stock_minimo, p.stock_minimo) AS stock_minimo " +
+                "FROM creados c JOIN producto p ON p.id = c.producto_id",
+                rs -> {
+                    stockEnMemoria.registrarCantidad(rs.getLong("producto_id"), sedeDestinoId, rs.getInt("cantidad"),
+                            (Integer) rs.getObject("stock_minimo"));
+                },
+                parametros.toArray());
+    }
+}
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +34,11 @@ public class VehiculoRepositoryAdapter implements VehiculoRepositoryPort {
         return vehiculoRepository.findById(id);
     }
 
+    @Override
+    public List<Vehiculo> findAllById(Collection<Long> ids) {
+        return vehiculoRepository.findAllById(ids);
+    }
+
     @Override
     public Vehiculo save(Vehiculo vehiculo) {
         return vehiculoRepository.save(vehiculo);
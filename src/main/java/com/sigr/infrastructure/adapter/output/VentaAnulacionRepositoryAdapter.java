@@ -0,0 +1,57 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.port.out.VentaAnulacionRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@RequiredArgsConstructor
+public class VentaAnulacionRepositoryAdapter implements VentaAnulacionRepositoryPort {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> anularVentasActivas(Collection<Long> ventaIds) {
+        if (ventaIds.isEmpty()) {
+            return List.of();
+        }
+        // Las filas se bloquean en orden de id para no cruzarse con otra anulación masiva concurrente
+        return jdbcTemplate.queryForList(
+                "UPDATE venta v SET estado = false " +
+                "FROM (SELECT id FROM venta WHERE id IN (" + marcadores(ventaIds.size()) + ") AND estado = true " +
+                "      ORDER BY id FOR UPDATE) activas " +
+                "WHERE v.id = activas.id " +
+                "RETURNING v.id",
+                Long.class, ventaIds.toArray());
+    }
+
+    @Override
+    public Map<Long, Map<Long, Integer>> sumarCantidadesPorSedeYProducto(Collection<Long> ventaIds) {
+        Map<Long, Map<Long, Integer>> cantidades = new TreeMap<>();
+        if (ventaIds.isEmpty()) {
+            return cantidades;
+        }
+        jdbcTemplate.query(
+                "SELECT v.sede_id, d.producto_id, SUM(d.cantidad) AS cantidad " +
+                "FROM detalle_venta d JOIN venta v ON v.id = d.venta_id " +
+                "WHERE v.id IN (" + marcadores(ventaIds.size()) + ") " +
+                "GROUP BY v.sede_id, d.producto_id",
+                rs -> {
+                    cantidades.computeIfAbsent(rs.getLong("sede_id"), sedeId -> new TreeMap<>())
+                            .put(rs.getLong("producto_id"), rs.getInt("cantidad"));
+                },
+                ventaIds.toArray());
+        return cantidades;
+    }
+
+    private String marcadores(int cantidad) {
+        return String.join(", ", Collections.nCopies(cantidad, "?"));
+    }
+}
\ No newline at end of file
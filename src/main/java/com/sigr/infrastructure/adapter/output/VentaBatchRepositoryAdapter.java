@@ -0,0 +1,75 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.port.out.VentaBatchRepositoryPort;
+import com.sigr.domain.entity.DetalleVenta;
+import com.sigr.domain.entity.Venta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class VentaBatchRepositoryAdapter implements VentaBatchRepositoryPort {
+
+    private static final int TAMANO_LOTE = 500;
+
+    private static final String INSERT_VENTA_SQL =
+            "INSERT INTO venta (id, fecha, usuario_id, sede_id, vehiculo_id, fecha_entrega, total, estado, descripcion) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DETALLE_SQL =
+            "INSERT INTO detalle_venta (id, venta_id, producto_id, cantidad, precio_unitario) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcSequenceAllocator sequenceAllocator;
+
+    @Override
+    public void insertarEnLote(List<Venta> ventas) {
+        if (ventas.isEmpty()) {
+            return;
+        }
+
+        List<Long> ventaIds = sequenceAllocator.reservar("venta_seq", ventas.size());
+        List<DetalleVenta> detalles = new ArrayList<>();
+        for (int i = 0; i < ventas.size(); i++) {
+            ventas.get(i).setId(ventaIds.get(i));
+            detalles.addAll(ventas.get(i).getDetalles());
+        }
+        List<Long> detalleIds = sequenceAllocator.reservar("detalle_venta_seq", detalles.size());
+        for (int i = 0; i < detalles.size(); i++) {
+            detalles.get(i).setId(detalleIds.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_VENTA_SQL, ventas, TAMANO_LOTE, (ps, venta) -> {
+            ps.setLong(1, venta.getId());
+            ps.setTimestamp(2, Timestamp.valueOf(venta.getFecha()));
+            ps.setLong(3, venta.getUsuario().getId());
+            ps.setLong(4, venta.getSede().getId());
+            if (venta.getVehiculo() != null) {
+                ps.setLong(5, venta.getVehiculo().getId());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            if (venta.getFechaEntrega() != null) {
+                ps.setTimestamp(6, Timestamp.valueOf(venta.getFechaEntrega()));
+            } else {
+                ps.setNull(6, Types.TIMESTAMP);
+            }
+            ps.setBigDecimal(7, venta.getTotal());
+            ps.setBoolean(8, venta.getEstado());
+            ps.setString(9, venta.getDescripcion());
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_DETALLE_SQL, detalles, TAMANO_LOTE, (ps, detalle) -> {
+            ps.setLong(1, detalle.getId());
+            ps.setLong(2, detalle.getVenta().getId());
+            ps.setLong(3, detalle.getProducto().getId());
+            ps.setInt(4, detalle.getCantidad());
+            ps.setBigDecimal(5, detalle.getPrecioUnitario());
+        });
+    }
+}
\ No newline at end of file
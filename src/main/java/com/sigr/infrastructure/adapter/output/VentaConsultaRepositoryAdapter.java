@@ -0,0 +1,181 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.dto.reporte.ProductoMasVendidoDTO;
+import com.sigr.application.dto.reporte.ReporteVentasDTO;
+import com.sigr.application.port.out.VentaConsultaRepositoryPort;
+import com.sigr.domain.entity.DetalleVenta;
+import com.sigr.domain.entity.Venta;
+import com.sigr.domain.repository.VentaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class VentaConsultaRepositoryAdapter implements VentaConsultaRepositoryPort {
+
+    private static final String VENTAS_POR_SEDE_SQL = """
+            SELECT s.id, s.nombre, COUNT(v.id), COALESCE(SUM(v.total), 0)
+            FROM sede s
+            LEFT JOIN venta v ON v.sede_id = s.id AND v.estado = true AND v.fecha BETWEEN ? AND ?
+            GROUP BY s.id, s.nombre
+            ORDER BY s.id
+            """;
+
+    private static final String PRODUCTO_MAS_VENDIDO_POR_SEDE_SQL = """
+            SELECT x.sede_id, p.id, p.nombre, p.codigo_barra, x.cantidad, x.total
+            FROM (SELECT v.sede_id, d.producto_id, SUM(d.cantidad) AS cantidad,
+                         SUM(d.cantidad * d.precio_unitario) AS total,
+                         ROW_NUMBER() OVER (PARTITION BY v.sede_id ORDER BY SUM(d.cantidad) DESC, d.producto_id) AS puesto
+                  FROM detalle_venta d
+                  JOIN venta v ON v.id = d.venta_id
+                  WHERE v.estado = true AND v.fecha BETWEEN ? AND ?
+                  GROUP BY v.sede_id, d.producto_id) x
+            JOIN producto p ON p.id = x.producto_id
+            WHERE x.puesto = 1
+            """;
+
+    // LIMIT NULL no limita: sin límite se devuelve el ranking completo
+    private static final String PRODUCTOS_MAS_VENDIDOS_SQL = """
+            SELECT p.id, p.nombre, p.codigo_barra, SUM(d.cantidad), SUM(d.cantidad * d.precio_unitario)
+            FROM detalle_venta d
+            JOIN venta v ON v.id = d.venta_id
+            JOIN producto p ON p.id = d.producto_id
+            WHERE v.sede_id = ? AND v.estado = true AND v.fecha BETWEEN ? AND ?
+            GROUP BY p.id, p.nombre, p.codigo_barra
+            ORDER BY SUM(d.cantidad) DESC, p.id
+            LIMIT CAST(? AS INTEGER)
+            """;
+
+    private final VentaRepository ventaRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Page<Long> findIds(Pageable pageable) {
+        return ventaRepository.findIds(pageable);
+    }
+
+    @Override
+    public Page<Long> findIdsBySedeId(Long sedeId, Pageable pageable) {
+        return ventaRepository.findIdsBySedeId(sedeId, pageable);
+    }
+
+    @Override
+    public Page<Long> findIdsBySedeIdAndFechaBetween(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin, Pageable pageable) {
+        return ventaRepository.findIdsBySedeIdAndFechaBetween(sedeId, fechaInicio, fechaFin, pageable);
+    }
+
+    @Override
+    public List<Long> findIdsBySedeIdAndFechaBetween(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        return ventaRepository.findIdsBySedeIdAndFechaBetween(sedeId, fechaInicio, fechaFin);
+    }
+
+    @Override
+    public Page<Long> findIdsByFechaBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin, Pageable pageable) {
+        return ventaRepository.findIdsByFechaBetween(fechaInicio, fechaFin, pageable);
+    }
+
+    @Override
+    public Page<Long> findIdsByUsuarioId(Long usuarioId, Pageable pageable) {
+        return ventaRepository.findIdsByUsuarioId(usuarioId, pageable);
+    }
+
+    @Override
+    public List<Venta> findAllByIdWithAsociaciones(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return ventaRepository.findAllByIdWithAsociaciones(ids);
+    }
+
+    @Override
+    public List<DetalleVenta> findDetallesByVentaIds(Collection<Long> ventaIds) {
+        if (ventaIds.isEmpty()) {
+            return List.of();
+        }
+        return ventaRepository.findDetallesByVentaIds(ventaIds);
+    }
+
+    @Override
+    public List<ReporteVentasDTO> sumarVentasPorSede(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        return jdbcTemplate.query(VENTAS_POR_SEDE_SQL, (rs, fila) -> {
+            ReporteVentasDTO reporte = new ReporteVentasDTO();
+            reporte.setSedeId(rs.getLong(1));
+            reporte.setSedeNombre(rs.getString(2));
+            reporte.setCantidadVentas(rs.getLong(3));
+            reporte.setTotalVentas(rs.getBigDecimal(4));
+            return reporte;
+        }, Timestamp.valueOf(fechaInicio), Timestamp.valueOf(fechaFin));
+    }
+
+    @Override
+    public List<ProductoMasVendidoDTO> findProductosMasVendidos(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                                Integer limite) {
+        return jdbcTemplate.query(PRODUCTOS_MAS_VENDIDOS_SQL, (rs, fila) -> {
+            ProductoMasVendidoDTO producto = new ProductoMasVendidoDTO();
+            producto.setProductoId(rs.getLong(1));
+            producto.setProductoNombre(rs.getString(2));
+            producto.setCodigoBarra(rs.getString(3));
+            producto.setCantidadVendida(rs.getInt(4));
+            producto.setTotalVentas(rs.getBigDecimal(5));
+            return producto;
+        }, sedeId, Timestamp.valueOf(fechaInicio), Timestamp.valueOf(fechaFin), limite != null && limite > 0 ? limite : null);
+    }
+
+    @Override
+    public Map<Long, ProductoMasVendidoDTO> findProductoMasVendidoPorSede(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        Map<Long, ProductoMasVendidoDTO> productos = new HashMap<>();
+        jdbcTemplate.query(PRODUCTO_MAS_VENDIDO_POR_SEDE_SQL, rs -> {
+            ProductoMasVendidoDTO producto = new ProductoMasVendidoDTO();
+            producto.setProductoId(rs.getLong(2));
+            producto.setProductoNombre(rs.getString(3));
+            producto.setCodigoBarra(rs.getString(4));
+            producto.setCantidadVendida(rs.getInt(5));
+            producto.setTotalVentas(rs.getBigDecimal(6));
+            productos.put(rs.getLong(1), producto);
+        }, Timestamp.valueOf(fechaInicio), Timestamp.valueOf(fechaFin));
+        return productos;
+    }
+
+    @Override
+    public List<Long> findIdsBySedeIdAfterCursor(Long sedeId, LocalDateTime fecha, Long id, int limite) {
+        return ventaRepository.findIdsBySedeIdAfterCursor(sedeId, fecha, id, limite);
+    }
+
+    @Override
+    public List<Long> findIdsBySedeIdAndFechaBetweenAfterCursor(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                               LocalDateTime fecha, Long id, int limite) {
+        return ventaRepository.findIdsBySedeIdAndFechaBetweenAfterCursor(sedeId, fechaInicio, fechaFin, fecha, id, limite);
+    }
+
+    @Override
+    public List<Long> findIdsByFechaBetweenAfterCursor(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                      LocalDateTime fecha, Long id, int limite) {
+        return ventaRepository.findIdsByFechaBetweenAfterCursor(fechaInicio, fechaFin, fecha, id, limite);
+    }
+
+    @Override
+    public List<Long> findIdsByUsuarioIdAfterCursor(Long usuarioId, LocalDateTime fecha, Long id, int limite) {
+        return ventaRepository.findIdsByUsuarioIdAfterCursor(usuarioId, fecha, id, limite);
+    }
+
+    @Override
+    public List<Long> findIdsPendientesPorEntregarAfterCursor(LocalDateTime fechaActual, LocalDateTime fecha, Long id, int limite) {
+        return ventaRepository.findIdsPendientesPorEntregarAfterCursor(fechaActual, fecha, id, limite);
+    }
+
+    @Override
+    public List<Long> findIdsPendientesPorEntregarBySedeIdAfterCursor(Long sedeId, LocalDateTime fechaActual,
+                                                                     LocalDateTime fecha, Long id, int limite) {
+        return ventaRepository.findIdsPendientesPorEntregarBySedeIdAfterCursor(sedeId, fechaActual, fecha, id, limite);
+    }
+}
\ No newline at end of file
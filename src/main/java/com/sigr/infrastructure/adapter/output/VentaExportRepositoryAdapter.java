@@ -0,0 +1,76 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.dto.venta.VentaExportFilaDTO;
+import com.sigr.application.port.out.VentaExportRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+@Component
+@RequiredArgsConstructor
+public class VentaExportRepositoryAdapter implements VentaExportRepositoryPort {
+
+    private static final String VENTAS_CON_DETALLES_SQL = """
+            SELECT v.id, v.fecha, v.sede_id, v.usuario_id, v.vehiculo_id, v.fecha_entrega, v.total, v.estado,
+                   v.descripcion, d.id AS detalle_id, d.producto_id, p.codigo_barra, p.nombre AS producto_nombre,
+                   d.cantidad, d.precio_unitario
+            FROM venta v
+            LEFT JOIN detalle_venta d ON d.venta_id = v.id
+            LEFT JOIN producto p ON p.id = d.producto_id
+            WHERE v.sede_id = ? AND v.fecha BETWEEN ? AND ?
+            ORDER BY v.fecha, v.id, d.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    public void recorrerVentasConDetalles(Long sedeId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                          Consumer<VentaExportFilaDTO> consumidor) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(VENTAS_CON_DETALLES_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, sedeId);
+            ps.setTimestamp(2, Timestamp.valueOf(fechaInicio));
+            ps.setTimestamp(3, Timestamp.valueOf(fechaFin));
+            return ps;
+        }, rs -> {
+            consumidor.accept(mapFila(rs));
+        });
+    }
+
+    private VentaExportFilaDTO mapFila(ResultSet rs) throws SQLException {
+        VentaExportFilaDTO fila = new VentaExportFilaDTO();
+        fila.setVentaId(rs.getLong("id"));
+        fila.setFecha(toLocalDateTime(rs.getTimestamp("fecha")));
+        fila.setSedeId(rs.getObject("sede_id", Long.class));
+        fila.setUsuarioId(rs.getObject("usuario_id", Long.class));
+        fila.setVehiculoId(rs.getObject("vehiculo_id", Long.class));
+        fila.setFechaEntrega(toLocalDateTime(rs.getTimestamp("fecha_entrega")));
+        fila.setTotal(rs.getBigDecimal("total"));
+        fila.setEstado(rs.getObject("estado", Boolean.class));
+        fila.setDescripcion(rs.getString("descripcion"));
+        fila.setDetalleId(rs.getObject("detalle_id", Long.class));
+        fila.setProductoId(rs.getObject("producto_id", Long.class));
+        fila.setCodigoBarra(rs.getString("codigo_barra"));
+        fila.setProductoNombre(rs.getString("producto_nombre"));
+        fila.setCantidad(rs.getObject("cantidad", Integer.class));
+        fila.setPrecioUnitario(rs.getBigDecimal("precio_unitario"));
+        return fila;
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
\ No newline at end of file
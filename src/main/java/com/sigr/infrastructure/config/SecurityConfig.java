@@ -3,6 +3,7 @@ package com.sigr.infrastructure.config;
 import com.sigr.infrastructure.security.jwt.JwtAuthenticationEntryPoint;
 import com.sigr.infrastructure.security.jwt.JwtAuthenticationFilter;
 import com.sigr.infrastructure.security.userdetails.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -65,6 +66,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/auth/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/actuator/**").permitAll()
+                // El cierre de streams (SSE, exportaciones) vuelve a despachar la petición ya autorizada
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 
                 
                 // Todos los demás endpoints requieren autenticación
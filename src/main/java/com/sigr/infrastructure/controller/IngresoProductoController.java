@@ -110,8 +110,10 @@ public class IngresoProductoController {
     @Operation(summary = "Crear nuevo ingreso de productos", description = "Registra un nuevo ingreso de productos al inventario")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
     public ResponseEntity<ApiResponse<IngresoProductoResponseDTO>> createIngreso(
+            @Parameter(description = "Clave única por ingreso para reintentos seguros")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody IngresoProductoRequestDTO request) {
-        IngresoProductoResponseDTO ingreso = ingresoProductoUseCase.create(request);
+        IngresoProductoResponseDTO ingreso = ingresoProductoUseCase.create(request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(ingreso));
     }
 
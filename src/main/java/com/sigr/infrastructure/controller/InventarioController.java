@@ -1,10 +1,19 @@
 package com.sigr.infrastructure.controller;
 
+import com.sigr.application.dto.inventario.ConciliacionInventarioResponseDTO;
+import com.sigr.application.dto.inventario.FormatoConteo;
 import com.sigr.application.dto.inventario.InventarioRequestDTO;
 import com.sigr.application.dto.inventario.InventarioResponseDTO;
 import com.sigr.application.dto.inventario.InventarioUpdateDTO;
+import com.sigr.application.dto.inventario.MovimientoInventarioResponseDTO;
 import com.sigr.application.dto.inventario.StockAdjustmentDTO;
+import com.sigr.application.dto.inventario.StockDisponibleDTO;
+import com.sigr.application.dto.inventario.StockHistoricoDTO;
+import com.sigr.application.dto.inventario.StockMinimoDTO;
+import com.sigr.application.dto.inventario.TransferenciaStockRequestDTO;
+import com.sigr.application.dto.inventario.TransferenciaStockResponseDTO;
 import com.sigr.application.port.input.InventarioUseCase;
+import com.sigr.infrastructure.adapter.input.AlertasStockBajoSse;
 import com.sigr.infrastructure.common.response.ApiResponse;
 import com.sigr.infrastructure.common.response.PagedResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,11 +25,16 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -31,6 +45,7 @@ import java.util.List;
 public class InventarioController {
 
     private final InventarioUseCase inventarioUseCase;
+    private final AlertasStockBajoSse alertasStockBajoSse;
 
     @GetMapping
     @Operation(summary = "Obtener todos los inventarios", description = "Retorna una lista de todos los inventarios")
@@ -73,6 +88,41 @@ public class InventarioController {
         return ResponseEntity.ok(ApiResponse.success(inventario));
     }
 
+    @GetMapping("/producto/{productoId}/sede/{sedeId}/stock")
+    @Operation(summary = "Consultar stock disponible", description = "Retorna la cantidad disponible de un producto en una sede sin consultar la base de datos")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<StockDisponibleDTO>> getStockByProductoAndSede(
+            @Parameter(description = "ID del producto") @PathVariable Long productoId,
+            @Parameter(description = "ID de la sede") @PathVariable Long sedeId) {
+        StockDisponibleDTO stock = inventarioUseCase.findStock(productoId, sedeId);
+        return ResponseEntity.ok(ApiResponse.success(stock));
+    }
+
+    @GetMapping("/producto/{productoId}/sede/{sedeId}/movimientos")
+    @Operation(summary = "Obtener kardex", description = "Retorna los movimientos de inventario de un producto en una sede dentro de un rango de fechas, del más reciente al más antiguo")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<PagedResponse<MovimientoInventarioResponseDTO>>> getMovimientos(
+            @Parameter(description = "ID del producto") @PathVariable Long productoId,
+            @Parameter(description = "ID de la sede") @PathVariable Long sedeId,
+            @Parameter(description = "Fecha de inicio") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @Parameter(description = "Fecha de fin") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            Pageable pageable) {
+        Page<MovimientoInventarioResponseDTO> movimientos =
+                inventarioUseCase.findMovimientos(productoId, sedeId, fechaInicio, fechaFin, pageable);
+        return ResponseEntity.ok(ApiResponse.success(PagedResponse.of(movimientos)));
+    }
+
+    @GetMapping("/producto/{productoId}/sede/{sedeId}/stock-historico")
+    @Operation(summary = "Consultar stock en una fecha", description = "Calcula el stock de un producto en una sede en una fecha pasada a partir de la última foto y los movimientos del kardex")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<StockHistoricoDTO>> getStockEnFecha(
+            @Parameter(description = "ID del producto") @PathVariable Long productoId,
+            @Parameter(description = "ID de la sede") @PathVariable Long sedeId,
+            @Parameter(description = "Fecha de consulta") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha) {
+        StockHistoricoDTO stock = inventarioUseCase.findStockEnFecha(productoId, sedeId, fecha);
+        return ResponseEntity.ok(ApiResponse.success(stock));
+    }
+
     @GetMapping("/sede/{sedeId}")
     @Operation(summary = "Obtener inventarios por sede", description = "Retorna todos los inventarios de una sede")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
@@ -82,6 +132,16 @@ public class InventarioController {
         return ResponseEntity.ok(ApiResponse.success(inventarios));
     }
 
+    @GetMapping("/sede/{sedeId}/paginated")
+    @Operation(summary = "Obtener inventarios por sede paginados", description = "Retorna una página de inventarios de una sede")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<PagedResponse<InventarioResponseDTO>>> getInventariosBySedePaginated(
+            @Parameter(description = "ID de la sede") @PathVariable Long sedeId,
+            Pageable pageable) {
+        Page<InventarioResponseDTO> inventariosPage = inventarioUseCase.findBySedeIdPaginated(sedeId, pageable);
+        return ResponseEntity.ok(ApiResponse.success(PagedResponse.of(inventariosPage)));
+    }
+
     @GetMapping("/producto/{productoId}")
     @Operation(summary = "Obtener inventarios por producto", description = "Retorna todos los inventarios de un producto en todas las sedes")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
@@ -92,10 +152,10 @@ public class InventarioController {
     }
 
     @GetMapping("/low-stock")
-    @Operation(summary = "Obtener inventarios con stock bajo", description = "Retorna inventarios con cantidad menor o igual al parámetro")
+    @Operation(summary = "Obtener inventarios con stock bajo", description = "Retorna inventarios con cantidad menor o igual al parámetro o, si no se envía, a su stock mínimo")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
     public ResponseEntity<ApiResponse<List<InventarioResponseDTO>>> getLowStockInventarios(
-            @Parameter(description = "Cantidad límite para considerar stock bajo") @RequestParam(defaultValue = "5") Integer cantidad) {
+            @Parameter(description = "Cantidad límite para considerar stock bajo; por defecto el stock mínimo de cada inventario") @RequestParam(required = false) Integer cantidad) {
         List<InventarioResponseDTO> inventarios = inventarioUseCase.findLowStock(cantidad);
         return ResponseEntity.ok(ApiResponse.success(inventarios));
     }
@@ -105,11 +165,20 @@ public class InventarioController {
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
     public ResponseEntity<ApiResponse<List<InventarioResponseDTO>>> getLowStockInventariosBySede(
             @Parameter(description = "ID de la sede") @PathVariable Long sedeId,
-            @Parameter(description = "Cantidad límite para considerar stock bajo") @RequestParam(defaultValue = "5") Integer cantidad) {
+            @Parameter(description = "Cantidad límite para considerar stock bajo; por defecto el stock mínimo de cada inventario") @RequestParam(required = false) Integer cantidad) {
         List<InventarioResponseDTO> inventarios = inventarioUseCase.findLowStockBySede(sedeId, cantidad);
         return ResponseEntity.ok(ApiResponse.success(inventarios));
     }
 
+    @GetMapping(value = "/stock-bajo/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribirse a alertas de stock bajo",
+               description = "Stream server-sent events: un evento 'estado' con los productos en stock bajo y luego 'stock-bajo'/'stock-normal' cada vez que uno entra o sale del conjunto")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public SseEmitter streamStockBajo(
+            @Parameter(description = "ID de la sede; si no se envía se reciben todas") @RequestParam(required = false) Long sedeId) {
+        return alertasStockBajoSse.suscribir(sedeId, () -> inventarioUseCase.findAlertasStockBajo(sedeId));
+    }
+
     @PostMapping
     @Operation(summary = "Crear nuevo inventario", description = "Crea un nuevo registro de inventario")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR')")
@@ -129,6 +198,59 @@ public class InventarioController {
         return ResponseEntity.ok(ApiResponse.success(inventario));
     }
 
+    @PostMapping("/transferencias")
+    @Operation(summary = "Transferir stock entre sedes",
+               description = "Mueve varios productos de una sede a otra en una sola transacción; crea el inventario de destino si no existe")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<TransferenciaStockResponseDTO>> transferirStock(
+            @Valid @RequestBody TransferenciaStockRequestDTO request) {
+        TransferenciaStockResponseDTO transferencia = inventarioUseCase.transferirStock(request);
+        return ResponseEntity.ok(ApiResponse.success(transferencia,
+            String.format("%d unidades transferidas de la sede %d a la sede %d", transferencia.getUnidadesTransferidas(),
+                transferencia.getSedeOrigenId(), transferencia.getSedeDestinoId())));
+    }
+
+    @PostMapping(value = "/sede/{sedeId}/conteo", consumes = "text/csv")
+    @Operation(summary = "Conciliar conteo físico (CSV)",
+               description = "Fija el stock de la sede a las cantidades contadas en una sola operación y retorna las diferencias. " +
+                             "Cuerpo CSV con columnas productoId,cantidadContada y cabecera opcional; las líneas repetidas de un producto se suman")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<ConciliacionInventarioResponseDTO>> conciliarConteoCsv(
+            @Parameter(description = "ID de la sede") @PathVariable Long sedeId,
+            @Parameter(description = "Motivo del ajuste") @RequestParam(required = false) String motivo,
+            InputStream contenido) {
+        return conciliarConteo(sedeId, contenido, FormatoConteo.CSV, motivo);
+    }
+
+    @PostMapping(value = "/sede/{sedeId}/conteo", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Conciliar conteo físico (JSON)",
+               description = "Igual que la versión CSV con un arreglo JSON de objetos {productoId, cantidadContada}")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<ConciliacionInventarioResponseDTO>> conciliarConteoJson(
+            @Parameter(description = "ID de la sede") @PathVariable Long sedeId,
+            @Parameter(description = "Motivo del ajuste") @RequestParam(required = false) String motivo,
+            InputStream contenido) {
+        return conciliarConteo(sedeId, contenido, FormatoConteo.JSON, motivo);
+    }
+
+    private ResponseEntity<ApiResponse<ConciliacionInventarioResponseDTO>> conciliarConteo(
+            Long sedeId, InputStream contenido, FormatoConteo formato, String motivo) {
+        ConciliacionInventarioResponseDTO conciliacion = inventarioUseCase.conciliarConteo(sedeId, contenido, formato, motivo);
+        return ResponseEntity.ok(ApiResponse.success(conciliacion,
+            String.format("%d productos ajustados, %d sin diferencia", conciliacion.getProductosAjustados(),
+                conciliacion.getProductosSinDiferencia())));
+    }
+
+    @PutMapping("/{id}/stock-minimo")
+    @Operation(summary = "Actualizar stock mínimo", description = "Define el stock mínimo del inventario en su sede; sin valor vuelve a aplicar el del producto")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<InventarioResponseDTO>> updateStockMinimo(
+            @Parameter(description = "ID del inventario") @PathVariable Long id,
+            @Valid @RequestBody StockMinimoDTO request) {
+        InventarioResponseDTO inventario = inventarioUseCase.updateStockMinimo(id, request);
+        return ResponseEntity.ok(ApiResponse.success(inventario));
+    }
+
     @PutMapping("/{id}/adjust-stock")
     @Operation(summary = "Ajustar stock", description = "Ajusta la cantidad en inventario (puede ser positivo o negativo)")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR')")
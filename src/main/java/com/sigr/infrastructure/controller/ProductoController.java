@@ -1,5 +1,11 @@
 package com.sigr.infrastructure.controller;
 
+import com.sigr.application.dto.producto.CacheEstadisticasDTO;
+import com.sigr.application.dto.producto.CambiosCatalogoDTO;
+import com.sigr.application.dto.producto.CodigoBarraBatchRequestDTO;
+import com.sigr.application.dto.producto.CodigoBarraBatchResponseDTO;
+import com.sigr.application.dto.producto.ImportacionProductosResponseDTO;
+import com.sigr.application.dto.producto.ProductoBusquedaDTO;
 import com.sigr.application.dto.producto.ProductoRequestDTO;
 import com.sigr.application.dto.producto.ProductoResponseDTO;
 import com.sigr.application.dto.producto.ProductoUpdateDTO;
@@ -20,7 +26,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -47,10 +55,12 @@ public class ProductoController {
     }
 
     @GetMapping("/paginated")
-    @Operation(summary = "Obtener productos paginados", description = "Retorna una página de productos")
+    @Operation(summary = "Obtener productos paginados", description = "Retorna una página de productos o de los productos con stock en una sede")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
-    public ResponseEntity<ApiResponse<PagedResponse<ProductoResponseDTO>>> getAllProductosPaginated(Pageable pageable) {
-        Page<ProductoResponseDTO> productosPage = productoUseCase.findAllPaginated(pageable);
+    public ResponseEntity<ApiResponse<PagedResponse<ProductoResponseDTO>>> getAllProductosPaginated(
+            @Parameter(description = "ID de la sede (opcional)") @RequestParam(required = false) Long sedeId,
+            Pageable pageable) {
+        Page<ProductoResponseDTO> productosPage = productoUseCase.findAllPaginated(sedeId, pageable);
         PagedResponse<ProductoResponseDTO> pagedResponse = PagedResponse.of(productosPage);
         return ResponseEntity.ok(ApiResponse.success(pagedResponse));
     }
@@ -73,6 +83,22 @@ public class ProductoController {
         return ResponseEntity.ok(ApiResponse.success(producto));
     }
 
+    @PostMapping("/codigo-barra/batch")
+    @Operation(summary = "Resolver códigos de barras en lote", description = "Resuelve en una sola llamada todos los códigos escaneados de una canasta; los no encontrados se listan aparte")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<CodigoBarraBatchResponseDTO>> getProductosByCodigosBarra(
+            @Valid @RequestBody CodigoBarraBatchRequestDTO request) {
+        CodigoBarraBatchResponseDTO resultado = productoUseCase.findByCodigosBarra(request.getCodigosBarra());
+        return ResponseEntity.ok(ApiResponse.success(resultado));
+    }
+
+    @GetMapping("/codigo-barra/cache/estadisticas")
+    @Operation(summary = "Estadísticas de la caché de códigos de barras", description = "Aciertos, fallos y desalojos de la caché de este nodo")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<ApiResponse<CacheEstadisticasDTO>> getEstadisticasCacheCodigoBarra() {
+        return ResponseEntity.ok(ApiResponse.success(productoUseCase.findEstadisticasCacheCodigoBarra()));
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Buscar productos por nombre", description = "Busca productos que contengan el texto especificado en el nombre")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
@@ -82,6 +108,34 @@ public class ProductoController {
         return ResponseEntity.ok(ApiResponse.success(productos));
     }
 
+    @GetMapping("/typeahead")
+    @Operation(summary = "Autocompletar productos", description = "Busca por nombre, descripción o código de barras en el índice en memoria, ordenado por relevancia")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<List<ProductoBusquedaDTO>>> typeaheadProductos(
+            @Parameter(description = "Texto escrito hasta el momento") @RequestParam String q,
+            @Parameter(description = "ID de la sede para devolver sólo productos con stock (opcional)") @RequestParam(required = false) Long sedeId,
+            @Parameter(description = "Cantidad máxima de resultados (por defecto 10, máximo 50)") @RequestParam(required = false) Integer limit) {
+        List<ProductoBusquedaDTO> productos = productoUseCase.buscar(q, sedeId, limit);
+        return ResponseEntity.ok(ApiResponse.success(productos));
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Sincronizar catálogo", description = "Productos modificados y eliminados desde la versión indicada; " +
+               "sin versión o con una desconocida devuelve el catálogo completo. Responde 304 si el ETag enviado en " +
+               "If-None-Match coincide con la versión vigente")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<CambiosCatalogoDTO>> getCambiosCatalogo(
+            @Parameter(description = "Última versión del catálogo que tiene el terminal (opcional)") @RequestParam(required = false) Long since,
+            WebRequest webRequest) {
+        long version = productoUseCase.findVersionCatalogo();
+        String etag = "\"" + version + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        CambiosCatalogoDTO cambios = productoUseCase.findCambiosCatalogo(since, version);
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(cambios));
+    }
+
     @GetMapping("/categoria/{categoriaId}")
     @Operation(summary = "Obtener productos por categoría", description = "Retorna productos de una categoría específica")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
@@ -104,6 +158,21 @@ public class ProductoController {
                 .body(ApiResponse.success(producto, "Producto e inventario inicial creados exitosamente"));
     }
 
+    @PostMapping(value = "/importacion", consumes = "text/csv")
+    @Operation(summary = "Importar catálogo de productos (CSV)",
+               description = "Crea los productos del CSV con su inventario inicial en la sede. Cabecera con columnas " +
+                             "codigoBarra,nombre,descripcion,precioCompra,precioVenta,categoriaId,marcaId,proveedorId,stockMinimo,cantidadInicial " +
+                             "en cualquier orden; las filas inválidas se informan con su número de línea y no se importan")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<ApiResponse<ImportacionProductosResponseDTO>> importarProductosCsv(
+            @Parameter(description = "ID de la sede del inventario inicial") @RequestParam Long sedeId,
+            InputStream contenido) {
+        ImportacionProductosResponseDTO importacion = productoUseCase.importarCsv(sedeId, contenido);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(importacion,
+            String.format("%d productos importados, %d filas con error", importacion.getProductosCreados(),
+                importacion.getFilasConError())));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar producto", description = "Actualiza un producto existente")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR') or hasRole('VENDEDOR')")
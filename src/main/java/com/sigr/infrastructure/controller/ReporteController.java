@@ -14,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -85,6 +86,30 @@ public class ReporteController {
         return ResponseEntity.ok(ApiResponse.success(productos));
     }
 
+    @GetMapping("/productos-mas-vendidos/hoy")
+    @Operation(summary = "Productos más vendidos hoy", description = "Ranking aproximado en memoria del día en curso para widgets en vivo; cada producto informa su error máximo")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<List<ProductoTopVentaDTO>>> obtenerTopVentasDelDia(
+            @Parameter(description = "ID de la sede")
+            @RequestParam Long sedeId,
+            @Parameter(description = "Límite de resultados", example = "10")
+            @RequestParam(defaultValue = "10") Integer limite) {
+        List<ProductoTopVentaDTO> productos = reporteUseCase.obtenerTopVentasDelDia(sedeId, limite);
+        return ResponseEntity.ok(ApiResponse.success(productos));
+    }
+
+    @GetMapping("/productos-mas-vendidos/mes-actual")
+    @Operation(summary = "Productos más vendidos del mes", description = "Ranking aproximado en memoria del mes en curso para widgets en vivo; cada producto informa su error máximo")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<List<ProductoTopVentaDTO>>> obtenerTopVentasDelMes(
+            @Parameter(description = "ID de la sede")
+            @RequestParam Long sedeId,
+            @Parameter(description = "Límite de resultados", example = "10")
+            @RequestParam(defaultValue = "10") Integer limite) {
+        List<ProductoTopVentaDTO> productos = reporteUseCase.obtenerTopVentasDelMes(sedeId, limite);
+        return ResponseEntity.ok(ApiResponse.success(productos));
+    }
+
     @GetMapping("/productos-stock-bajo")
     @Operation(summary = "Obtener productos con stock bajo", description = "Obtiene los productos con stock bajo por sede")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
@@ -141,4 +166,16 @@ public class ReporteController {
         ReporteInventarioDTO reporte = reporteUseCase.generarReporteInventarioCompleto();
         return ResponseEntity.ok(ApiResponse.success(reporte));
     }
+
+    @PostMapping("/resumenes/reconstruir")
+    @Operation(summary = "Reconstruir resúmenes diarios de ventas", description = "Recalcula desde las ventas los resúmenes diarios usados por el dashboard y los reportes (carga inicial o corrección)")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<ApiResponse<Integer>> reconstruirResumenesDiarios(
+            @Parameter(description = "Fecha de inicio", example = "2024-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @Parameter(description = "Fecha de fin", example = "2024-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
+        int filas = reporteUseCase.reconstruirResumenesDiarios(fechaInicio, fechaFin);
+        return ResponseEntity.ok(ApiResponse.success(filas, String.format("%d resúmenes sede-día reconstruidos", filas)));
+    }
 }
\ No newline at end of file
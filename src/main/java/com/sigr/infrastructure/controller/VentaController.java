@@ -3,6 +3,13 @@ package com.sigr.infrastructure.controller;
 import com.sigr.application.dto.venta.VentaRequestDTO;
 import com.sigr.application.dto.venta.VentaResponseDTO;
 import com.sigr.application.dto.venta.VentaDescripcionDTO;
+import com.sigr.application.dto.venta.VentaCursorPageDTO;
+import com.sigr.application.dto.venta.VentaBatchRequestDTO;
+import com.sigr.application.dto.venta.VentaBatchResponseDTO;
+import com.sigr.application.dto.venta.AnulacionMasivaRequestDTO;
+import com.sigr.application.dto.venta.AnulacionMasivaResponseDTO;
+import com.sigr.application.dto.venta.FormatoExportacion;
+import com.sigr.application.port.in.VentaExportUseCase;
 import com.sigr.application.port.in.VentaUseCase;
 import com.sigr.infrastructure.common.response.ApiResponse;
 import com.sigr.infrastructure.common.response.PagedResponse;
@@ -16,13 +23,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/ventas")
@@ -32,6 +43,7 @@ import java.util.List;
 public class VentaController {
 
     private final VentaUseCase ventaUseCase;
+    private final VentaExportUseCase ventaExportUseCase;
 
     @GetMapping
     @Operation(summary = "Obtener todas las ventas paginadas", description = "Retorna una página de ventas con parámetros de paginación")
@@ -46,11 +58,59 @@ public class VentaController {
     @Operation(summary = "Crear nueva venta", description = "Crea una nueva venta en el sistema")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
     public ResponseEntity<ApiResponse<VentaResponseDTO>> createVenta(
+            @Parameter(description = "Clave única por venta para reintentos seguros")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody VentaRequestDTO request) {
-        VentaResponseDTO venta = ventaUseCase.crearVenta(request);
+        VentaResponseDTO venta = ventaUseCase.crearVenta(request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(venta));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Crear ventas en lote", description = "Registra miles de ventas en una sola llamada (sincronización de POS sin conexión) y reporta el resultado de cada una")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<VentaBatchResponseDTO>> createVentasBatch(
+            @Valid @RequestBody VentaBatchRequestDTO request) {
+        VentaBatchResponseDTO resultado = ventaUseCase.crearVentasEnLote(request.getVentas());
+        return ResponseEntity.ok(ApiResponse.success(resultado,
+            String.format("%d ventas creadas, %d rechazadas", resultado.getVentasCreadas(), resultado.getVentasRechazadas())));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar ventas", description = "Descarga en streaming las ventas de una sede en un rango de fechas con sus detalles, en CSV o NDJSON y opcionalmente comprimidas con gzip")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<StreamingResponseBody> exportarVentas(
+            @Parameter(description = "ID de la sede") @RequestParam Long sedeId,
+            @Parameter(description = "Fecha de inicio", example = "2024-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @Parameter(description = "Fecha de fin", example = "2024-01-31T23:59:59")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @Parameter(description = "Formato de salida") @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            @Parameter(description = "Comprimir la respuesta con gzip") @RequestParam(defaultValue = "false") boolean gzip) {
+        ventaExportUseCase.validarExportacion(sedeId, fechaInicio, fechaFin);
+
+        StreamingResponseBody cuerpo = salida -> {
+            if (gzip) {
+                GZIPOutputStream comprimido = new GZIPOutputStream(salida, 8192, true);
+                ventaExportUseCase.exportarVentas(sedeId, fechaInicio, fechaFin, formato, comprimido);
+                comprimido.finish();
+            } else {
+                ventaExportUseCase.exportarVentas(sedeId, fechaInicio, fechaFin, formato, salida);
+            }
+        };
+
+        String extension = formato == FormatoExportacion.NDJSON ? "ndjson" : "csv";
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(formato == FormatoExportacion.NDJSON
+                        ? MediaType.parseMediaType("application/x-ndjson")
+                        : MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        String.format("attachment; filename=\"ventas-sede-%d.%s\"", sedeId, extension));
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(cuerpo);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener venta por ID", description = "Retorna una venta específica por su ID")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
@@ -117,6 +177,16 @@ public class VentaController {
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
+    @PostMapping("/anulaciones")
+    @Operation(summary = "Anular ventas en bloque", description = "Anula varias ventas y devuelve su stock en una sola transacción")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<AnulacionMasivaResponseDTO>> anularVentas(
+            @Valid @RequestBody AnulacionMasivaRequestDTO request) {
+        AnulacionMasivaResponseDTO resumen = ventaUseCase.anularVentas(request.getVentaIds());
+        return ResponseEntity.ok(ApiResponse.success(resumen,
+            String.format("%d ventas anuladas, %d omitidas", resumen.getVentasAnuladas().size(), resumen.getVentasOmitidas().size())));
+    }
+
     @GetMapping("/sede/{sedeId}/hoy")
     @Operation(summary = "Obtener ventas del día", description = "Obtiene las ventas del día actual de una sede")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
@@ -147,6 +217,57 @@ public class VentaController {
         return ResponseEntity.ok(ApiResponse.success(pagedResponse));
     }
 
+    @GetMapping("/sede/{sedeId}/cursor")
+    @Operation(summary = "Obtener ventas por sede (cursor)", description = "Paginación por cursor (fecha, id) descendente; usar nextCursor para la página siguiente")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<VentaCursorPageDTO>> getVentasBySedeCursor(
+            @Parameter(description = "ID de la sede") @PathVariable Long sedeId,
+            @Parameter(description = "Fecha desde (opcional)", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaDesde,
+            @Parameter(description = "Fecha hasta (opcional)", example = "2024-01-31T23:59:59")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaHasta,
+            @Parameter(description = "Cursor de la página anterior (vacío para la primera)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(defaultValue = "20") Integer size) {
+        VentaCursorPageDTO ventas = ventaUseCase.obtenerVentasPorSedeCursor(sedeId, fechaDesde, fechaHasta, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(ventas));
+    }
+
+    @GetMapping("/fecha/cursor")
+    @Operation(summary = "Obtener ventas por rango de fechas (cursor)", description = "Paginación por cursor (fecha, id) descendente")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<VentaCursorPageDTO>> getVentasByFechaCursor(
+            @Parameter(description = "Fecha de inicio", example = "2024-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @Parameter(description = "Fecha de fin", example = "2024-01-31T23:59:59")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @Parameter(description = "Cursor de la página anterior (vacío para la primera)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(defaultValue = "20") Integer size) {
+        VentaCursorPageDTO ventas = ventaUseCase.obtenerVentasPorFechaCursor(fechaInicio, fechaFin, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(ventas));
+    }
+
+    @GetMapping("/usuario/{usuarioId}/cursor")
+    @Operation(summary = "Obtener ventas por usuario (cursor)", description = "Paginación por cursor (fecha, id) descendente")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<VentaCursorPageDTO>> getVentasByUsuarioCursor(
+            @Parameter(description = "ID del usuario") @PathVariable Long usuarioId,
+            @Parameter(description = "Cursor de la página anterior (vacío para la primera)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(defaultValue = "20") Integer size) {
+        VentaCursorPageDTO ventas = ventaUseCase.obtenerVentasPorUsuarioCursor(usuarioId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(ventas));
+    }
+
+    @GetMapping("/pendientes-por-entregar/cursor")
+    @Operation(summary = "Obtener ventas pendientes por entregar (cursor)", description = "Paginación por cursor (fecha, id) descendente, opcionalmente filtrada por sede")
+    @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
+    public ResponseEntity<ApiResponse<VentaCursorPageDTO>> getVentasPendientesPorEntregarCursor(
+            @Parameter(description = "ID de la sede (opcional)") @RequestParam(required = false) Long sedeId,
+            @Parameter(description = "Cursor de la página anterior (vacío para la primera)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(defaultValue = "20") Integer size) {
+        VentaCursorPageDTO ventas = ventaUseCase.obtenerVentasPendientesPorEntregarCursor(sedeId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(ventas));
+    }
+
     @PatchMapping("/{id}/fecha-entrega")
     @Operation(summary = "Actualizar fecha de entrega", description = "Actualiza la fecha de entrega de una venta")
     @PreAuthorize("hasRole('ADMINISTRADOR') or hasRole('VENDEDOR') or hasRole('SUPERVISOR')")
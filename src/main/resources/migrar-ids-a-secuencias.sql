@@ -0,0 +1,33 @@
+-- Script para migrar las tablas de alto volumen de IDENTITY a secuencias con asignación por bloques
+-- Ejecutar UNA VEZ sobre la base existente ANTES de desplegar la versión que usa @SequenceGenerator.
+-- Si la nueva versión arrancó primero, ddl-auto: update ya creó las secuencias desde 1 y la columna id sigue
+-- siendo IDENTITY: volver a ejecutar el script completo (es idempotente) para reposicionarlas con setval.
+-- JdbcSequenceAllocator impide arrancar mientras alguna secuencia esté por detrás de MAX(id) de su tabla.
+-- Con IDENTITY Hibernate no puede agrupar INSERTs en lotes JDBC; con secuencias pooled sí.
+--
+-- El INCREMENT BY de cada secuencia es el tamaño de asignación (allocationSize) que usa Hibernate
+-- (hibernate.id.sequence.increment_size_mismatch_strategy = fix). Para cambiarlo basta con
+-- ALTER SEQUENCE <tabla>_seq INCREMENT BY <n>; y reiniciar la aplicación.
+--
+-- Hibernate interpreta cada valor v de la secuencia como el límite superior del bloque (v - n + 1 .. v),
+-- por eso la secuencia se posiciona en MAX(id) + n.
+
+DO $$
+DECLARE
+    tabla TEXT;
+    incremento INTEGER := 50;
+    max_id BIGINT;
+BEGIN
+    FOREACH tabla IN ARRAY ARRAY['venta', 'detalle_venta', 'ingreso_producto', 'detalle_ingreso', 'inventario', 'usuario_rol']
+    LOOP
+        -- Quitar IDENTITY (o el DEFAULT de un serial) de la columna id
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', tabla);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', tabla);
+
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY %s', tabla || '_seq', incremento);
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', tabla) INTO max_id;
+        PERFORM setval(tabla || '_seq', max_id + incremento, false);
+
+        RAISE NOTICE 'Tabla % migrada: secuencia %_seq desde %', tabla, tabla, max_id + incremento;
+    END LOOP;
+END $$;
\ No newline at end of file
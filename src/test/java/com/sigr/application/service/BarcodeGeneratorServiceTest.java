@@ -0,0 +1,95 @@
+package com.sigr.application.service;
+
+import com.sigr.application.port.output.SecuenciaCodigoBarraRepositoryPort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BarcodeGeneratorServiceTest {
+
+    private final SecuenciasEnMemoria secuencias = new SecuenciasEnMemoria();
+
+    @Test
+    void trasReiniciarContinuaDespuesDelBloqueReservadoSinRepetir() {
+        BarcodeGeneratorService antes = new BarcodeGeneratorService(secuencias, 100);
+        List<String> primeros = antes.generateEAN13(3L, 5);
+
+        // Un nodo nuevo (o el mismo reiniciado) no conoce el bloque en memoria: reserva el siguiente
+        BarcodeGeneratorService despues = new BarcodeGeneratorService(secuencias, 100);
+        List<String> segundos = despues.generateEAN13(3L, 5);
+
+        assertThat(numeros(primeros)).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(numeros(segundos)).containsExactly(106L, 107L, 108L, 109L, 110L);
+        assertThat(secuencias.reservas).isEqualTo(2);
+    }
+
+    @Test
+    void variosCodigosDeUnaVezUsanUnaSolaReserva() {
+        BarcodeGeneratorService generador = new BarcodeGeneratorService(secuencias, 100);
+
+        List<String> codigos = generador.generateEAN13(3L, 250);
+        codigos.addAll(generador.generateEAN13(3L, 100));
+
+        assertThat(secuencias.reservas).isEqualTo(1);
+        assertThat(new HashSet<>(codigos)).hasSize(350);
+        assertThat(codigos).allMatch(generador::isValidEAN13);
+    }
+
+    @Test
+    void serieNuevaEmpiezaDespuesDelMayorCodigoExistente() {
+        secuencias.existentes.add("7750003000427");
+        secuencias.existentes.add("7750003000019");
+        // Otra categoría y un código fuera del formato de la serie no cuentan
+        secuencias.existentes.add("7750004009990");
+        secuencias.existentes.add("77500030009");
+        BarcodeGeneratorService generador = new BarcodeGeneratorService(secuencias, 100);
+
+        assertThat(numeros(generador.generateEAN13(3L, 2))).containsExactly(43L, 44L);
+        assertThat(generador.generateInternalCode()).endsWith("-000001");
+    }
+
+    private static List<Long> numeros(List<String> codigos) {
+        List<Long> numeros = new ArrayList<>();
+        for (String codigo : codigos) {
+            numeros.add(Long.parseLong(codigo.substring(7, 12)));
+        }
+        return numeros;
+    }
+
+    /**
+     * Tabla secuencia_codigo_barra sobre códigos de producto existentes, con la misma semántica que el adaptador JDBC.
+     */
+    private static final class SecuenciasEnMemoria implements SecuenciaCodigoBarraRepositoryPort {
+
+        private final Map<String, Long> ultimos = new HashMap<>();
+        private final Set<String> existentes = new HashSet<>();
+        private int reservas;
+
+        @Override
+        public long reservarBloque(String clave, int tamano, String prefijo, String patron) {
+            reservas++;
+            return ultimos.merge(clave, mayorExistente(prefijo, Pattern.compile(patron)) + tamano,
+                    (ultimo, semilla) -> ultimo + tamano);
+        }
+
+        private long mayorExistente(String prefijo, Pattern patron) {
+            long mayor = 0;
+            for (String codigo : existentes) {
+                Matcher matcher = patron.matcher(codigo);
+                if (codigo.startsWith(prefijo) && matcher.matches()) {
+                    mayor = Math.max(mayor, Long.parseLong(matcher.group(1)));
+                }
+            }
+            return mayor;
+        }
+    }
+}
\ No newline at end of file
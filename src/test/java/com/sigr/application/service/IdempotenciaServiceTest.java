@@ -0,0 +1,114 @@
+package com.sigr.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigr.application.dto.producto.ErrorImportacionDTO;
+import com.sigr.application.port.output.ClaveIdempotenciaRepositoryPort;
+import com.sigr.domain.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotenciaServiceTest {
+
+    @Mock
+    private ClaveIdempotenciaRepositoryPort claveIdempotenciaRepositoryPort;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final TransactionStatus status = mock(TransactionStatus.class);
+    private IdempotenciaService idempotenciaService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(status);
+        idempotenciaService = new IdempotenciaService(claveIdempotenciaRepositoryPort, new ObjectMapper(),
+                transactionManager, 100, 24);
+    }
+
+    @Test
+    void sinClaveEjecutaLaAccionDentroDeUnaTransaccion() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        ErrorImportacionDTO respuesta = idempotenciaService.ejecutar("VENTA", null, "solicitud",
+                ErrorImportacionDTO.class, () -> {
+                    // La transacción ya está abierta cuando corre la acción
+                    verify(transactionManager).getTransaction(any(TransactionDefinition.class));
+                    ejecuciones.incrementAndGet();
+                    return new ErrorImportacionDTO(1, "123", "ok");
+                });
+
+        assertThat(respuesta.getMensaje()).isEqualTo("ok");
+        assertThat(ejecuciones).hasValue(1);
+        InOrder orden = inOrder(transactionManager);
+        orden.verify(transactionManager).getTransaction(any(TransactionDefinition.class));
+        orden.verify(transactionManager).commit(status);
+        verify(claveIdempotenciaRepositoryPort, never()).reservar(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void conClaveBlancaTambienAbreTransaccion() {
+        idempotenciaService.ejecutar("VENTA", "  ", "solicitud", ErrorImportacionDTO.class,
+                () -> new ErrorImportacionDTO(1, "123", "ok"));
+
+        verify(transactionManager).commit(status);
+    }
+
+    @Test
+    void sinClaveLaExcepcionDeLaAccionRevierteLaTransaccion() {
+        assertThatThrownBy(() -> idempotenciaService.ejecutar("VENTA", null, "solicitud", ErrorImportacionDTO.class,
+                () -> {
+                    throw new BusinessException("Stock insuficiente");
+                })).isInstanceOf(BusinessException.class);
+
+        verify(transactionManager).rollback(status);
+        verify(transactionManager, never()).commit(status);
+    }
+
+    @Test
+    void conClaveElReintentoDevuelveLaRespuestaGuardadaSinRepetirLaAccion() {
+        when(claveIdempotenciaRepositoryPort.reservar(eq("VENTA:clave-1"), eq("VENTA"), anyString())).thenReturn(true);
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        ErrorImportacionDTO primera = idempotenciaService.ejecutar("VENTA", "clave-1", "solicitud",
+                ErrorImportacionDTO.class, () -> new ErrorImportacionDTO(ejecuciones.incrementAndGet(), "123", "ok"));
+        ErrorImportacionDTO reintento = idempotenciaService.ejecutar("VENTA", "clave-1", "solicitud",
+                ErrorImportacionDTO.class, () -> new ErrorImportacionDTO(ejecuciones.incrementAndGet(), "123", "ok"));
+
+        assertThat(ejecuciones).hasValue(1);
+        assertThat(reintento).isEqualTo(primera);
+        verify(claveIdempotenciaRepositoryPort, times(1)).reservar(anyString(), anyString(), anyString());
+        verify(claveIdempotenciaRepositoryPort).guardarRespuesta(eq("VENTA:clave-1"), anyString());
+    }
+
+    @Test
+    void conClaveReusadaConOtraSolicitudRechazaLaOperacion() {
+        when(claveIdempotenciaRepositoryPort.reservar(eq("VENTA:clave-2"), eq("VENTA"), anyString())).thenReturn(true);
+        idempotenciaService.ejecutar("VENTA", "clave-2", "solicitud", ErrorImportacionDTO.class,
+                () -> new ErrorImportacionDTO(1, "123", "ok"));
+
+        assertThatThrownBy(() -> idempotenciaService.ejecutar("VENTA", "clave-2", "otra solicitud",
+                ErrorImportacionDTO.class, () -> new ErrorImportacionDTO(2, "456", "ok")))
+                .isInstanceOf(BusinessException.class);
+    }
+}
\ No newline at end of file
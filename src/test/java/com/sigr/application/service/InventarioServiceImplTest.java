@@ -0,0 +1,181 @@
+package com.sigr.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sigr.application.dto.inventario.ConciliacionInventarioResponseDTO;
+import com.sigr.application.dto.inventario.DiferenciaInventarioDTO;
+import com.sigr.application.dto.inventario.FormatoConteo;
+import com.sigr.application.dto.inventario.StockAdjustmentDTO;
+import com.sigr.application.mapper.InventarioMapper;
+import com.sigr.application.port.output.InventarioRepositoryPort;
+import com.sigr.application.port.output.MovimientoInventarioRepositoryPort;
+import com.sigr.application.port.output.ProductoRepositoryPort;
+import com.sigr.application.port.output.SedeRepositoryPort;
+import com.sigr.application.port.output.TransferenciaStockRepositoryPort;
+import com.sigr.domain.entity.Inventario;
+import com.sigr.domain.entity.Producto;
+import com.sigr.domain.entity.Sede;
+import com.sigr.domain.exception.BusinessException;
+import com.sigr.domain.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventarioServiceImplTest {
+
+    private static final Long SEDE = 1L;
+
+    @Mock
+    private InventarioRepositoryPort inventarioRepositoryPort;
+    @Mock
+    private ProductoRepositoryPort productoRepositoryPort;
+    @Mock
+    private SedeRepositoryPort sedeRepositoryPort;
+    @Mock
+    private MovimientoInventarioRepositoryPort movimientoInventarioRepositoryPort;
+    @Mock
+    private TransferenciaStockRepositoryPort transferenciaStockRepositoryPort;
+    @Mock
+    private InventarioMapper inventarioMapper;
+    @Mock
+    private KardexService kardexService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InventarioServiceImpl inventarioService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any(TransactionDefinition.class)))
+                .thenReturn(mock(TransactionStatus.class));
+        inventarioService = new InventarioServiceImpl(inventarioRepositoryPort, productoRepositoryPort, sedeRepositoryPort,
+                movimientoInventarioRepositoryPort, transferenciaStockRepositoryPort, inventarioMapper, kardexService,
+                new ObjectMapper(), new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void conteoCsvAceptaBomYCabeceraEnCualquierOrden() {
+        when(sedeRepositoryPort.existsById(SEDE)).thenReturn(true);
+        when(inventarioRepositoryPort.aplicarConteo(SEDE, Map.of(10L, 8)))
+                .thenReturn(List.of(new DiferenciaInventarioDTO(10L, 6, 8, 2)));
+
+        ConciliacionInventarioResponseDTO respuesta = inventarioService.conciliarConteo(SEDE,
+                csv("\uFEFFcantidadContada;productoId\n5;10\n\n3;10\n"), FormatoConteo.CSV, null);
+
+        assertThat(respuesta.getProductosAjustados()).isEqualTo(1);
+        assertThat(respuesta.getUnidadesSobrantes()).isEqualTo(2L);
+    }
+
+    @Test
+    void conteoCsvSinCabeceraLeeLaPrimeraFilaComoDatos() {
+        when(sedeRepositoryPort.existsById(SEDE)).thenReturn(true);
+        when(inventarioRepositoryPort.aplicarConteo(SEDE, Map.of(7L, 4, 9L, 0))).thenReturn(List.of());
+
+        inventarioService.conciliarConteo(SEDE, csv("7,4\n9,0\n"), FormatoConteo.CSV, null);
+
+        verify(inventarioRepositoryPort).aplicarConteo(SEDE, Map.of(7L, 4, 9L, 0));
+    }
+
+    @Test
+    void conteoCsvInvalidoSeRechazaSinAbrirLaTransaccion() {
+        when(sedeRepositoryPort.existsById(SEDE)).thenReturn(true);
+
+        assertThatThrownBy(() -> inventarioService.conciliarConteo(SEDE,
+                csv("productoId,cantidadContada\n1,5\n2,x\n"), FormatoConteo.CSV, null))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("Línea 3");
+        verify(transactionManager, never()).getTransaction(any());
+        verify(inventarioRepositoryPort, never()).aplicarConteo(any(), any());
+    }
+
+    @Test
+    void filasRepetidasQueDesbordanLaCantidadIndicanLaLinea() {
+        when(sedeRepositoryPort.existsById(SEDE)).thenReturn(true);
+
+        assertThatThrownBy(() -> inventarioService.conciliarConteo(SEDE,
+                csv("1,2147483000\n2,1\n1,1000\n"), FormatoConteo.CSV, null))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("Línea 3")
+                .hasMessageContaining("producto 1");
+    }
+
+    @Test
+    void cabeceraConUnaColumnaDesconocidaSeRechaza() {
+        when(sedeRepositoryPort.existsById(SEDE)).thenReturn(true);
+
+        assertThatThrownBy(() -> inventarioService.conciliarConteo(SEDE,
+                csv("productoId,cantidad\n1,5\n"), FormatoConteo.CSV, null))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("Línea 1");
+    }
+
+    @Test
+    void descuentoSinStockSuficienteSeRechazaSinRegistrarMovimiento() {
+        Inventario inventario = inventario(50L, 10L, 3);
+        when(inventarioRepositoryPort.findById(50L)).thenReturn(Optional.of(inventario));
+        when(sedeRepositoryPort.existsById(SEDE)).thenReturn(true);
+        when(inventarioRepositoryPort.descontarStock(10L, SEDE, 5)).thenReturn(false);
+        StockAdjustmentDTO request = new StockAdjustmentDTO();
+        request.setSedeId(SEDE);
+        request.setCantidad(5);
+
+        assertThatThrownBy(() -> inventarioService.adjustStock(50L, request))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Stock insuficiente")
+                .hasMessageContaining("Stock actual: 3");
+        verifyNoInteractions(kardexService);
+    }
+
+    @Test
+    void ajusteNegativoMayorQueElStockSeRechaza() {
+        when(inventarioRepositoryPort.findById(50L)).thenReturn(Optional.of(inventario(50L, 10L, 3)));
+        when(inventarioRepositoryPort.descontarStock(10L, SEDE, 4)).thenReturn(false);
+
+        assertThatThrownBy(() -> inventarioService.adjustStock(50L, -4, "merma"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("cantidad negativa");
+        verify(inventarioRepositoryPort, never()).incrementarStock(any(), any(), anyInt());
+        verifyNoInteractions(kardexService);
+    }
+
+    private static Inventario inventario(Long id, Long productoId, int cantidad) {
+        Producto producto = new Producto();
+        producto.setId(productoId);
+        Sede sede = new Sede();
+        sede.setId(SEDE);
+        Inventario inventario = new Inventario();
+        inventario.setId(id);
+        inventario.setProducto(producto);
+        inventario.setSede(sede);
+        inventario.setCantidad(cantidad);
+        return inventario;
+    }
+
+    private static InputStream csv(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
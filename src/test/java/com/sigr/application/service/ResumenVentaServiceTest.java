@@ -0,0 +1,59 @@
+package com.sigr.application.service;
+
+import com.sigr.application.port.out.ResumenVentaRepositoryPort;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResumenVentaServiceTest {
+
+    @Mock
+    private ResumenVentaRepositoryPort resumenVentaRepositoryPort;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ResumenVentaService resumenVentaService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(mock(TransactionStatus.class));
+        resumenVentaService = new ResumenVentaService(resumenVentaRepositoryPort, entityManager, transactionManager);
+    }
+
+    @Test
+    void reconstruyeCadaDiaEnSuPropiaTransaccion() {
+        LocalDate desde = LocalDate.of(2025, 12, 30);
+        when(resumenVentaRepositoryPort.reconstruir(any())).thenReturn(2);
+
+        int filas = resumenVentaService.reconstruir(desde, LocalDate.of(2026, 1, 1));
+
+        assertThat(filas).isEqualTo(6);
+        InOrder orden = inOrder(transactionManager, resumenVentaRepositoryPort);
+        for (LocalDate dia = desde; !dia.isAfter(LocalDate.of(2026, 1, 1)); dia = dia.plusDays(1)) {
+            orden.verify(transactionManager).getTransaction(any());
+            orden.verify(resumenVentaRepositoryPort).reconstruir(dia);
+            orden.verify(transactionManager).commit(any());
+        }
+        verify(transactionManager, times(3)).commit(any());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.sigr.application.service;
+
+import com.sigr.application.dto.venta.VentaCursorPageDTO;
+import com.sigr.application.dto.venta.VentaResponseDTO;
+import com.sigr.application.port.out.VentaConsultaRepositoryPort;
+import com.sigr.domain.entity.Sede;
+import com.sigr.domain.entity.Usuario;
+import com.sigr.domain.entity.Venta;
+import com.sigr.domain.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class VentaServiceImplTest {
+
+    private static final Long USUARIO = 7L;
+    private static final LocalDateTime HOY = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+    @Mock
+    private VentaConsultaRepositoryPort ventaConsultaRepositoryPort;
+
+    @InjectMocks
+    private VentaServiceImpl ventaService;
+
+    private final List<Venta> ventas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Keyset sobre (fecha, id) descendente con la misma semántica que las consultas del adaptador
+        lenient().when(ventaConsultaRepositoryPort.findIdsByUsuarioIdAfterCursor(eq(USUARIO), any(), any(), anyInt()))
+                .thenAnswer(invocacion -> {
+                    LocalDateTime fecha = invocacion.getArgument(1);
+                    Long id = invocacion.getArgument(2);
+                    int limite = invocacion.getArgument(3);
+                    return ventas.stream()
+                            .filter(venta -> venta.getFecha().isBefore(fecha)
+                                    || venta.getFecha().isEqual(fecha) && venta.getId() < id)
+                            .sorted(Comparator.comparing(Venta::getFecha).thenComparing(Venta::getId).reversed())
+                            .limit(limite)
+                            .map(Venta::getId)
+                            .toList();
+                });
+        lenient().when(ventaConsultaRepositoryPort.findAllByIdWithAsociaciones(anyList()))
+                .thenAnswer(invocacion -> {
+                    Collection<Long> ids = invocacion.getArgument(0);
+                    return ventas.stream().filter(venta -> ids.contains(venta.getId())).toList();
+                });
+        lenient().when(ventaConsultaRepositoryPort.findDetallesByVentaIds(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    void recorreTodasLasPaginasSinRepetirNiSaltarVentasConLaMismaFecha() {
+        // Tres ventas en el mismo instante: el id desempata y el corte de página cae entre ellas
+        venta(1L, HOY.minusDays(2));
+        venta(4L, HOY.minusDays(1));
+        venta(5L, HOY.minusDays(1));
+        venta(6L, HOY.minusDays(1));
+        venta(3L, HOY);
+
+        List<Long> vistos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        VentaCursorPageDTO pagina;
+        do {
+            pagina = ventaService.obtenerVentasPorUsuarioCursor(USUARIO, cursor, 2);
+            pagina.getContent().forEach(venta -> vistos.add(venta.getId()));
+            cursor = pagina.getNextCursor();
+            paginas++;
+        } while (pagina.isHasNext());
+
+        assertThat(vistos).containsExactly(3L, 6L, 5L, 4L, 1L);
+        assertThat(paginas).isEqualTo(3);
+        assertThat(pagina.getSize()).isEqualTo(1);
+        assertThat(pagina.getNextCursor()).isNull();
+    }
+
+    @Test
+    void ultimaPaginaCompletaNoTieneSiguiente() {
+        venta(1L, HOY.minusHours(2));
+        venta(2L, HOY.minusHours(1));
+
+        VentaCursorPageDTO pagina = ventaService.obtenerVentasPorUsuarioCursor(USUARIO, null, 2);
+
+        assertThat(pagina.getContent()).extracting(VentaResponseDTO::getId).containsExactly(2L, 1L);
+        assertThat(pagina.isHasNext()).isFalse();
+        assertThat(pagina.getNextCursor()).isNull();
+    }
+
+    @Test
+    void sinVentasDevuelvePaginaVaciaSinCargarCabeceras() {
+        VentaCursorPageDTO pagina = ventaService.obtenerVentasPorUsuarioCursor(USUARIO, "", 20);
+
+        assertThat(pagina.getContent()).isEmpty();
+        assertThat(pagina.isHasNext()).isFalse();
+        verify(ventaConsultaRepositoryPort, never()).findAllByIdWithAsociaciones(anyList());
+    }
+
+    @Test
+    void tamanoFueraDeRangoSeAcotaEntreUnoYCien() {
+        ventaService.obtenerVentasPorUsuarioCursor(USUARIO, null, 0);
+        ventaService.obtenerVentasPorUsuarioCursor(USUARIO, null, 5000);
+
+        // Siempre se pide un registro extra para saber si hay página siguiente
+        verify(ventaConsultaRepositoryPort).findIdsByUsuarioIdAfterCursor(USUARIO, LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+                Long.MAX_VALUE, 2);
+        verify(ventaConsultaRepositoryPort).findIdsByUsuarioIdAfterCursor(USUARIO, LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+                Long.MAX_VALUE, 101);
+    }
+
+    @Test
+    void cursorInvalidoSeRechazaSinConsultar() {
+        for (String cursor : List.of("no es base64!", base64("2026-03-10T12:00"), base64("ayer|5"),
+                base64("2026-03-10T12:00|x"), base64("2026-03-10T12:00|5|9"))) {
+            assertThatThrownBy(() -> ventaService.obtenerVentasPorUsuarioCursor(USUARIO, cursor, 10))
+                    .as(cursor)
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("Cursor inválido");
+        }
+        verifyNoInteractions(ventaConsultaRepositoryPort);
+    }
+
+    private static String base64(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void venta(Long id, LocalDateTime fecha) {
+        Usuario usuario = new Usuario();
+        usuario.setId(USUARIO);
+        Sede sede = new Sede();
+        sede.setId(1L);
+        Venta venta = new Venta();
+        venta.setId(id);
+        venta.setFecha(fecha);
+        venta.setUsuario(usuario);
+        venta.setSede(sede);
+        venta.setEstado(true);
+        ventas.add(venta);
+    }
+}
\ No newline at end of file
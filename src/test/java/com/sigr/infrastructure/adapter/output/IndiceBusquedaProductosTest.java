@@ -0,0 +1,90 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.dto.producto.ProductoBusquedaDTO;
+import com.sigr.domain.entity.Producto;
+import com.sigr.domain.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceBusquedaProductosTest {
+
+    @Mock
+    private ProductoRepository productoRepository;
+    @Mock
+    private StockEnMemoria stockEnMemoria;
+    @Mock
+    private InstantaneasTransaccionales instantaneas;
+
+    private IndiceBusquedaProductos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBusquedaProductos(productoRepository, stockEnMemoria, instantaneas);
+        recargarCon(new InstantaneasTransaccionales.Instantanea(100, 100, Set.of()), List.of(producto(1L, "Tornillo")), () -> { });
+    }
+
+    @Test
+    void renombradoDuranteLaRecargaYNoVistoPorElSnapshotSeConserva() {
+        recargarCon(new InstantaneasTransaccionales.Instantanea(104, 110, Set.of(105L)), List.of(producto(1L, "Tornillo")),
+                () -> indexarEnTransaccion(105L, 1L, "Arandela"));
+
+        assertThat(nombres("arandela")).containsExactly("Arandela");
+        assertThat(nombres("tornillo")).isEmpty();
+    }
+
+    @Test
+    void bajaYaVistaPorElSnapshotNoResucitaNiSeDuplica() {
+        recargarCon(new InstantaneasTransaccionales.Instantanea(104, 110, Set.of()), List.of(producto(2L, "Tuerca")),
+                () -> {
+                    when(instantaneas.txidActual()).thenReturn(99L);
+                    indice.eliminar(1L);
+                });
+
+        assertThat(nombres("tornillo")).isEmpty();
+        assertThat(nombres("tuerca")).containsExactly("Tuerca");
+    }
+
+    private List<String> nombres(String texto) {
+        return indice.buscar(texto, null, 10).stream().map(ProductoBusquedaDTO::getNombre).toList();
+    }
+
+    private void indexarEnTransaccion(Long txid, Long id, String nombre) {
+        when(instantaneas.txidActual()).thenReturn(txid);
+        Producto producto = new Producto();
+        producto.setId(id);
+        producto.setNombre(nombre);
+        producto.setCodigoBarra("775" + id);
+        producto.setPrecioVenta(BigDecimal.ONE);
+        indice.indexar(producto);
+    }
+
+    private static ProductoBusquedaDTO producto(Long id, String nombre) {
+        return new ProductoBusquedaDTO(id, "775" + id, nombre, null, BigDecimal.ONE);
+    }
+
+    private void recargarCon(InstantaneasTransaccionales.Instantanea instantanea, List<ProductoBusquedaDTO> productosEnBd,
+                             Runnable duranteLaLectura) {
+        when(productoRepository.findAllParaBusqueda()).thenReturn(productosEnBd);
+        doAnswer(invocacion -> {
+            Supplier<?> consulta = invocacion.getArgument(0);
+            Object datos = consulta.get();
+            duranteLaLectura.run();
+            return new InstantaneasTransaccionales.Lectura<>(instantanea, datos);
+        }).when(instantaneas).leer(any());
+        indice.recargar();
+    }
+}
\ No newline at end of file
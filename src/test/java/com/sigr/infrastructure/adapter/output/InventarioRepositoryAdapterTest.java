@@ -0,0 +1,80 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.domain.repository.InventarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventarioRepositoryAdapterTest {
+
+    private static final Long SEDE = 2L;
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private StockEnMemoria stockEnMemoria;
+    @Mock
+    private JdbcSequenceAllocator sequenceAllocator;
+
+    private InventarioRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new InventarioRepositoryAdapter(inventarioRepository, jdbcTemplate, stockEnMemoria, sequenceAllocator);
+    }
+
+    @Test
+    void descuentoSinStockSuficienteNoSeAplicaNiTocaLaCopiaEnMemoria() {
+        // El UPDATE condicional no encuentra la fila cuando cantidad < 5
+        when(inventarioRepository.descontarStock(1L, SEDE, 5)).thenReturn(0);
+
+        assertThat(adapter.descontarStock(1L, SEDE, 5)).isFalse();
+        verifyNoInteractions(stockEnMemoria);
+    }
+
+    @Test
+    void descuentoConStockSuficienteSeReflejaEnLaCopiaEnMemoria() {
+        when(inventarioRepository.descontarStock(1L, SEDE, 5)).thenReturn(1);
+
+        assertThat(adapter.descontarStock(1L, SEDE, 5)).isTrue();
+        verify(stockEnMemoria).registrarMovimiento(1L, SEDE, -5);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loteDevuelveSoloLosProductosSinStockYDescuentaLosDemas() {
+        // Filas en orden ascendente de producto: 3 y 9 se descuentan, 7 no tiene stock suficiente
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0, 1});
+
+        List<Long> rechazados = adapter.descontarStock(SEDE, Map.of(9L, 1, 3L, 4, 7L, 2));
+
+        assertThat(rechazados).containsExactly(7L);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<Object[]>> parametros = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), parametros.capture());
+        assertThat(sql.getValue()).contains("cantidad >= ?");
+        assertThat(parametros.getValue()).containsExactly(
+                new Object[]{4, 3L, SEDE, 4}, new Object[]{2, 7L, SEDE, 2}, new Object[]{1, 9L, SEDE, 1});
+        verify(stockEnMemoria).registrarMovimiento(3L, SEDE, -4);
+        verify(stockEnMemoria).registrarMovimiento(9L, SEDE, -1);
+        verifyNoMoreInteractions(stockEnMemoria);
+    }
+}
\ No newline at end of file
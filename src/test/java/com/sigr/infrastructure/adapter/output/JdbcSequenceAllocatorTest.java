@@ -0,0 +1,51 @@
+package com.sigr.infrastructure.adapter.output;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcSequenceAllocatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcSequenceAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new JdbcSequenceAllocator(jdbcTemplate);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1000L);
+    }
+
+    @Test
+    void secuenciaPosicionadaPorElScriptPermiteArrancar() {
+        // setval(seq, MAX(id) + 50, false): el próximo bloque empieza en 1001
+        when(jdbcTemplate.queryForMap(anyString(), anyString()))
+                .thenReturn(Map.of("last_value", 1050L, "is_called", false, "increment_by", 50L));
+
+        assertThatCode(allocator::afterSingletonsInstantiated).doesNotThrowAnyException();
+    }
+
+    @Test
+    void secuenciaCreadaPorHibernateAntesDelScriptImpideArrancar() {
+        when(jdbcTemplate.queryForMap(anyString(), anyString()))
+                .thenReturn(Map.of("last_value", 1L, "is_called", false, "increment_by", 50L));
+
+        assertThatThrownBy(allocator::afterSingletonsInstantiated)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("migrar-ids-a-secuencias.sql")
+                .hasMessageContaining("venta_seq (próximo id 1, MAX(id) de venta = 1000)");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.dto.reporte.ProductoTopVentaDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTest {
+
+    @Test
+    void conMenosProductosQueCapacidadLasCantidadesSonExactas() {
+        SpaceSaving ranking = new SpaceSaving(5);
+        ranking.sumar(3L, "C", "003", 4);
+        ranking.sumar(1L, "A", "001", 2);
+        ranking.sumar(2L, "B", "002", 4);
+        ranking.sumar(1L, "A", "001", 1);
+
+        List<ProductoTopVentaDTO> top = ranking.top(10);
+
+        // A igual cantidad desempata el id menor
+        assertThat(top).extracting(ProductoTopVentaDTO::getProductoId).containsExactly(2L, 3L, 1L);
+        assertThat(top).extracting(ProductoTopVentaDTO::getCantidadVendida).containsExactly(4L, 4L, 3L);
+        assertThat(top).extracting(ProductoTopVentaDTO::getErrorMaximo).containsOnly(0L);
+        assertThat(ranking.top(2)).hasSize(2);
+    }
+
+    @Test
+    void productoNuevoConElRankingLlenoHeredaLaMenorCantidadComoError() {
+        SpaceSaving ranking = new SpaceSaving(2);
+        ranking.sumar(1L, "A", "001", 5);
+        ranking.sumar(2L, "B", "002", 3);
+        ranking.sumar(3L, "C", "003", 1);
+
+        assertThat(ranking.top(2)).containsExactly(
+                new ProductoTopVentaDTO(1L, "A", "001", 5L, 0L),
+                new ProductoTopVentaDTO(3L, "C", "003", 4L, 3L));
+    }
+
+    @Test
+    void respetaLasCotasDeErrorSobreUnFlujoSesgado() {
+        int capacidad = 20;
+        SpaceSaving ranking = new SpaceSaving(capacidad);
+        Map<Long, Long> reales = new HashMap<>();
+        Random random = new Random(42);
+        long total = 0;
+        for (int i = 0; i < 50_000; i++) {
+            // Distribución tipo Zipf sobre 500 productos: pocos productos concentran la mayoría de las unidades
+            long productoId = (long) Math.floor(Math.pow(500, random.nextDouble()));
+            int cantidad = 1 + random.nextInt(3);
+            ranking.sumar(productoId, "P" + productoId, null, cantidad);
+            reales.merge(productoId, (long) cantidad, Long::sum);
+            total += cantidad;
+        }
+
+        List<ProductoTopVentaDTO> top = ranking.top(capacidad);
+        long cotaError = total / capacidad;
+        for (ProductoTopVentaDTO producto : top) {
+            long real = reales.get(producto.getProductoId());
+            assertThat(producto.getErrorMaximo()).isLessThanOrEqualTo(cotaError);
+            assertThat(real).isBetween(producto.getCantidadVendida() - producto.getErrorMaximo(), producto.getCantidadVendida());
+        }
+        // Todo producto con más de total / capacidad unidades tiene que estar en el ranking
+        List<Long> ids = top.stream().map(ProductoTopVentaDTO::getProductoId).toList();
+        reales.forEach((productoId, real) -> {
+            if (real > cotaError) {
+                assertThat(ids).contains(productoId);
+            }
+        });
+        // Los tres más vendidos de verdad encabezan el ranking
+        List<Long> masVendidos = reales.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(3).map(Map.Entry::getKey).toList();
+        assertThat(ids.subList(0, 3)).containsExactlyInAnyOrderElementsOf(masVendidos);
+    }
+}
\ No newline at end of file
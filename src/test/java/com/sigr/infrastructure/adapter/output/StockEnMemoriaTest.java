@@ -0,0 +1,100 @@
+package com.sigr.infrastructure.adapter.output;
+
+import com.sigr.application.dto.inventario.StockDisponibleDTO;
+import com.sigr.domain.repository.InventarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockEnMemoriaTest {
+
+    private static final Long PRODUCTO = 1L;
+    private static final Long SEDE = 2L;
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private InstantaneasTransaccionales instantaneas;
+
+    private StockEnMemoria stockEnMemoria;
+
+    @BeforeEach
+    void setUp() {
+        stockEnMemoria = new StockEnMemoria(inventarioRepository, eventPublisher, instantaneas);
+        recargarCon(new InstantaneasTransaccionales.Instantanea(100, 100, Set.of()), 10, () -> { });
+    }
+
+    @Test
+    void cambioQueElSnapshotNoVioSeReaplicaTrasElReemplazo() {
+        // Confirmado mientras la recarga lee: la transacción 105 seguía en curso al tomar el snapshot
+        recargarCon(new InstantaneasTransaccionales.Instantanea(104, 110, Set.of(105L)), 10,
+                () -> registrarMovimientoDeTransaccion(105L, -3));
+
+        assertThat(stockEnMemoria.obtenerCantidad(PRODUCTO, SEDE)).isEqualTo(7);
+    }
+
+    @Test
+    void cambioQueElSnapshotYaVioNoSeCuentaDosVeces() {
+        // La transacción 99 confirmó antes del snapshot, pero su afterCommit llega durante la lectura
+        recargarCon(new InstantaneasTransaccionales.Instantanea(104, 110, Set.of()), 7,
+                () -> registrarMovimientoDeTransaccion(99L, -3));
+
+        assertThat(stockEnMemoria.obtenerCantidad(PRODUCTO, SEDE)).isEqualTo(7);
+    }
+
+    @Test
+    void cambiosFueraDeUnaRecargaSeAplicanUnaSolaVez() {
+        registrarMovimientoDeTransaccion(120L, -4);
+        recargarCon(new InstantaneasTransaccionales.Instantanea(130, 130, Set.of()), 6, () -> { });
+
+        assertThat(stockEnMemoria.obtenerCantidad(PRODUCTO, SEDE)).isEqualTo(6);
+        assertThat(stockEnMemoria.productosConStockBajo(SEDE)).isEmpty();
+    }
+
+    @Test
+    void instantaneaSoloIncluyeTransaccionesConfirmadasAntesDeTomarla() {
+        InstantaneasTransaccionales.Instantanea instantanea = InstantaneasTransaccionales.Instantanea.parse("100:110:104,107");
+
+        assertThat(instantanea.incluye(99L)).isTrue();
+        assertThat(instantanea.incluye(105L)).isTrue();
+        assertThat(instantanea.incluye(104L)).isFalse();
+        assertThat(instantanea.incluye(107L)).isFalse();
+        assertThat(instantanea.incluye(110L)).isFalse();
+        assertThat(instantanea.incluye(null)).isTrue();
+        assertThat(InstantaneasTransaccionales.Instantanea.parse("100:100:").enCurso()).isEmpty();
+    }
+
+    private void registrarMovimientoDeTransaccion(Long txid, int delta) {
+        when(instantaneas.txidActual()).thenReturn(txid);
+        stockEnMemoria.registrarMovimiento(PRODUCTO, SEDE, delta);
+    }
+
+    /**
+     * Recarga con la cantidad que devuelve la BD, ejecutando {@code duranteLaLectura} entre el snapshot y el reemplazo.
+     */
+    private void recargarCon(InstantaneasTransaccionales.Instantanea instantanea, int cantidadEnBd, Runnable duranteLaLectura) {
+        when(inventarioRepository.findAllStock()).thenReturn(List.of(new StockDisponibleDTO(PRODUCTO, SEDE, cantidadEnBd, 5)));
+        doAnswer(invocacion -> {
+            Supplier<?> consulta = invocacion.getArgument(0);
+            Object datos = consulta.get();
+            duranteLaLectura.run();
+            return new InstantaneasTransaccionales.Lectura<>(instantanea, datos);
+        }).when(instantaneas).leer(any());
+        stockEnMemoria.recargar();
+    }
+}
\ No newline at end of file